@@ -0,0 +1,22 @@
+package com.teklif.app.config;
+
+import com.teklif.app.util.TenantContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Applied by Spring Boot to the application task executor, so {@code @Async}
+     * methods run with the caller's tenant and authenticated principal.
+     */
+    @Bean
+    public TaskDecorator tenantContextTaskDecorator() {
+        return task -> TenantContext.wrap(new DelegatingSecurityContextRunnable(task));
+    }
+}
@@ -31,10 +31,11 @@ public class ActivityLogController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor
     ) {
         PagedResponse<ActivityLogResponse> response = activityLogService.getLogs(
-                logType, targetId, startDate, endDate, page, limit
+                logType, targetId, startDate, endDate, page, limit, cursor
         );
         return ResponseEntity.ok(ApiResponse.success(response, response.getPagination()));
     }
@@ -29,9 +29,10 @@ public class CustomerController {
             @RequestParam(required = false) CustomerType type,
             @RequestParam(required = false) Boolean isActive,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor
     ) {
-        PagedResponse<CustomerResponse> response = customerService.getAllCustomers(search, type, isActive, page, limit);
+        PagedResponse<CustomerResponse> response = customerService.getAllCustomers(search, type, isActive, page, limit, cursor);
         return ResponseEntity.ok(ApiResponse.success(response, response.getPagination()));
     }
 
@@ -1,23 +1,40 @@
 package com.teklif.app.controller;
 
 import com.teklif.app.dto.request.CreateOfferRequest;
+import com.teklif.app.dto.request.OfferItemsPatchRequest;
 import com.teklif.app.dto.request.ProductRequest;
 import com.teklif.app.dto.response.ApiResponse;
+import com.teklif.app.dto.response.OfferImportResponse;
 import com.teklif.app.dto.response.OfferResponse;
+import com.teklif.app.dto.response.OfferSummaryResponse;
 import com.teklif.app.dto.response.PagedResponse;
 import com.teklif.app.dto.response.ProductResponse;
 import com.teklif.app.enums.OfferStatus;
+import com.teklif.app.service.OfferImportService;
+import com.teklif.app.service.OfferPdfService;
 import com.teklif.app.service.OfferService;
+import com.teklif.app.service.OfferSnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 
 @RestController
@@ -27,20 +44,23 @@ import java.time.Instant;
 public class OfferController {
 
     private final OfferService offerService;
+    private final OfferImportService offerImportService;
+    private final OfferPdfService offerPdfService;
 
     @GetMapping
     @Operation(summary = "Get all offers")
-    public ResponseEntity<ApiResponse<PagedResponse<OfferResponse>>> getAllOffers(
+    public ResponseEntity<ApiResponse<PagedResponse<OfferSummaryResponse>>> getAllOffers(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) OfferStatus status,
             @RequestParam(required = false) String customerId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor
     ) {
-        PagedResponse<OfferResponse> response = offerService.getAllOffers(
-                search, status, customerId, startDate, endDate, page, limit
+        PagedResponse<OfferSummaryResponse> response = offerService.getAllOffers(
+                search, status, customerId, startDate, endDate, page, limit, cursor
         );
         return ResponseEntity.ok(ApiResponse.success(response, response.getPagination()));
     }
@@ -59,6 +79,17 @@ public class OfferController {
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(response));
     }
 
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Bulk import offers from an NDJSON or CSV stream")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'TENANT_ADMIN')")
+    public ResponseEntity<ApiResponse<OfferImportResponse>> importOffers(HttpServletRequest request) throws IOException {
+        OfferImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? OfferImportService.Format.CSV
+                : OfferImportService.Format.NDJSON;
+        OfferImportResponse response = offerImportService.importOffers(request.getInputStream(), format);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @PostMapping("/{id}/send")
     @Operation(summary = "Send offer")
     public ResponseEntity<ApiResponse<OfferResponse>> sendOffer(@PathVariable String id) {
@@ -73,6 +104,19 @@ public class OfferController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @PostMapping("/{id}/snapshot")
+    @Operation(summary = "Re-render the public snapshot of a sent offer")
+    public ResponseEntity<ApiResponse<Void>> rerenderSnapshot(@PathVariable String id) {
+        offerService.rerenderSnapshot(id);
+        return ResponseEntity.ok(ApiResponse.successWithMessage("Offer snapshot re-rendered"));
+    }
+
+    @GetMapping("/{id}/pdf")
+    @Operation(summary = "Download offer as PDF")
+    public ResponseEntity<Resource> getOfferPdf(@PathVariable String id, WebRequest webRequest) {
+        return pdfPayload(offerPdfService.getPdf(id), webRequest);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete offer")
     public ResponseEntity<ApiResponse<Void>> deleteOffer(@PathVariable String id) {
@@ -90,24 +134,43 @@ public class OfferController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @PatchMapping("/{id}/items")
+    @Operation(summary = "Update only the given offer items")
+    public ResponseEntity<ApiResponse<OfferResponse>> patchOfferItems(
+            @PathVariable String id,
+            @Valid @RequestBody OfferItemsPatchRequest request
+    ) {
+        OfferResponse response = offerService.patchOfferItems(id, request);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     // Public endpoints (no authentication required)
 
     @GetMapping("/public/{uuid}")
     @Operation(summary = "Get public offer")
-    public ResponseEntity<ApiResponse<OfferResponse>> getPublicOffer(@PathVariable String uuid) {
-        OfferResponse response = offerService.getPublicOffer(uuid);
-        return ResponseEntity.ok(ApiResponse.success(response));
+    public ResponseEntity<byte[]> getPublicOffer(@PathVariable String uuid, WebRequest webRequest) {
+        return publicPayload(offerService.getPublicOffer(uuid), webRequest, true);
+    }
+
+    @GetMapping("/public/{uuid}/pdf")
+    @Operation(summary = "Download public offer as PDF")
+    public ResponseEntity<Resource> getPublicOfferPdf(
+            @PathVariable String uuid,
+            @RequestHeader(value = "X-Offer-Password", required = false) String password,
+            WebRequest webRequest
+    ) {
+        return pdfPayload(offerPdfService.getPublicPdf(uuid, password), webRequest);
     }
 
     @PostMapping("/public/{uuid}/view")
     @Operation(summary = "Record offer view")
-    public ResponseEntity<ApiResponse<OfferResponse>> recordOfferView(
+    public ResponseEntity<?> recordOfferView(
             @PathVariable String uuid,
-            @RequestBody ViewRequest request
+            @RequestBody ViewRequest request,
+            WebRequest webRequest
     ) {
         if(offerService.recordOfferView(uuid, request)){
-            OfferResponse response = offerService.getOffer(uuid);
-            return ResponseEntity.ok(ApiResponse.success(response));
+            return publicPayload(offerService.getOffer(uuid), webRequest, false);
         }else{
             return ResponseEntity.ok(ApiResponse.error("Hatalı şifre girildi!"));
         }
@@ -133,6 +196,43 @@ public class OfferController {
         return ResponseEntity.ok(ApiResponse.successWithMessage("Offer rejected successfully"));
     }
 
+    // Snapshot byte'ları olduğu gibi yazılır; gzip kabul etmeyen istemciye açılarak gönderilir
+    private static ResponseEntity<byte[]> publicPayload(OfferSnapshotService.Rendered payload, WebRequest webRequest,
+                                                        boolean conditional) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = payload.gzipped() && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip || !payload.gzipped() ? payload.etag()
+                : payload.etag().substring(0, payload.etag().length() - 1) + "-identity\"";
+
+        if (conditional && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.body());
+        }
+        return response.body(payload.json());
+    }
+
+    // Dosya diskten akıtılır; içerik anahtardan türediği için ETag her zaman güçlü
+    private static ResponseEntity<Resource> pdfPayload(OfferPdfService.Pdf pdf, WebRequest webRequest) {
+        if (webRequest.checkNotModified(pdf.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .eTag(pdf.etag())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(pdf.fileName(), StandardCharsets.UTF_8).build().toString())
+                .body(new FileSystemResource(pdf.path()));
+    }
+
     @Data
     public static class ViewRequest {
         private String password;
@@ -33,9 +33,10 @@ public class ProductController {
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Boolean isActive,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor
     ) {
-        PagedResponse<ProductResponse> response = productService.getAllProducts(search, category, isActive, page, limit);
+        PagedResponse<ProductResponse> response = productService.getAllProducts(search, category, isActive, page, limit, cursor);
         return ResponseEntity.ok(ApiResponse.success(response, response.getPagination()));
     }
 
@@ -0,0 +1,39 @@
+package com.teklif.app.dto.request;
+
+import com.teklif.app.enums.OfferStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One offer in a bulk import: an NDJSON line, or a group of CSV rows sharing the same offerRef.
+ */
+@Data
+public class OfferImportRow {
+
+    // Eski sistemdeki teklif numarası; boşsa yeni numara üretilir
+    private String offerNo;
+
+    @NotBlank(message = "Customer ID is required")
+    private String customerId;
+
+    @NotBlank(message = "Currency is required")
+    @Size(max = 3, message = "Currency must be a 3-letter code")
+    private String currency;
+
+    private Instant validUntil;
+
+    private String notes;
+
+    private OfferStatus status;
+
+    @Valid
+    @NotEmpty(message = "At least one item is required")
+    private List<OfferItemRequest> items = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.teklif.app.dto.request;
+
+import jakarta.validation.Valid;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Partial item update: lines in {@code upsert} with an id are updated in place,
+ * lines without an id are added, and ids in {@code remove} are deleted.
+ */
+@Data
+public class OfferItemsPatchRequest {
+
+    @Valid
+    private List<OfferItemRequest> upsert;
+
+    private List<String> remove;
+}
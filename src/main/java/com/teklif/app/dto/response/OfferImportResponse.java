@@ -0,0 +1,30 @@
+package com.teklif.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfferImportResponse {
+    private int totalRows;
+    private int importedOffers;
+    private int importedItems;
+    private int failedRows;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private long row;
+        private String offerNo;
+        private String message;
+    }
+}
@@ -44,6 +44,9 @@ public class OfferResponse {
     private Boolean showTlEquivalent;
     private Boolean showExchangeRateInfo;
     private BigDecimal exchangeRate;
+    private BigDecimal subtotalTl;
+    private BigDecimal vatTotalTl;
+    private BigDecimal totalTl;
     private Boolean passwordRequired;
     private CompanyBasicResponse company;
 }
\ No newline at end of file
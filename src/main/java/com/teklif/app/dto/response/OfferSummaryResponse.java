@@ -0,0 +1,39 @@
+package com.teklif.app.dto.response;
+
+import com.teklif.app.enums.OfferStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Offer row for list views. Loaded by a single projection query, without items;
+ * use {@link OfferResponse} for the full offer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfferSummaryResponse {
+    private String id;
+    private String offerNo;
+    private String uuid;
+    private String customerId;
+    private String customerName;
+    private OfferStatus status;
+    private BigDecimal subtotal;
+    private BigDecimal vatTotal;
+    private BigDecimal total;
+    private String currency;
+    private Instant validUntil;
+    private Boolean hasBeenViewed;
+    private Instant sentAt;
+    private Instant viewedAt;
+    private Instant acceptedAt;
+    private Instant rejectedAt;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.teklif.app.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,11 +10,16 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginationResponse {
-    private long total;
-    private int page;
+    private Long total;
+    private Integer page;
     private int limit;
-    private int totalPages;
+    private Integer totalPages;
+
+    // Cursor mode: total/page/totalPages are not computed
+    private Boolean hasMore;
+    private String nextCursor;
 
     public static PaginationResponse of(long total, int page, int limit) {
         int totalPages = (int) Math.ceil((double) total / limit);
@@ -24,4 +30,12 @@ public class PaginationResponse {
                 .totalPages(totalPages)
                 .build();
     }
-}
\ No newline at end of file
+
+    public static PaginationResponse ofCursor(int limit, boolean hasMore, String nextCursor) {
+        return PaginationResponse.builder()
+                .limit(limit)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
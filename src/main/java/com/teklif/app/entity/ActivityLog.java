@@ -13,7 +13,9 @@ import java.time.Instant;
     @Index(name = "idx_user_id", columnList = "userId"),
     @Index(name = "idx_log_type", columnList = "logType"),
     @Index(name = "idx_target_id", columnList = "targetId"),
-    @Index(name = "idx_created_at", columnList = "createdAt")
+    @Index(name = "idx_created_at", columnList = "createdAt"),
+    @Index(name = "idx_activity_logs_tenant_log_date", columnList = "tenantId, logDate, id"),
+    @Index(name = "idx_activity_logs_tenant_type_log_date", columnList = "tenantId, logType, logDate")
 })
 @Getter
 @Setter
@@ -9,7 +9,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", indexes = {
+    @Index(name = "idx_customers_tenant_created", columnList = "tenantId, createdAt, id"),
+    @Index(name = "idx_customers_tenant_type_created", columnList = "tenantId, type, createdAt"),
+    @Index(name = "idx_customers_updated_at", columnList = "updatedAt")
+})
 @Getter
 @Setter
 @NoArgsConstructor
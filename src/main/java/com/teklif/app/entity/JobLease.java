@@ -0,0 +1,36 @@
+package com.teklif.app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Cluster-wide lease of a background job. The node named in {@code owner} runs the
+ * job until {@code leasedUntil}; other nodes skip it until the lease lapses.
+ * {@code completedAt} records the last run that finished, whichever node ran it.
+ */
+@Entity
+@Table(name = "job_leases")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    private Instant leasedUntil;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    private Instant completedAt;
+}
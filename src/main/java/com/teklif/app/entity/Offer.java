@@ -12,7 +12,13 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "offers")
+@Table(name = "offers", indexes = {
+    @Index(name = "idx_offers_tenant_created", columnList = "tenantId, createdAt, id"),
+    @Index(name = "idx_offers_tenant_status_created", columnList = "tenantId, status, createdAt"),
+    @Index(name = "idx_offers_tenant_customer_created", columnList = "tenantId, customerId, createdAt"),
+    @Index(name = "idx_offers_updated_at", columnList = "updatedAt"),
+    @Index(name = "idx_offers_status_valid_until", columnList = "status, validUntil, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -88,6 +94,11 @@ public class Offer extends BaseEntity {
     private String rejectedBy;
     private String rejectionNote;
 
+    // Mevcut satırlar için default 0; public aksiyonlar version'ı UPDATE içinde artırır
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @OneToMany(mappedBy = "offer", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<OfferItem> items = new ArrayList<>();
@@ -0,0 +1,30 @@
+package com.teklif.app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * High-water mark of offer numbers per prefix and day (e.g. {@code ABC-20261018}).
+ * Nodes reserve blocks of numbers by advancing {@code nextValue} under a row lock.
+ */
+@Entity
+@Table(name = "offer_number_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OfferNumberSequence {
+
+    @Id
+    @Column(length = 64)
+    private String sequenceKey;
+
+    @Column(nullable = false)
+    private Long nextValue;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
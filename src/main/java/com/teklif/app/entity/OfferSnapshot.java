@@ -0,0 +1,58 @@
+package com.teklif.app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Pre-serialized public payload of a sent offer ({@code ApiResponse<OfferResponse>} JSON,
+ * optionally gzip-compressed), written by {@code sendOffer} and re-rendered on later
+ * edits and state transitions. Public links stream {@code body} as-is.
+ */
+@Entity
+@Table(name = "offer_snapshots", indexes = {
+        @Index(name = "idx_offer_snapshots_uuid", columnList = "uuid", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OfferSnapshot {
+
+    @Id
+    @Column(length = 36)
+    private String offerId;
+
+    @Column(nullable = false, length = 36)
+    private String uuid;
+
+    @Column(nullable = false)
+    private String tenantId;
+
+    private String customerId;
+
+    @Column(nullable = false)
+    private Integer revision;
+
+    @Column(nullable = false, length = 64)
+    private String etag;
+
+    @Column(nullable = false)
+    private Boolean gzipped;
+
+    @Column(nullable = false)
+    private Boolean passwordRequired;
+
+    // Tek seferlik link görüntülendiyse public GET 403 döner
+    @Column(nullable = false)
+    private Boolean consumed;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] body;
+
+    @Column(nullable = false)
+    private Instant renderedAt;
+}
@@ -9,7 +9,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_tenant_created", columnList = "tenantId, createdAt, id"),
+    @Index(name = "idx_products_tenant_category_created", columnList = "tenantId, category, createdAt")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,57 @@
+package com.teklif.app.entity;
+
+import com.teklif.app.enums.OfferStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Read model of the dashboard: number and total amount of a tenant's non-deleted
+ * offers per status and currency. Rows are adjusted by deltas in the transaction that
+ * changes the offers and repaired by the reconciliation job when they drift.
+ */
+@Entity
+@Table(name = "tenant_offer_stats")
+@IdClass(TenantOfferStats.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TenantOfferStats {
+
+    @Id
+    @Column(length = 36)
+    private String tenantId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private OfferStatus status;
+
+    @Id
+    @Column(length = 3)
+    private String currency;
+
+    @Column(nullable = false)
+    private long offerCount;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private String tenantId;
+        private OfferStatus status;
+        private String currency;
+    }
+}
@@ -0,0 +1,7 @@
+package com.teklif.app.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,43 @@
+package com.teklif.app.enums;
+
+public enum PackageTier {
+    // Dakika başına istek bütçeleri: okuma, yazma, dosya yükleme
+    BASIC(600, 120, 20),
+    PREMIUM(3000, 600, 100),
+    ENTERPRISE(12000, 2400, 400);
+
+    private final int readsPerMinute;
+    private final int writesPerMinute;
+    private final int uploadsPerMinute;
+
+    PackageTier(int readsPerMinute, int writesPerMinute, int uploadsPerMinute) {
+        this.readsPerMinute = readsPerMinute;
+        this.writesPerMinute = writesPerMinute;
+        this.uploadsPerMinute = uploadsPerMinute;
+    }
+
+    public int getReadsPerMinute() {
+        return readsPerMinute;
+    }
+
+    public int getWritesPerMinute() {
+        return writesPerMinute;
+    }
+
+    public int getUploadsPerMinute() {
+        return uploadsPerMinute;
+    }
+
+    // Tenant.packageName serbest metin; bilinmeyen paketler BASIC sayılır
+    public static PackageTier fromPackageName(String packageName) {
+        if (packageName == null) {
+            return BASIC;
+        }
+        for (PackageTier tier : values()) {
+            if (tier.name().equalsIgnoreCase(packageName.trim())) {
+                return tier;
+            }
+        }
+        return BASIC;
+    }
+}
@@ -27,4 +27,12 @@ public class CustomException extends RuntimeException {
     public static CustomException badRequest(String message) {
         return new CustomException(message, HttpStatus.BAD_REQUEST);
     }
+
+    public static CustomException conflict(String message) {
+        return new CustomException(message, HttpStatus.CONFLICT);
+    }
+
+    public static CustomException serviceUnavailable(String message) {
+        return new CustomException(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
\ No newline at end of file
@@ -14,12 +14,27 @@ import org.mapstruct.MappingTarget;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring", uses = {CustomerMapper.class, TenantMapper.class, ProductMapper.class})
 public interface OfferMapper {
 
     default OfferResponse toResponse(Offer offer) {
+        return buildResponse(offer, this::toItemResponse);
+    }
+
+    /**
+     * Maps an offer loaded through the detail fetch plan. Item files come from
+     * {@code filesByProductId} (non-deleted files only) instead of walking the lazy
+     * {@code product.files} collection per item.
+     */
+    default OfferResponse toDetailResponse(Offer offer, Map<String, List<ProductFile>> filesByProductId) {
+        return buildResponse(offer, item -> toItemResponse(item, filesByProductId));
+    }
+
+    private OfferResponse buildResponse(Offer offer, Function<OfferItem, OfferItemResponse> itemMapper) {
         if (offer == null) {
             return null;
         }
@@ -34,7 +49,7 @@ public interface OfferMapper {
                         getTenantMapper().toCompanyBasicResponse(offer.getTenant()) : null)
                 .items(offer.getItems().stream()
                         .filter(item -> !item.getIsDeleted())
-                        .map(this::toItemResponse)
+                        .map(itemMapper)
                         .collect(Collectors.toList()))
                 .subtotal(offer.getSubtotal())
                 .vatTotal(offer.getVatTotal())
@@ -75,25 +90,25 @@ public interface OfferMapper {
         return new com.teklif.app.mapper.TenantMapperImpl();
     }
 
+    default OfferItemResponse toItemResponse(OfferItem item, Map<String, List<ProductFile>> filesByProductId) {
+        if (item == null) {
+            return null;
+        }
+        OfferItemResponse response = toItemResponseWithoutFiles(item);
+        if (item.getProductId() != null) {
+            response.setFiles(filesByProductId.getOrDefault(item.getProductId(), List.of()).stream()
+                    .map(this::toFileResponse)
+                    .collect(Collectors.toList()));
+        }
+        return response;
+    }
+
     default OfferItemResponse toItemResponse(OfferItem item) {
         if (item == null) {
             return null;
         }
 
-        OfferItemResponse response = OfferItemResponse.builder()
-                .id(item.getId())
-                .productId(item.getProductId())
-                .productName(item.getProductName())
-                .description(item.getDescription())
-                .quantity(item.getQuantity())
-                .unit(item.getUnit())
-                .unitPrice(item.getUnitPrice())
-                .vatRate(item.getVatRate())
-                .discountRate(item.getDiscountRate())
-                .subtotal(item.getSubtotal())
-                .vatAmount(item.getVatAmount())
-                .total(item.getTotal())
-                .build();
+        OfferItemResponse response = toItemResponseWithoutFiles(item);
 
         // Map product files if product exists
         try {
@@ -111,6 +126,23 @@ public interface OfferMapper {
         return response;
     }
 
+    private OfferItemResponse toItemResponseWithoutFiles(OfferItem item) {
+        return OfferItemResponse.builder()
+                .id(item.getId())
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .description(item.getDescription())
+                .quantity(item.getQuantity())
+                .unit(item.getUnit())
+                .unitPrice(item.getUnitPrice())
+                .vatRate(item.getVatRate())
+                .discountRate(item.getDiscountRate())
+                .subtotal(item.getSubtotal())
+                .vatAmount(item.getVatAmount())
+                .total(item.getTotal())
+                .build();
+    }
+
     default ProductFileResponse toFileResponse(ProductFile file) {
         if (file == null) {
             return null;
@@ -2,9 +2,12 @@ package com.teklif.app.repository;
 
 import com.teklif.app.entity.ActivityLog;
 import com.teklif.app.enums.LogType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +16,7 @@ import java.time.Instant;
 import java.util.List;
 
 @Repository
-public interface ActivityLogRepository extends JpaRepository<ActivityLog, String> {
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, String>, JpaSpecificationExecutor<ActivityLog> {
 
     @Query("SELECT al FROM ActivityLog al " +
             "LEFT JOIN FETCH al.user " +
@@ -22,23 +25,18 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, String
             "ORDER BY al.logDate DESC")
     List<ActivityLog> findByTenantIdOrderByLogDateDesc(@Param("tenantId") String tenantId);
 
-    @Query("SELECT al FROM ActivityLog al " +
-            "LEFT JOIN FETCH al.user " +
-            "LEFT JOIN FETCH al.tenant " +
-            "WHERE al.tenantId = :tenantId AND al.isDeleted = false " +
-            "AND (:logType IS NULL OR al.logType = :logType) " +
-            "AND (:targetId IS NULL OR al.targetId = :targetId) " +
-            "AND (:startDate IS NULL OR al.logDate >= :startDate) " +
-            "AND (:endDate IS NULL OR al.logDate <= :endDate) " +
-            "ORDER BY al.logDate DESC")
-    Page<ActivityLog> findByTenantIdWithFilters(
-            @Param("tenantId") String tenantId,
-            @Param("logType") LogType logType,
-            @Param("targetId") String targetId,
-            @Param("startDate") Instant startDate,
-            @Param("endDate") Instant endDate,
-            Pageable pageable
-    );
+    default Page<ActivityLog> findByTenantIdWithFilters(String tenantId, LogType logType, String targetId,
+                                                        Instant startDate, Instant endDate, Pageable pageable) {
+        return findAll(ListingSpecifications.activityLogs(tenantId, logType, targetId, startDate, endDate), pageable);
+    }
+
+    default List<ActivityLog> findByTenantIdWithFiltersAfter(String tenantId, LogType logType, String targetId,
+                                                             Instant startDate, Instant endDate,
+                                                             Instant cursorTime, String cursorId, Limit limit) {
+        Specification<ActivityLog> spec = ListingSpecifications.activityLogs(tenantId, logType, targetId, startDate, endDate)
+                .and(ListingSpecifications.before("logDate", cursorTime, cursorId));
+        return findBy(spec, query -> query.sortBy(ListingSpecifications.NEWEST_LOG_FIRST).limit(limit.max()).all());
+    }
 
     @Query("SELECT al FROM ActivityLog al " +
             "WHERE al.targetId = :targetId AND al.isDeleted = false " +
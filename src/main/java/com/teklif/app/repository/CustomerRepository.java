@@ -2,34 +2,41 @@ package com.teklif.app.repository;
 
 import com.teklif.app.entity.Customer;
 import com.teklif.app.enums.CustomerType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, String> {
+public interface CustomerRepository extends JpaRepository<Customer, String>, JpaSpecificationExecutor<Customer> {
 
     Optional<Customer> findByIdAndTenantIdAndIsDeletedFalse(String id, String tenantId);
 
-    @Query("SELECT c FROM Customer c WHERE c.isDeleted = false " +
-            "AND c.tenantId = :tenantId " +
-            "AND (:search IS NULL OR LOWER(c.companyName) LIKE LOWER(CONCAT('%', :search, '%')) " +
-            "    OR LOWER(c.contactPerson) LIKE LOWER(CONCAT('%', :search, '%')) " +
-            "    OR LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-            "AND (:type IS NULL OR c.type = :type) " +
-            "AND (:isActive IS NULL OR c.isActive = :isActive)")
-    Page<Customer> findAllWithFilters(
-            @Param("tenantId") String tenantId,
-            @Param("search") String search,
-            @Param("type") CustomerType type,
-            @Param("isActive") Boolean isActive,
-            Pageable pageable
-    );
+    default Page<Customer> findAllWithFilters(String tenantId, Collection<String> matchedIds, String search,
+                                              CustomerType type, Boolean isActive, Pageable pageable) {
+        return findAll(ListingSpecifications.customers(tenantId, matchedIds, search, type, isActive), pageable);
+    }
+
+    default List<Customer> findAllWithFiltersAfter(String tenantId, Collection<String> matchedIds, String search,
+                                                   CustomerType type, Boolean isActive,
+                                                   Instant cursorTime, String cursorId, Limit limit) {
+        Specification<Customer> spec = ListingSpecifications.customers(tenantId, matchedIds, search, type, isActive)
+                .and(ListingSpecifications.before("createdAt", cursorTime, cursorId));
+        return findBy(spec, query -> query.sortBy(ListingSpecifications.NEWEST_FIRST).limit(limit.max()).all());
+    }
 
     long countByTenantIdAndIsDeletedFalse(String tenantId);
+
+    @Query("SELECT c.id FROM Customer c WHERE c.tenantId = :tenantId AND c.isDeleted = false")
+    List<String> findIdsByTenantId(@Param("tenantId") String tenantId);
 }
\ No newline at end of file
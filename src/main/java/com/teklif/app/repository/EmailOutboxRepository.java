@@ -0,0 +1,36 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.entity.EmailOutbox;
+import com.teklif.app.enums.OutboxStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, String> {
+
+    @Query("SELECT m FROM EmailOutbox m WHERE m.status = com.teklif.app.enums.OutboxStatus.PENDING " +
+            "AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<EmailOutbox> findDue(@Param("now") Instant now, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutbox m SET m.status = com.teklif.app.enums.OutboxStatus.SENT, m.sentAt = :now, " +
+            "m.attempts = m.attempts + 1, m.lastError = null, m.updatedAt = :now WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<String> ids, @Param("now") Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutbox m SET m.status = :status, m.attempts = m.attempts + 1, " +
+            "m.nextAttemptAt = :nextAttemptAt, m.lastError = :error, m.updatedAt = :now WHERE m.id = :id")
+    int markFailed(@Param("id") String id, @Param("status") OutboxStatus status,
+                   @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error,
+                   @Param("now") Instant now);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,38 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    // Süresi dolmuş ya da zaten bizde olan lease'i alır; eşzamanlı iki node'dan yalnızca biri 1 satır etkiler
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.leasedUntil = :until, l.updatedAt = :now " +
+            "WHERE l.name = :name AND (l.owner = :owner OR l.leasedUntil < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("until") Instant until, @Param("now") Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobLease l SET l.leasedUntil = :now, l.updatedAt = :now " +
+            "WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobLease l SET l.completedAt = :now, l.updatedAt = :now WHERE l.name = :name")
+    int complete(@Param("name") String name, @Param("now") Instant now);
+
+    boolean existsByNameAndCompletedAtIsNotNull(String name);
+
+    @Modifying
+    @Query(value = "INSERT INTO job_leases (name, owner, leased_until, updated_at) " +
+            "VALUES (:name, :owner, :until, :now)", nativeQuery = true)
+    void insert(@Param("name") String name, @Param("owner") String owner,
+                @Param("until") Instant until, @Param("now") Instant now);
+}
@@ -0,0 +1,165 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.entity.ActivityLog;
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.Product;
+import com.teklif.app.enums.CustomerType;
+import com.teklif.app.enums.LogType;
+import com.teklif.app.enums.OfferStatus;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Filters for the list endpoints, built from Criteria so that only the filters the
+ * caller actually set reach SQL. The old {@code (:x IS NULL OR col = :x)} form made
+ * MySQL plan for every filter at once and fall back to scanning the tenant's rows;
+ * here a status filter is a plain {@code tenant_id = ? AND status = ?} that the
+ * {@code (tenantId, status, createdAt)} index can serve.
+ */
+public final class ListingSpecifications {
+
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    static final Sort NEWEST_LOG_FIRST = Sort.by(Sort.Direction.DESC, "logDate", "id");
+
+    private ListingSpecifications() {
+    }
+
+    /**
+     * @param matchedIds ids already resolved from the search index for {@code search}; when
+     *                   non-null they replace the LIKE predicate
+     */
+    public static Specification<Offer> offers(String tenantId, Collection<String> matchedIds, String search,
+                                              OfferStatus status, String customerId,
+                                              Instant startDate, Instant endDate) {
+        List<Specification<Offer>> specs = new ArrayList<>();
+        specs.add(tenant(tenantId));
+        if (matchedIds != null) {
+            specs.add(idIn(matchedIds));
+        } else if (hasText(search)) {
+            specs.add(containsIgnoreCase(search, "offerNo"));
+        }
+        addEqual(specs, "status", status);
+        addEqual(specs, "customerId", customerId);
+        addRange(specs, "createdAt", startDate, endDate);
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<Customer> customers(String tenantId, Collection<String> matchedIds, String search,
+                                                    CustomerType type, Boolean isActive) {
+        List<Specification<Customer>> specs = new ArrayList<>();
+        specs.add(tenant(tenantId));
+        if (matchedIds != null) {
+            specs.add(idIn(matchedIds));
+        } else if (hasText(search)) {
+            specs.add(containsIgnoreCase(search, "companyName", "contactPerson", "email"));
+        }
+        addEqual(specs, "type", type);
+        addEqual(specs, "isActive", isActive);
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<Product> products(String tenantId, String search, String category, Boolean isActive) {
+        List<Specification<Product>> specs = new ArrayList<>();
+        specs.add(tenant(tenantId));
+        if (hasText(search)) {
+            specs.add(containsIgnoreCase(search, "name", "code"));
+        }
+        addEqual(specs, "category", category);
+        addEqual(specs, "isActive", isActive);
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<ActivityLog> activityLogs(String tenantId, LogType logType, String targetId,
+                                                          Instant startDate, Instant endDate) {
+        List<Specification<ActivityLog>> specs = new ArrayList<>();
+        specs.add(tenant(tenantId));
+        specs.add(fetch("user", "tenant"));
+        addEqual(specs, "logType", logType);
+        addEqual(specs, "targetId", targetId);
+        addRange(specs, "logDate", startDate, endDate);
+        return Specification.allOf(specs);
+    }
+
+    /**
+     * Keyset seek for lists sorted by {@code (timestamp DESC, id DESC)}: rows strictly after the cursor.
+     * Returns an unrestricted spec for the first page.
+     */
+    public static <T> Specification<T> before(String timestampAttribute, Instant cursorTime, String cursorId) {
+        if (cursorTime == null) {
+            return Specification.unrestricted();
+        }
+        return (root, query, cb) -> {
+            Expression<Instant> timestamp = root.get(timestampAttribute);
+            return cb.or(
+                    cb.lessThan(timestamp, cursorTime),
+                    cb.and(cb.equal(timestamp, cursorTime), cb.lessThan(root.get("id"), cursorId)));
+        };
+    }
+
+    private static <T> Specification<T> tenant(String tenantId) {
+        return (root, query, cb) -> cb.and(
+                cb.equal(root.get("tenantId"), tenantId),
+                cb.isFalse(root.get("isDeleted")));
+    }
+
+    // Count sorgusunda fetch join geçersiz, sadece satır sorgusunda ekle
+    private static <T> Specification<T> fetch(String... associations) {
+        return (root, query, cb) -> {
+            if (!isCountQuery(query.getResultType())) {
+                for (String association : associations) {
+                    root.fetch(association, JoinType.LEFT);
+                }
+            }
+            return null;
+        };
+    }
+
+    private static <T> Specification<T> idIn(Collection<String> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    private static <T> Specification<T> containsIgnoreCase(String search, String... attributes) {
+        String pattern = "%" + search + "%";
+        return (root, query, cb) -> {
+            // Küçük harfe çevirme veritabanında: Java tarafındaki locale farkı (İ/ı) sonucu değiştirmesin
+            Expression<String> lowerPattern = cb.lower(cb.literal(pattern));
+            List<Predicate> matches = new ArrayList<>(attributes.length);
+            for (String attribute : attributes) {
+                matches.add(cb.like(cb.lower(root.get(attribute)), lowerPattern));
+            }
+            return cb.or(matches.toArray(Predicate[]::new));
+        };
+    }
+
+    private static <T> void addEqual(List<Specification<T>> specs, String attribute, Object value) {
+        if (value != null) {
+            specs.add((root, query, cb) -> cb.equal(root.get(attribute), value));
+        }
+    }
+
+    private static <T> void addRange(List<Specification<T>> specs, String attribute, Instant from, Instant to) {
+        if (from != null) {
+            specs.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get(attribute), from));
+        }
+        if (to != null) {
+            specs.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get(attribute), to));
+        }
+    }
+
+    private static boolean isCountQuery(Class<?> resultType) {
+        return resultType == Long.class || resultType == long.class;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,29 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.entity.OfferNumberSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface OfferNumberSequenceRepository extends JpaRepository<OfferNumberSequence, String> {
+
+    // UPDATE satırı kilitler ve her zaman son commit edilmiş değerin üzerine yazar
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OfferNumberSequence s SET s.nextValue = s.nextValue + :size, s.updatedAt = :now " +
+            "WHERE s.sequenceKey = :sequenceKey")
+    int advance(@Param("sequenceKey") String sequenceKey, @Param("size") long size, @Param("now") Instant now);
+
+    // save() var olan satırı merge ile ezebilirdi; düz INSERT çakışmada hata verir
+    @Modifying
+    @Query(value = "INSERT INTO offer_number_sequences (sequence_key, next_value, updated_at) " +
+            "VALUES (:sequenceKey, :nextValue, :now)", nativeQuery = true)
+    void insert(@Param("sequenceKey") String sequenceKey, @Param("nextValue") long nextValue, @Param("now") Instant now);
+
+    @Query("SELECT s.nextValue FROM OfferNumberSequence s WHERE s.sequenceKey = :sequenceKey")
+    long findNextValue(@Param("sequenceKey") String sequenceKey);
+}
@@ -1,20 +1,28 @@
 package com.teklif.app.repository;
 
+import com.teklif.app.dto.response.OfferSummaryResponse;
 import com.teklif.app.entity.Offer;
 import com.teklif.app.enums.OfferStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OfferRepository extends JpaRepository<Offer, String> {
+public interface OfferRepository extends JpaRepository<Offer, String>, JpaSpecificationExecutor<Offer>,
+        OfferSummaryRepository {
 
     @Query("SELECT o FROM Offer o " +
             "LEFT JOIN FETCH o.customer " +
@@ -31,39 +39,205 @@ public interface OfferRepository extends JpaRepository<Offer, String> {
             "WHERE o.uuid = :uuid AND o.isDeleted = false")
     Optional<Offer> findByUuidAndIsDeletedFalse(@Param("uuid") String uuid);
 
-    @Query("SELECT o FROM Offer o " +
+    // Detay fetch planı: teklif + müşteri + firma + kalemler + ürünler tek sorguda.
+    // Ürün dosyaları ProductFileRepository.findActiveByProductIds ile ikinci sorguda gelir.
+    @Query("SELECT DISTINCT o FROM Offer o " +
             "LEFT JOIN FETCH o.customer " +
             "LEFT JOIN FETCH o.tenant " +
-            "WHERE o.isDeleted = false " +
-            "AND o.tenantId = :tenantId " +
-            "AND (:search IS NULL OR LOWER(o.offerNo) LIKE CONCAT('%', LOWER(:search), '%')) " +
-            "AND (:status IS NULL OR o.status = :status) " +
-            "AND (:customerId IS NULL OR o.customerId = :customerId) " +
-            "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
-            "AND (:endDate IS NULL OR o.createdAt <= :endDate)")
-    Page<Offer> findAllWithFilters(
-            @Param("tenantId") String tenantId,
-            @Param("search") String search,
-            @Param("status") OfferStatus status,
-            @Param("customerId") String customerId,
-            @Param("startDate") Instant startDate,
-            @Param("endDate") Instant endDate,
-            Pageable pageable
-    );
-
-    @Query("SELECT o FROM Offer o WHERE o.tenantId = :tenantId " +
-            "AND o.isDeleted = false " +
-            "ORDER BY o.createdAt DESC")
-    Page<Offer> findRecentOffers(@Param("tenantId") String tenantId, Pageable pageable);
-
-    long countByTenantIdAndStatusAndIsDeletedFalse(String tenantId, OfferStatus status);
-
-    @Query("SELECT COALESCE(SUM(o.total), 0) FROM Offer o WHERE o.tenantId = :tenantId " +
-            "AND o.status = :status AND o.isDeleted = false")
-    Double sumTotalByTenantIdAndStatus(@Param("tenantId") String tenantId, @Param("status") OfferStatus status);
-
-    @Query("SELECT COUNT(o) FROM Offer o WHERE o.offerNo LIKE CONCAT(:prefix, '%') AND o.isDeleted = false")
-    long countByOfferNoPrefix(@Param("prefix") String prefix);
-
-    List<Offer> findByStatusAndValidUntilBeforeAndIsDeletedFalse(OfferStatus status, Instant validUntil);
+            "LEFT JOIN FETCH o.items i " +
+            "LEFT JOIN FETCH i.product " +
+            "WHERE o.id = :id AND o.tenantId = :tenantId AND o.isDeleted = false")
+    Optional<Offer> findDetailByIdAndTenantId(@Param("id") String id, @Param("tenantId") String tenantId);
+
+    @Query("SELECT DISTINCT o FROM Offer o " +
+            "LEFT JOIN FETCH o.customer " +
+            "LEFT JOIN FETCH o.tenant " +
+            "LEFT JOIN FETCH o.items i " +
+            "LEFT JOIN FETCH i.product " +
+            "WHERE o.uuid = :uuid AND o.isDeleted = false")
+    Optional<Offer> findDetailByUuid(@Param("uuid") String uuid);
+
+    @Query("SELECT o.id AS id, o.tenantId AS tenantId, o.offerNo AS offerNo, " +
+            "o.linkPassword AS linkPassword, o.status AS status " +
+            "FROM Offer o WHERE o.uuid = :uuid AND o.isDeleted = false")
+    Optional<PublicOfferRef> findRefByUuid(@Param("uuid") String uuid);
+
+    // PDF cache anahtarı için: teklif grafiği yüklenmeden sürüm ve marka alanları
+    @Query("SELECT o.id AS id, o.tenantId AS tenantId, o.offerNo AS offerNo, o.version AS version, " +
+            "o.linkPassword AS linkPassword, o.oneTimeView AS oneTimeView, o.hasBeenViewed AS hasBeenViewed, " +
+            "t.updatedAt AS tenantUpdatedAt, c.updatedAt AS customerUpdatedAt, t.template AS template, " +
+            "t.primaryColor AS primaryColor, t.logo AS logo " +
+            "FROM Offer o JOIN o.tenant t JOIN o.customer c " +
+            "WHERE o.id = :id AND o.tenantId = :tenantId AND o.isDeleted = false")
+    Optional<PdfRef> findPdfRefByIdAndTenantId(@Param("id") String id, @Param("tenantId") String tenantId);
+
+    @Query("SELECT o.id AS id, o.tenantId AS tenantId, o.offerNo AS offerNo, o.version AS version, " +
+            "o.linkPassword AS linkPassword, o.oneTimeView AS oneTimeView, o.hasBeenViewed AS hasBeenViewed, " +
+            "t.updatedAt AS tenantUpdatedAt, c.updatedAt AS customerUpdatedAt, t.template AS template, " +
+            "t.primaryColor AS primaryColor, t.logo AS logo " +
+            "FROM Offer o JOIN o.tenant t JOIN o.customer c " +
+            "WHERE o.uuid = :uuid AND o.isDeleted = false")
+    Optional<PdfRef> findPdfRefByUuid(@Param("uuid") String uuid);
+
+    // Public aksiyonlar koşullu tek UPDATE: eşzamanlı isteklerden yalnızca biri 1 satır etkiler.
+    // Kaynak durum koşulda sabit tutulur; istatistik hangi satırdan düşüleceğini buradan bilir.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Offer o SET o.hasBeenViewed = true, o.status = com.teklif.app.enums.OfferStatus.VIEWED, " +
+            "o.viewedAt = :now, o.viewedBy = :viewedBy, o.updatedAt = :now, o.version = o.version + 1 " +
+            "WHERE o.uuid = :uuid AND o.isDeleted = false AND o.hasBeenViewed = false " +
+            "AND o.status = com.teklif.app.enums.OfferStatus.SENT")
+    int markSentViewed(@Param("uuid") String uuid, @Param("viewedBy") String viewedBy, @Param("now") Instant now);
+
+    // markSentViewed eşleşmediğinde: taslak/sonuçlanmış teklif durum değiştirmeden görüntülendi işaretlenir
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Offer o SET o.hasBeenViewed = true, " +
+            "o.viewedAt = :now, o.viewedBy = :viewedBy, o.updatedAt = :now, o.version = o.version + 1 " +
+            "WHERE o.uuid = :uuid AND o.isDeleted = false AND o.hasBeenViewed = false")
+    int markViewed(@Param("uuid") String uuid, @Param("viewedBy") String viewedBy, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Offer o SET o.status = com.teklif.app.enums.OfferStatus.ACCEPTED, o.acceptedAt = :now, " +
+            "o.acceptedBy = :acceptedBy, o.updatedAt = :now, o.version = o.version + 1 " +
+            "WHERE o.uuid = :uuid AND o.isDeleted = false AND o.status = :from")
+    int markAccepted(@Param("uuid") String uuid, @Param("acceptedBy") String acceptedBy, @Param("now") Instant now,
+                     @Param("from") OfferStatus from);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Offer o SET o.status = com.teklif.app.enums.OfferStatus.REJECTED, o.rejectedAt = :now, " +
+            "o.rejectedBy = :rejectedBy, o.rejectionNote = :note, o.updatedAt = :now, o.version = o.version + 1 " +
+            "WHERE o.uuid = :uuid AND o.isDeleted = false AND o.status = :from")
+    int markRejected(@Param("uuid") String uuid, @Param("rejectedBy") String rejectedBy, @Param("note") String note,
+                     @Param("now") Instant now, @Param("from") OfferStatus from);
+
+    default Page<OfferSummaryResponse> findSummariesWithFilters(String tenantId, Collection<String> matchedIds,
+                                                                String search, OfferStatus status, String customerId,
+                                                                Instant startDate, Instant endDate, Pageable pageable) {
+        return findSummaries(
+                ListingSpecifications.offers(tenantId, matchedIds, search, status, customerId, startDate, endDate),
+                pageable);
+    }
+
+    // Keyset sayfalama: OFFSET ve COUNT yerine (createdAt, id) üzerinden seek
+    default List<OfferSummaryResponse> findSummariesWithFiltersAfter(String tenantId, Collection<String> matchedIds,
+                                                                     String search, OfferStatus status,
+                                                                     String customerId,
+                                                                     Instant startDate, Instant endDate,
+                                                                     Instant cursorTime, String cursorId,
+                                                                     Limit limit) {
+        Specification<Offer> spec = ListingSpecifications.offers(tenantId, matchedIds, search, status, customerId,
+                        startDate, endDate)
+                .and(ListingSpecifications.before("createdAt", cursorTime, cursorId));
+        return findSummaries(spec, ListingSpecifications.NEWEST_FIRST, limit.max());
+    }
+
+    default List<OfferSummaryResponse> findRecentSummaries(String tenantId, int limit) {
+        return findSummaries(ListingSpecifications.offers(tenantId, null, null, null, null, null, null),
+                ListingSpecifications.NEWEST_FIRST, limit);
+    }
+
+    // İstatistik uzlaştırması: durum ve para birimi başına adet ve toplam tutar
+    @Query("SELECT o.status AS status, o.currency AS currency, COUNT(o) AS count, " +
+            "COALESCE(SUM(o.total), 0) AS total FROM Offer o " +
+            "WHERE o.tenantId = :tenantId AND o.isDeleted = false GROUP BY o.status, o.currency")
+    List<StatusTotals> findStatusTotals(@Param("tenantId") String tenantId);
+
+    // Silinmiş teklifler de offerNo unique kısıtına dahil, bu yüzden isDeleted filtresi yok
+    @Query("SELECT MAX(o.offerNo) FROM Offer o WHERE o.offerNo LIKE CONCAT(:prefix, '%')")
+    Optional<String> findMaxOfferNoByPrefix(@Param("prefix") String prefix);
+
+    @Query("SELECT o.offerNo FROM Offer o WHERE o.offerNo IN :offerNos")
+    List<String> findExistingOfferNos(@Param("offerNos") Collection<String> offerNos);
+
+    // Süre aşımı taraması: (status, validUntil, id) indeksi üzerinden id sırasıyla parça parça
+    @Query("SELECT o.id AS id, o.uuid AS uuid, o.tenantId AS tenantId, o.offerNo AS offerNo FROM Offer o " +
+            "WHERE o.status IN :statuses AND o.validUntil < :now AND o.isDeleted = false AND o.id > :afterId " +
+            "ORDER BY o.id")
+    List<ExpiringOfferRef> findExpiring(@Param("statuses") Collection<OfferStatus> statuses, @Param("now") Instant now,
+                                        @Param("afterId") String afterId, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Offer o SET o.status = com.teklif.app.enums.OfferStatus.EXPIRED, o.updatedAt = :now, " +
+            "o.version = o.version + 1 " +
+            "WHERE o.id IN :ids AND o.status IN :statuses AND o.validUntil < :now AND o.isDeleted = false")
+    int expire(@Param("ids") Collection<String> ids, @Param("statuses") Collection<OfferStatus> statuses,
+               @Param("now") Instant now);
+
+    // Aynı transaction içinde: bu UPDATE'in süresini doldurduğu satırlar (araya giren kabul/red hariç)
+    @Query("SELECT o.id AS id, o.tenantId AS tenantId, o.currency AS currency, o.total AS total " +
+            "FROM Offer o WHERE o.id IN :ids " +
+            "AND o.status = com.teklif.app.enums.OfferStatus.EXPIRED AND o.updatedAt = :now")
+    List<ExpiredOfferRef> findExpiredAt(@Param("ids") Collection<String> ids, @Param("now") Instant now);
+
+    @Query("SELECT MIN(o.validUntil) FROM Offer o " +
+            "WHERE o.status IN :statuses AND o.validUntil < :now AND o.isDeleted = false")
+    Optional<Instant> findOldestPastDue(@Param("statuses") Collection<OfferStatus> statuses,
+                                        @Param("now") Instant now);
+
+    interface StatusTotals {
+        OfferStatus getStatus();
+
+        String getCurrency();
+
+        long getCount();
+
+        BigDecimal getTotal();
+    }
+
+    interface ExpiringOfferRef {
+        String getId();
+
+        String getUuid();
+
+        String getTenantId();
+
+        String getOfferNo();
+    }
+
+    interface ExpiredOfferRef {
+        String getId();
+
+        String getTenantId();
+
+        String getCurrency();
+
+        BigDecimal getTotal();
+    }
+
+    interface PdfRef {
+        String getId();
+
+        String getTenantId();
+
+        String getOfferNo();
+
+        long getVersion();
+
+        String getLinkPassword();
+
+        Boolean getOneTimeView();
+
+        Boolean getHasBeenViewed();
+
+        Instant getTenantUpdatedAt();
+
+        Instant getCustomerUpdatedAt();
+
+        String getTemplate();
+
+        String getPrimaryColor();
+
+        String getLogo();
+    }
+
+    interface PublicOfferRef {
+        String getId();
+
+        String getTenantId();
+
+        String getOfferNo();
+
+        String getLinkPassword();
+
+        OfferStatus getStatus();
+    }
 }
@@ -0,0 +1,21 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.entity.OfferSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface OfferSnapshotRepository extends JpaRepository<OfferSnapshot, String> {
+
+    Optional<OfferSnapshot> findByUuid(String uuid);
+
+    @Modifying
+    @Query("DELETE FROM OfferSnapshot s WHERE s.offerId IN :offerIds")
+    int deleteByOfferIds(@Param("offerIds") Collection<String> offerIds);
+}
@@ -0,0 +1,21 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.dto.response.OfferSummaryResponse;
+import com.teklif.app.entity.Offer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Offer list projections: one query selecting only the summary columns plus the
+ * customer display name, so list views never touch items or product files.
+ */
+public interface OfferSummaryRepository {
+
+    Page<OfferSummaryResponse> findSummaries(Specification<Offer> spec, Pageable pageable);
+
+    List<OfferSummaryResponse> findSummaries(Specification<Offer> spec, Sort sort, int limit);
+}
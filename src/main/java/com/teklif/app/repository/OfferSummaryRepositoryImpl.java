@@ -0,0 +1,103 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.dto.response.OfferSummaryResponse;
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.enums.CustomerType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class OfferSummaryRepositoryImpl implements OfferSummaryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<OfferSummaryResponse> findSummaries(Specification<Offer> spec, Pageable pageable) {
+        TypedQuery<OfferSummaryResponse> query = summaryQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<OfferSummaryResponse> findSummaries(Specification<Offer> spec, Sort sort, int limit) {
+        return summaryQuery(spec, sort).setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<OfferSummaryResponse> summaryQuery(Specification<Offer> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OfferSummaryResponse> query = cb.createQuery(OfferSummaryResponse.class);
+        Root<Offer> offer = query.from(Offer.class);
+        Join<Offer, Customer> customer = offer.join("customer", JoinType.LEFT);
+
+        // Alan sırası OfferSummaryResponse'taki sırayla aynı olmalı
+        query.select(cb.construct(OfferSummaryResponse.class,
+                offer.get("id"),
+                offer.get("offerNo"),
+                offer.get("uuid"),
+                offer.get("customerId"),
+                customerName(cb, customer),
+                offer.get("status"),
+                offer.get("subtotal"),
+                offer.get("vatTotal"),
+                offer.get("total"),
+                offer.get("currency"),
+                offer.get("validUntil"),
+                offer.get("hasBeenViewed"),
+                offer.get("sentAt"),
+                offer.get("viewedAt"),
+                offer.get("acceptedAt"),
+                offer.get("rejectedAt"),
+                offer.get("createdAt"),
+                offer.get("updatedAt")));
+
+        Predicate where = spec.toPredicate(offer, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, offer, cb));
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Offer> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Offer> offer = query.from(Offer.class);
+        query.select(cb.count(offer));
+
+        Predicate where = spec.toPredicate(offer, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // CustomerService.getCustomerDisplayName ile aynı kural: firma adı ya da ad soyad
+    private static Expression<String> customerName(CriteriaBuilder cb, Join<Offer, Customer> customer) {
+        Expression<String> fullName = cb.trim(cb.concat(
+                cb.concat(cb.coalesce(customer.get("firstName"), ""), " "),
+                cb.coalesce(customer.get("lastName"), "")));
+        return cb.<String>selectCase()
+                .when(cb.equal(customer.get("type"), CustomerType.COMPANY), customer.get("companyName"))
+                .otherwise(fullName);
+    }
+}
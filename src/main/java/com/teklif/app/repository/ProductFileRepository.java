@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,6 +19,11 @@ public interface ProductFileRepository extends JpaRepository<ProductFile, String
             "WHERE pf.productId = :productId AND pf.isDeleted = false")
     List<ProductFile> findByProductIdWithFetch(@Param("productId") String productId);
 
+    @Query("SELECT pf FROM ProductFile pf " +
+            "WHERE pf.productId IN :productIds AND pf.isDeleted = false " +
+            "ORDER BY pf.createdAt")
+    List<ProductFile> findActiveByProductIds(@Param("productIds") Collection<String> productIds);
+
     List<ProductFile> findByProductIdAndCategoryAndIsDeletedFalse(String productId, ProductFile.FileType category);
 
     void deleteByProductId(String productId);
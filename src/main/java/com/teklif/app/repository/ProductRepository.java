@@ -1,33 +1,34 @@
 package com.teklif.app.repository;
 
 import com.teklif.app.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, String> {
+public interface ProductRepository extends JpaRepository<Product, String>, JpaSpecificationExecutor<Product> {
 
     Optional<Product> findByIdAndTenantIdAndIsDeletedFalse(String id, String tenantId);
 
-    @Query("SELECT p FROM Product p WHERE p.isDeleted = false " +
-            "AND p.tenantId = :tenantId " +
-            "AND (:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
-            "    OR LOWER(p.code) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-            "AND (:category IS NULL OR p.category = :category) " +
-            "AND (:isActive IS NULL OR p.isActive = :isActive)")
-    Page<Product> findAllWithFilters(
-            @Param("tenantId") String tenantId,
-            @Param("search") String search,
-            @Param("category") String category,
-            @Param("isActive") Boolean isActive,
-            Pageable pageable
-    );
+    default Page<Product> findAllWithFilters(String tenantId, String search, String category, Boolean isActive,
+                                             Pageable pageable) {
+        return findAll(ListingSpecifications.products(tenantId, search, category, isActive), pageable);
+    }
+
+    default List<Product> findAllWithFiltersAfter(String tenantId, String search, String category, Boolean isActive,
+                                                  Instant cursorTime, String cursorId, Limit limit) {
+        Specification<Product> spec = ListingSpecifications.products(tenantId, search, category, isActive)
+                .and(ListingSpecifications.before("createdAt", cursorTime, cursorId));
+        return findBy(spec, query -> query.sortBy(ListingSpecifications.NEWEST_FIRST).limit(limit.max()).all());
+    }
 
     long countByTenantIdAndIsDeletedFalse(String tenantId);
 
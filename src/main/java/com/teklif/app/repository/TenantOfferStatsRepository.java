@@ -0,0 +1,38 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.entity.TenantOfferStats;
+import com.teklif.app.enums.OfferStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TenantOfferStatsRepository extends JpaRepository<TenantOfferStats, TenantOfferStats.Key> {
+
+    // Delta çağıranın transaction'ında tek ifadeyle uygulanır: satır yoksa oluşturulur, varsa
+    // artırılır (MySQL'de ON DUPLICATE KEY UPDATE, H2'de MERGE). clear yok, teklif entity'leri yönetimde kalır
+    @Modifying
+    @Query("INSERT INTO TenantOfferStats (tenantId, status, currency, offerCount, totalAmount, updatedAt) " +
+            "VALUES (:tenantId, :status, :currency, :count, :amount, :now) " +
+            "ON CONFLICT (tenantId, status, currency) DO UPDATE SET " +
+            "offerCount = offerCount + excluded.offerCount, totalAmount = totalAmount + excluded.totalAmount, " +
+            "updatedAt = excluded.updatedAt")
+    int increment(@Param("tenantId") String tenantId, @Param("status") OfferStatus status,
+                  @Param("currency") String currency, @Param("count") long count,
+                  @Param("amount") BigDecimal amount, @Param("now") Instant now);
+
+    List<TenantOfferStats> findByTenantId(String tenantId);
+
+    // Uzlaştırma: firmanın satırları kilitlenir, bu sırada delta yazan istekler bekler
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TenantOfferStats s WHERE s.tenantId = :tenantId")
+    List<TenantOfferStats> lockByTenantId(@Param("tenantId") String tenantId);
+}
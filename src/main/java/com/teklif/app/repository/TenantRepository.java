@@ -30,6 +30,10 @@ public interface TenantRepository extends JpaRepository<Tenant, String> {
 
     boolean existsBySlugAndIsDeletedFalse(String slug);
 
+    // Silinmiş firmalar dahil: teklifleri tabloda durur
+    @Query("SELECT t.id FROM Tenant t ORDER BY t.id")
+    List<String> findAllIds();
+
     // Sub-tenant queries
     @Query("SELECT t FROM Tenant t " +
             "WHERE t.parentTenantId = :parentTenantId AND t.isDeleted = false")
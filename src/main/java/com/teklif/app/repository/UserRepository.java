@@ -5,10 +5,13 @@ import com.teklif.app.enums.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +24,10 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     List<User> findByTenantIdAndIsActiveAndIsDeletedFalse(String tenantId, Boolean isActive);
 
+    @Query("SELECT u.id AS id, u.tenantId AS tenantId FROM User u " +
+            "WHERE u.tenantId IN :tenantIds AND u.isActive = true AND u.isDeleted = false")
+    List<TenantMember> findActiveMembers(@Param("tenantIds") Collection<String> tenantIds);
+
     @Query("SELECT u FROM User u WHERE u.isDeleted = false " +
             "AND (:tenantId IS NULL OR u.tenantId = :tenantId) " +
             "AND (:search IS NULL OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) " +
@@ -58,4 +65,14 @@ public interface UserRepository extends JpaRepository<User, String> {
     long countByTenantIdAndIsDeletedFalse(String tenantId);
 
     boolean existsByEmailAndIsDeletedFalse(String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.lastLoginAt = :lastLoginAt WHERE u.id = :id")
+    int updateLastLoginAt(@Param("id") String id, @Param("lastLoginAt") Instant lastLoginAt);
+
+    interface TenantMember {
+        String getId();
+
+        String getTenantId();
+    }
 }
\ No newline at end of file
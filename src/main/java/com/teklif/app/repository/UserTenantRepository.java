@@ -31,4 +31,9 @@ public interface UserTenantRepository extends JpaRepository<UserTenant, String>
     @Query("SELECT ut FROM UserTenant ut " +
             "WHERE ut.userId = :userId AND ut.tenantId = :tenantId AND ut.isDeleted = false")
     Optional<UserTenant> findByUserIdAndTenantId(@Param("userId") String userId, @Param("tenantId") String tenantId);
+
+    // Auth cache için: kullanıcının tüm aktif atamaları tek sorguda (tenant join'i olmadan)
+    @Query("SELECT ut FROM UserTenant ut " +
+            "WHERE ut.userId = :userId AND ut.isDeleted = false")
+    List<UserTenant> findMembershipsByUserId(@Param("userId") String userId);
 }
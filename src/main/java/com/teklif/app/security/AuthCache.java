@@ -0,0 +1,131 @@
+package com.teklif.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teklif.app.entity.User;
+import com.teklif.app.entity.UserTenant;
+import com.teklif.app.repository.UserRepository;
+import com.teklif.app.repository.UserTenantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the authenticated principal and the user→tenant memberships used by
+ * {@link JwtAuthenticationFilter}, so an authenticated request does not need
+ * any database round trip before reaching the controller.
+ * <p>
+ * Entries are evicted by {@code UserService} and {@code TenantService} when the
+ * underlying rows change; the TTL only bounds staleness for out-of-band edits.
+ */
+@Component
+public class AuthCache {
+
+    private final UserRepository userRepository;
+    private final UserTenantRepository userTenantRepository;
+
+    private final Cache<String, CustomUserDetails> principals;
+    private final Cache<String, Membership> memberships;
+
+    public AuthCache(UserRepository userRepository,
+                     UserTenantRepository userTenantRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${security.auth-cache.max-size:10000}") long maxSize,
+                     @Value("${security.auth-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.userTenantRepository = userTenantRepository;
+
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.memberships = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "auth.principal");
+        CaffeineCacheMetrics.monitor(meterRegistry, memberships, "auth.membership");
+    }
+
+    /**
+     * Returns the principal for the given email, or empty when the user does not exist.
+     * Missing users are not cached so a newly created account is visible immediately.
+     */
+    public Optional<CustomUserDetails> getPrincipal(String email) {
+        CustomUserDetails cached = principals.getIfPresent(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<User> user = userRepository.findByEmailAndIsDeletedFalse(email);
+        user.ifPresent(u -> principals.put(email, new CustomUserDetails(u)));
+        return user.map(CustomUserDetails::new);
+    }
+
+    public Membership getMembership(String userId) {
+        return memberships.get(userId, this::loadMembership);
+    }
+
+    private Membership loadMembership(String userId) {
+        List<UserTenant> userTenants = userTenantRepository.findMembershipsByUserId(userId);
+
+        Set<String> tenantIds = userTenants.stream()
+                .map(UserTenant::getTenantId)
+                .collect(Collectors.toUnmodifiableSet());
+
+        String defaultTenantId = userTenants.stream()
+                .filter(ut -> Boolean.TRUE.equals(ut.getIsDefault()))
+                .map(UserTenant::getTenantId)
+                .findFirst()
+                .orElse(null);
+
+        return new Membership(tenantIds, defaultTenantId);
+    }
+
+    /**
+     * Evicts the cached principal and memberships of a user. When called inside a
+     * transaction the eviction is repeated after commit, so a concurrent request
+     * cannot re-populate the cache with the pre-commit row.
+     */
+    public void evictUser(String userId) {
+        runNowAndAfterCommit(() -> {
+            principals.asMap().values().removeIf(details -> userId.equals(details.getUserId()));
+            memberships.invalidate(userId);
+        });
+    }
+
+    public void evictMemberships(String userId) {
+        runNowAndAfterCommit(() -> memberships.invalidate(userId));
+    }
+
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    public record Membership(Set<String> tenantIds, String defaultTenantId) {
+
+        public boolean hasAccess(String tenantId) {
+            return tenantIds.contains(tenantId);
+        }
+    }
+}
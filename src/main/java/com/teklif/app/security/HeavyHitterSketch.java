@@ -0,0 +1,135 @@
+package com.teklif.app.security;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory request counter: a count-min sketch for per-key estimates plus a
+ * small top-k list of the heaviest keys. Memory is {@code depth * width} counters
+ * and {@code k} entries no matter how many distinct keys are seen.
+ * <p>
+ * Counts cover the current window; {@link #rotate()} starts a new window and keeps
+ * the previous top-k as a snapshot.
+ */
+public class HeavyHitterSketch {
+
+    private final int depth;
+    private final int width;
+    private final int k;
+    private final long[] seeds;
+
+    private volatile AtomicLongArray counters;
+
+    // Yalnızca eşiği aşan anahtarlar top-k'ya girer; eleme (eviction) kilit altında yapılır
+    private final Map<String, Long> topK = new ConcurrentHashMap<>();
+    private volatile long topKThreshold;
+    private volatile List<HeavyHitter> previousWindow = List.of();
+
+    public HeavyHitterSketch(int depth, int width, int k) {
+        if (depth < 1 || width < 1 || k < 1) {
+            throw new IllegalArgumentException("depth, width and k must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.k = k;
+        this.seeds = new long[depth];
+        for (int i = 0; i < depth; i++) {
+            seeds[i] = ThreadLocalRandom.current().nextLong() | 1L;
+        }
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    /**
+     * Counts one occurrence of the key and returns its estimated count in the current window.
+     * The estimate never under-counts; it may over-count when keys collide.
+     */
+    public long record(String key) {
+        AtomicLongArray table = counters;
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long value = table.incrementAndGet(row * width + index(hash, row));
+            estimate = Math.min(estimate, value);
+        }
+
+        if (estimate > topKThreshold) {
+            offer(key, estimate);
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        AtomicLongArray table = counters;
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, table.get(row * width + index(hash, row)));
+        }
+        return estimate;
+    }
+
+    private void offer(String key, long estimate) {
+        // computeIfPresent eleme ile yarışırsa anahtarı geri eklemez; top-k k'yı aşamaz
+        if (topK.computeIfPresent(key, (existing, count) -> Math.max(count, estimate)) != null) {
+            return;
+        }
+        synchronized (this) {
+            topK.put(key, estimate);
+            evictBeyondK();
+        }
+    }
+
+    private void evictBeyondK() {
+        if (topK.size() > k) {
+            String min = null;
+            long minCount = Long.MAX_VALUE;
+            for (Map.Entry<String, Long> entry : topK.entrySet()) {
+                if (entry.getValue() < minCount) {
+                    minCount = entry.getValue();
+                    min = entry.getKey();
+                }
+            }
+            topK.remove(min);
+        }
+        if (topK.size() >= k) {
+            topKThreshold = topK.values().stream().mapToLong(Long::longValue).min().orElse(0);
+        }
+    }
+
+    public List<HeavyHitter> currentWindow() {
+        return sorted(topK);
+    }
+
+    public List<HeavyHitter> previousWindow() {
+        return previousWindow;
+    }
+
+    /**
+     * Closes the current window: the top-k becomes the previous-window snapshot and all counters reset.
+     */
+    public synchronized void rotate() {
+        previousWindow = sorted(topK);
+        topK.clear();
+        topKThreshold = 0;
+        counters = new AtomicLongArray(depth * width);
+    }
+
+    private int index(int hash, int row) {
+        long mixed = (hash ^ (hash >>> 16)) * seeds[row];
+        return (int) ((mixed >>> 33) % width);
+    }
+
+    private static List<HeavyHitter> sorted(Map<String, Long> entries) {
+        return entries.entrySet().stream()
+                .map(e -> new HeavyHitter(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(HeavyHitter::count).reversed())
+                .toList();
+    }
+
+    public record HeavyHitter(String key, long count) {
+    }
+}
@@ -1,6 +1,5 @@
 package com.teklif.app.security;
 
-import com.teklif.app.repository.UserTenantRepository;
 import com.teklif.app.util.TenantContext;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -11,13 +10,11 @@ import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Optional;
 
 @Component
 @Order(2)
@@ -25,8 +22,7 @@ import java.util.Optional;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
-    private final UserTenantRepository userTenantRepository;
+    private final AuthCache authCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,24 +32,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
+            try (TenantContext.Scope ignored = TenantContext.bind(null)) {
+                filterChain.doFilter(request, response);
+            }
             return;
         }
 
+        String effectiveTenantId = null;
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtUtil.extractUsername(jwt);
-            final String jwtTenantId = jwtUtil.extractTenantId(jwt);
-            final String userId = jwtUtil.extractUserId(jwt);
+            final JwtUtil.VerifiedToken token = jwtUtil.verify(jwt);
+            final String userEmail = token.subject();
+            final String jwtTenantId = token.tenantId();
+            final String userId = token.userId();
 
             // Header'dan tenant kontrol et (kullanıcının seçtiği tenant)
             final String headerTenantId = request.getHeader("X-Tenant-Id");
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = authCache.getPrincipal(userEmail).orElse(null);
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
-                    String effectiveTenantId = jwtTenantId;
+                if (userDetails != null && jwtUtil.validateToken(token, userDetails)) {
+                    effectiveTenantId = jwtTenantId;
 
                     // Öncelik sırası:
                     // 1. Header'daki tenant (kullanıcı manuel seçti)
@@ -62,23 +62,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                     if (headerTenantId != null && !headerTenantId.isEmpty() && userId != null) {
                         // Kullanıcının bu tenant'a erişimi var mı?
-                        if (userTenantRepository.existsByUserIdAndTenantId(userId, headerTenantId)) {
+                        if (authCache.getMembership(userId).hasAccess(headerTenantId)) {
                             effectiveTenantId = headerTenantId;
                         }
                     } else if (userId != null) {
                         // user_tenants tablosundan default tenant'ı çek
-                        Optional<com.teklif.app.entity.UserTenant> defaultUserTenant =
-                                userTenantRepository.findDefaultByUserId(userId);
+                        String defaultTenantId = authCache.getMembership(userId).defaultTenantId();
 
-                        if (defaultUserTenant.isPresent()) {
-                            effectiveTenantId = defaultUserTenant.get().getTenantId();
+                        if (defaultTenantId != null) {
+                            effectiveTenantId = defaultTenantId;
                         }
                     }
 
-                    if (effectiveTenantId != null) {
-                        TenantContext.setTenantId(effectiveTenantId);
-                    }
-
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -93,6 +88,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
         }
-        filterChain.doFilter(request, response);
+
+        // Tenant yalnızca bu isteğin geri kalanı boyunca bağlı kalır, thread'e sızmaz
+        try (TenantContext.Scope ignored = TenantContext.bind(effectiveTenantId)) {
+            filterChain.doFilter(request, response);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.teklif.app.security;
+
+import com.teklif.app.exception.CustomException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt-heavy login verification on a dedicated, size-capped pool so a login
+ * storm cannot occupy every Tomcat thread. When the queue is full the caller gets
+ * an immediate 503 instead of waiting.
+ * <p>
+ * Post-login bookkeeping (lastLoginAt, USER_LOGIN log) goes to a separate audit
+ * pool via {@link #runAfterLogin(Runnable)} and is not on the response path.
+ */
+@Slf4j
+@Component
+public class LoginExecutor {
+
+    private final ThreadPoolExecutor loginPool;
+    private final ThreadPoolExecutor auditPool;
+    private final Timer hashTimer;
+    private final long timeoutMillis;
+
+    public LoginExecutor(MeterRegistry meterRegistry,
+                         @Value("${security.login.threads:0}") int threads,
+                         @Value("${security.login.queue-capacity:64}") int queueCapacity,
+                         @Value("${security.login.timeout-ms:10000}") long timeoutMillis) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.timeoutMillis = timeoutMillis;
+
+        this.loginPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("login-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Audit kuyruğu dolarsa kaydı kaybetmek yerine çağıran thread'de çalıştır
+        this.auditPool = new ThreadPoolExecutor(1, 2, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1000), namedThreads("login-audit-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.hashTimer = Timer.builder("auth.login.hash")
+                .description("Time spent verifying credentials on the login pool")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.login.queue.depth", loginPool, pool -> pool.getQueue().size());
+        meterRegistry.gauge("auth.login.active", loginPool, ThreadPoolExecutor::getActiveCount);
+        meterRegistry.gauge("auth.login.audit.queue.depth", auditPool, pool -> pool.getQueue().size());
+    }
+
+    /**
+     * Runs the verification task on the login pool and waits for its result.
+     *
+     * @throws CustomException 503 when the pool is saturated or the task times out
+     */
+    public <T> T verify(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = loginPool.submit(() -> hashTimer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            throw CustomException.serviceUnavailable("Too many login attempts in progress. Please try again shortly.");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw CustomException.serviceUnavailable("Login timed out. Please try again shortly.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw CustomException.serviceUnavailable("Login interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void runAfterLogin(Runnable task) {
+        auditPool.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Post-login task failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        loginPool.shutdown();
+        auditPool.shutdown();
+        auditPool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
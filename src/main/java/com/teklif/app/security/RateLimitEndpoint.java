@@ -0,0 +1,29 @@
+package com.teklif.app.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the rate limiter's heaviest client/route keys at {@code /actuator/ratelimit}.
+ */
+@Component
+@Endpoint(id = "ratelimit")
+@RequiredArgsConstructor
+public class RateLimitEndpoint {
+
+    private final RateLimitFilter rateLimitFilter;
+
+    @ReadOperation
+    public Map<String, Object> heavyHitters() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("trackedKeys", rateLimitFilter.getTrackedKeyCount());
+        result.put("currentWindow", rateLimitFilter.getCurrentHeavyHitters());
+        result.put("previousWindow", rateLimitFilter.getPreviousHeavyHitters());
+        return result;
+    }
+}
@@ -1,24 +1,30 @@
 package com.teklif.app.security;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 @Order(1)
+@RequiredArgsConstructor
 public class RateLimitFilter extends OncePerRequestFilter {
 
+    private final RouteTemplateResolver routeTemplateResolver;
+
     @Value("${security.rate-limit.enabled:true}")
     private boolean rateLimitEnabled;
 
@@ -28,8 +34,35 @@ public class RateLimitFilter extends OncePerRequestFilter {
     @Value("${security.rate-limit.window-seconds:60}")
     private int windowSeconds;
 
-    // In-memory store for rate limiting (use Redis for distributed systems)
-    private final ConcurrentHashMap<String, RateLimitEntry> rateLimitMap = new ConcurrentHashMap<>();
+    // Burst size; defaults to the per-window request budget
+    @Value("${security.rate-limit.burst:${security.rate-limit.requests:100}}")
+    private int burst;
+
+    // Beyond this many live buckets, new keys are limited by the sketch estimate instead
+    @Value("${security.rate-limit.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    @Value("${security.rate-limit.heavy-hitters.depth:4}")
+    private int sketchDepth;
+
+    @Value("${security.rate-limit.heavy-hitters.width:4096}")
+    private int sketchWidth;
+
+    @Value("${security.rate-limit.heavy-hitters.top-k:20}")
+    private int topK;
+
+    // In-memory token buckets (use Redis for distributed systems)
+    private TokenBucketLimiter limiter;
+
+    // Fixed-memory per-window counts for heavy-hitter detection
+    private HeavyHitterSketch heavyHitters;
+
+    @PostConstruct
+    void initLimiter() {
+        // Refill rate keeps the long-run average at maxRequests per window
+        limiter = new TokenBucketLimiter(burst, (double) maxRequests / windowSeconds);
+        heavyHitters = new HeavyHitterSketch(sketchDepth, sketchWidth, topK);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -50,12 +83,22 @@ public class RateLimitFilter extends OncePerRequestFilter {
             return;
         }
 
+        // Raw URI yerine route template: /api/offers/123 -> /api/offers/{id}
         String clientId = getClientId(request);
-        String key = clientId + ":" + path;
+        String key = clientId + ":" + routeTemplateResolver.resolve(path);
+
+        long windowCount = heavyHitters.record(key);
+        long retryAfterSeconds;
+        if (limiter.size() < maxTrackedKeys || limiter.contains(key)) {
+            retryAfterSeconds = limiter.tryAcquire(key);
+        } else {
+            retryAfterSeconds = windowCount > maxRequests ? windowSeconds : 0;
+        }
 
-        if (isRateLimited(key)) {
+        if (retryAfterSeconds > 0) {
             log.warn("Rate limit exceeded for client: {} on path: {}", clientId, path);
             response.setStatus(429); // HTTP 429 Too Many Requests
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
             response.setContentType("application/json");
             response.getWriter().write("{\"error\":\"Too many requests. Please try again later.\"}");
             return;
@@ -79,33 +122,34 @@ public class RateLimitFilter extends OncePerRequestFilter {
         return request.getRemoteAddr();
     }
 
-    private boolean isRateLimited(String key) {
-        long currentTime = System.currentTimeMillis();
-        long windowStart = currentTime - (windowSeconds * 1000L);
-
-        rateLimitMap.entrySet().removeIf(entry -> entry.getValue().getTimestamp() < windowStart);
-
-        RateLimitEntry entry = rateLimitMap.computeIfAbsent(key,
-                k -> new RateLimitEntry(currentTime, new AtomicInteger(0)));
-
-        return entry.incrementAndGet() > maxRequests;
+    // Inline sweep yerine arka planda boşta kalan bucket'ları temizle
+    @Scheduled(fixedDelayString = "${security.rate-limit.eviction-interval-ms:30000}")
+    void evictIdleBuckets() {
+        if (limiter == null) {
+            return;
+        }
+        int evicted = limiter.evictIdle();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets, {} remaining", evicted, limiter.size());
+        }
     }
 
-    private static class RateLimitEntry {
-        private final long timestamp;
-        private final AtomicInteger requestCount;
-
-        public RateLimitEntry(long timestamp, AtomicInteger requestCount) {
-            this.timestamp = timestamp;
-            this.requestCount = requestCount;
+    @Scheduled(fixedRateString = "${security.rate-limit.window-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    void rotateHeavyHitterWindow() {
+        if (heavyHitters != null) {
+            heavyHitters.rotate();
         }
+    }
 
-        public long getTimestamp() {
-            return timestamp;
-        }
+    public int getTrackedKeyCount() {
+        return limiter.size();
+    }
 
-        public int incrementAndGet() {
-            return requestCount.incrementAndGet();
-        }
+    public List<HeavyHitterSketch.HeavyHitter> getCurrentHeavyHitters() {
+        return heavyHitters.currentWindow();
+    }
+
+    public List<HeavyHitterSketch.HeavyHitter> getPreviousHeavyHitters() {
+        return heavyHitters.previousWindow();
     }
 }
@@ -0,0 +1,59 @@
+package com.teklif.app.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+
+/**
+ * Maps a raw request URI to the Spring MVC route template that will handle it
+ * (e.g. {@code /api/offers/123} → {@code /api/offers/{id}}), so per-route state
+ * such as rate limit keys stays bounded by the number of routes instead of URLs.
+ * <p>
+ * Runs in servlet filters, before the DispatcherServlet has resolved the handler,
+ * so it matches against the registered patterns directly.
+ */
+@Component
+public class RouteTemplateResolver {
+
+    public static final String UNMATCHED = "UNMATCHED";
+
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+
+    private volatile List<PathPattern> patterns;
+
+    public RouteTemplateResolver(@Qualifier("requestMappingHandlerMapping")
+                                 ObjectProvider<RequestMappingHandlerMapping> handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    public String resolve(String requestUri) {
+        PathContainer path = PathContainer.parsePath(requestUri);
+        for (PathPattern pattern : getPatterns()) {
+            if (pattern.matches(path)) {
+                return pattern.getPatternString();
+            }
+        }
+        return UNMATCHED;
+    }
+
+    private List<PathPattern> getPatterns() {
+        List<PathPattern> result = patterns;
+        if (result == null) {
+            // Handler mapping filter'lardan sonra hazır olur, ilk istekte yükle
+            result = handlerMapping.getObject().getHandlerMethods().keySet().stream()
+                    .flatMap(info -> info.getPatternValues().stream())
+                    .distinct()
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .sorted(PathPattern.SPECIFICITY_COMPARATOR)
+                    .toList();
+            patterns = result;
+        }
+        return result;
+    }
+}
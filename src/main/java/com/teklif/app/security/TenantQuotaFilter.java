@@ -0,0 +1,106 @@
+package com.teklif.app.security;
+
+import com.teklif.app.enums.PackageTier;
+import com.teklif.app.util.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tenant-scoped request quotas. Runs after {@link JwtAuthenticationFilter} has set
+ * {@link TenantContext}, so one tenant behind a shared IP cannot starve the others.
+ * Budgets come from the tenant's {@link PackageTier}, with separate buckets for
+ * reads, writes and uploads.
+ */
+@Slf4j
+@Component
+@Order(3)
+@RequiredArgsConstructor
+public class TenantQuotaFilter extends OncePerRequestFilter {
+
+    private final TenantTierCache tenantTierCache;
+
+    @Value("${security.tenant-quota.enabled:true}")
+    private boolean quotaEnabled;
+
+    private final Map<PackageTier, Map<QuotaType, TokenBucketLimiter>> limiters = createLimiters();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String tenantId = TenantContext.getTenantId();
+        if (!quotaEnabled || tenantId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        PackageTier tier = tenantTierCache.getTier(tenantId);
+        QuotaType type = QuotaType.of(request);
+
+        long retryAfterSeconds = limiters.get(tier).get(type).tryAcquire(tenantId);
+        if (retryAfterSeconds > 0) {
+            log.warn("Tenant quota exceeded for tenant: {} ({} {})", tenantId, tier, type);
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Tenant request quota exceeded. Please try again later.\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.eviction-interval-ms:30000}")
+    void evictIdleBuckets() {
+        limiters.values().forEach(byType -> byType.values().forEach(TokenBucketLimiter::evictIdle));
+    }
+
+    private static Map<PackageTier, Map<QuotaType, TokenBucketLimiter>> createLimiters() {
+        Map<PackageTier, Map<QuotaType, TokenBucketLimiter>> result = new EnumMap<>(PackageTier.class);
+        for (PackageTier tier : PackageTier.values()) {
+            Map<QuotaType, TokenBucketLimiter> byType = new EnumMap<>(QuotaType.class);
+            byType.put(QuotaType.READ, perMinute(tier.getReadsPerMinute()));
+            byType.put(QuotaType.WRITE, perMinute(tier.getWritesPerMinute()));
+            byType.put(QuotaType.UPLOAD, perMinute(tier.getUploadsPerMinute()));
+            result.put(tier, byType);
+        }
+        return result;
+    }
+
+    private static TokenBucketLimiter perMinute(int budget) {
+        return new TokenBucketLimiter(budget, budget / 60.0);
+    }
+
+    enum QuotaType {
+        READ,
+        WRITE,
+        UPLOAD;
+
+        static QuotaType of(HttpServletRequest request) {
+            String method = request.getMethod();
+            String contentType = request.getContentType();
+            if (request.getRequestURI().startsWith("/api/files/upload")
+                    || (contentType != null && contentType.startsWith("multipart/"))) {
+                return UPLOAD;
+            }
+            if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+                return READ;
+            }
+            return WRITE;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.teklif.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.enums.PackageTier;
+import com.teklif.app.repository.TenantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * In-memory tenant → package tier lookup for {@link TenantQuotaFilter}. Tenants are
+ * read from the database only on a miss; {@code TenantService} evicts on change.
+ */
+@Component
+public class TenantTierCache {
+
+    private final TenantRepository tenantRepository;
+    private final Cache<String, PackageTier> tiers;
+
+    public TenantTierCache(TenantRepository tenantRepository,
+                           @Value("${security.tenant-quota.tier-cache-ttl-seconds:600}") long ttlSeconds) {
+        this.tenantRepository = tenantRepository;
+        this.tiers = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public PackageTier getTier(String tenantId) {
+        return tiers.get(tenantId, id -> PackageTier.fromPackageName(
+                tenantRepository.findByIdAndIsDeletedFalse(id)
+                        .map(Tenant::getPackageName)
+                        .orElse(null)));
+    }
+
+    /**
+     * Evicts the tenant's tier now and, inside a transaction, again after commit, so a
+     * concurrent request cannot re-populate the cache with the pre-commit package.
+     */
+    public void evict(String tenantId) {
+        tiers.invalidate(tenantId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tiers.invalidate(tenantId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.teklif.app.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keyed token-bucket limiter. Each key owns a bucket whose state is swapped with a
+ * CAS, so concurrent requests never block each other and no global lock is taken.
+ * <p>
+ * Idle buckets are removed by {@link #evictIdle()}, which callers run from a
+ * background thread instead of the request path.
+ */
+public class TokenBucketLimiter {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final long nanosToFull;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity         maximum burst size (bucket capacity)
+     * @param refillPerSecond  tokens added back per second
+     */
+    public TokenBucketLimiter(double capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity must be >= 1 and refill rate must be > 0");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.nanosToFull = (long) Math.ceil(capacity / refillPerNano);
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 when the request is allowed, otherwise the number of seconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(capacity, System.nanoTime()))
+                .tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Drops buckets that have been idle long enough to refill completely; a new bucket
+     * for the same key starts full, so eviction never changes a client's budget.
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> now - bucket.lastRefill() >= nanosToFull);
+        return before - buckets.size();
+    }
+
+    public boolean contains(String key) {
+        return buckets.containsKey(key);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private record State(double tokens, long lastRefillNanos) {
+    }
+
+    private final class Bucket {
+
+        private final AtomicReference<State> state;
+
+        private Bucket(double tokens, long now) {
+            this.state = new AtomicReference<>(new State(tokens, now));
+        }
+
+        private long tryAcquire(long now) {
+            while (true) {
+                State current = state.get();
+                long elapsed = Math.max(0, now - current.lastRefillNanos());
+                double tokens = Math.min(capacity, current.tokens() + elapsed * refillPerNano);
+
+                if (tokens < 1) {
+                    double missingNanos = (1 - tokens) / refillPerNano;
+                    return Math.max(1, (long) Math.ceil(missingNanos / TimeUnit.SECONDS.toNanos(1)));
+                }
+
+                State next = new State(tokens - 1, Math.max(now, current.lastRefillNanos()));
+                if (state.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private long lastRefill() {
+            return state.get().lastRefillNanos();
+        }
+    }
+}
@@ -11,9 +11,11 @@ import com.teklif.app.mapper.ActivityLogMapper;
 import com.teklif.app.repository.ActivityLogRepository;
 import com.teklif.app.repository.OfferRepository;
 import com.teklif.app.security.CustomUserDetails;
+import com.teklif.app.util.KeysetCursor;
 import com.teklif.app.util.TenantContext;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -43,9 +45,24 @@ public class ActivityLogService {
             Instant startDate,
             Instant endDate,
             int page,
-            int limit
+            int limit,
+            String cursor
     ) {
         String tenantId = TenantContext.getTenantId();
+
+        if (cursor != null) {
+            if (limit < 1) {
+                throw CustomException.badRequest("Limit must be at least 1");
+            }
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            List<ActivityLog> logs = activityLogRepository.findByTenantIdWithFiltersAfter(
+                    tenantId, logType, targetId, startDate, endDate,
+                    KeysetCursor.timestampOf(after), KeysetCursor.idOf(after), Limit.of(limit + 1)
+            );
+            return KeysetCursor.page(logs, limit,
+                    log -> new KeysetCursor(log.getLogDate(), log.getId()), activityLogMapper::toResponse);
+        }
+
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by("logDate").descending());
 
         Page<ActivityLog> logPage = activityLogRepository.findByTenantIdWithFilters(
@@ -99,15 +116,26 @@ public class ActivityLogService {
 
         // If request is null, try to get from RequestContextHolder
         if (request == null) {
-            try {
-                ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-                if (attributes != null) {
-                    request = attributes.getRequest();
-                }
-            } catch (Exception ignored) {
-            }
+            request = getCurrentRequest();
         }
 
+        createLog(logType, targetId, title, message, tenantId, userId, ClientInfo.from(request));
+    }
+
+    /**
+     * Creates a log with explicit tenant, user and client details. Used when the log is
+     * written outside the request thread, where TenantContext and the request are gone.
+     */
+    @Transactional
+    public void createLog(
+            LogType logType,
+            String targetId,
+            String title,
+            String message,
+            String tenantId,
+            String userId,
+            ClientInfo clientInfo
+    ) {
         ActivityLog log = ActivityLog.builder()
                 .logDate(Instant.now())
                 .logType(logType)
@@ -118,12 +146,12 @@ public class ActivityLogService {
                 .userId(userId)
                 .build();
 
-        if (request != null) {
-            log.setIpAddress(getClientIpAddress(request));
-            log.setUserAgent(request.getHeader("User-Agent"));
+        if (clientInfo != null) {
+            log.setIpAddress(clientInfo.ipAddress());
+            log.setUserAgent(clientInfo.userAgent());
 
             // Parse user agent
-            Map<String, String> userAgentInfo = parseUserAgent(request.getHeader("User-Agent"));
+            Map<String, String> userAgentInfo = parseUserAgent(clientInfo.userAgent());
             log.setOsName(userAgentInfo.get("osName"));
             log.setOsVersion(userAgentInfo.get("osVersion"));
             log.setBrowserName(userAgentInfo.get("browserName"));
@@ -134,6 +162,13 @@ public class ActivityLogService {
         activityLogRepository.save(log);
     }
 
+    /**
+     * Captures IP and user agent of the current request so they can be logged later from another thread.
+     */
+    public ClientInfo currentClientInfo() {
+        return ClientInfo.from(getCurrentRequest());
+    }
+
     @Transactional
     public void deleteLog(String id) {
         ActivityLog log = activityLogRepository.findById(id)
@@ -144,6 +179,17 @@ public class ActivityLogService {
 
     // Helper methods
 
+    private HttpServletRequest getCurrentRequest() {
+        try {
+            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+            if (attributes != null) {
+                return attributes.getRequest();
+            }
+        } catch (Exception ignored) {
+        }
+        return null;
+    }
+
     private String getCurrentUserId() {
         try {
             CustomUserDetails userDetails = (CustomUserDetails) SecurityContextHolder.getContext()
@@ -154,7 +200,7 @@ public class ActivityLogService {
         }
     }
 
-    private String getClientIpAddress(HttpServletRequest request) {
+    private static String getClientIpAddress(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
             return xForwardedFor.split(",")[0].trim();
@@ -246,4 +292,14 @@ public class ActivityLogService {
                 "deviceType", deviceType
         );
     }
+
+    public record ClientInfo(String ipAddress, String userAgent) {
+
+        static ClientInfo from(HttpServletRequest request) {
+            if (request == null) {
+                return null;
+            }
+            return new ClientInfo(getClientIpAddress(request), request.getHeader("User-Agent"));
+        }
+    }
 }
@@ -10,13 +10,15 @@ import com.teklif.app.mapper.UserMapper;
 import com.teklif.app.repository.UserRepository;
 import com.teklif.app.security.CustomUserDetails;
 import com.teklif.app.security.JwtUtil;
+import com.teklif.app.security.LoginExecutor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 
@@ -29,26 +31,22 @@ public class AuthService {
     private final JwtUtil jwtUtil;
     private final UserMapper userMapper;
     private final ActivityLogService activityLogService;
+    private final LoginExecutor loginExecutor;
+    private final PlatformTransactionManager transactionManager;
 
-    @Transactional
     public LoginResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+        // BCrypt doğrulaması sınırlı login havuzunda çalışır; havuz doluysa hemen 503 döner
+        LoginResult result = loginExecutor.verify(() -> readOnlyTransaction().execute(status -> {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
+            );
+            CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+            return new LoginResult(userDetails, userMapper.toResponse(userDetails.getUser()));
+        }));
 
-        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        CustomUserDetails userDetails = result.userDetails();
         User user = userDetails.getUser();
 
-        // Update last login
-        user.setLastLoginAt(Instant.now());
-        userRepository.save(user);
-
-        // Create log
-        activityLogService.createLog(LogType.USER_LOGIN, user.getId(),
-                "Kullanıcı Girişi",
-                user.getEmail() + " kullanıcısı sisteme giriş yaptı",
-                null);
-
         // Generate token
         String token = jwtUtil.generateToken(
                 userDetails,
@@ -57,14 +55,35 @@ public class AuthService {
                 user.getRole().name()
         );
 
-        UserResponse userResponse = userMapper.toResponse(user);
+        // Last login and log are written off the response path
+        ActivityLogService.ClientInfo clientInfo = activityLogService.currentClientInfo();
+        Instant loginAt = Instant.now();
+        loginExecutor.runAfterLogin(() -> recordLogin(user, loginAt, clientInfo));
 
         return LoginResponse.builder()
-                .user(userResponse)
+                .user(result.userResponse())
                 .token(token)
                 .build();
     }
 
+    private void recordLogin(User user, Instant loginAt, ActivityLogService.ClientInfo clientInfo) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRepository.updateLastLoginAt(user.getId(), loginAt);
+            activityLogService.createLog(LogType.USER_LOGIN, user.getId(),
+                    "Kullanıcı Girişi",
+                    user.getEmail() + " kullanıcısı sisteme giriş yaptı",
+                    user.getTenantId(),
+                    user.getId(),
+                    clientInfo);
+        });
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
     public UserResponse getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -78,4 +97,7 @@ public class AuthService {
 
         return userMapper.toResponse(user);
     }
-}
\ No newline at end of file
+
+    private record LoginResult(CustomUserDetails userDetails, UserResponse userResponse) {
+    }
+}
@@ -10,8 +10,10 @@ import com.teklif.app.enums.LogType;
 import com.teklif.app.exception.CustomException;
 import com.teklif.app.mapper.CustomerMapper;
 import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.util.KeysetCursor;
 import com.teklif.app.util.TenantContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -20,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +31,8 @@ public class CustomerService {
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
     private final ActivityLogService activityLogService;
+    private final SearchIndexService searchIndexService;
+    private final PublicOfferCache publicOfferCache;
 
     private String getCustomerDisplayName(Customer customer) {
         if (customer.getType() == CustomerType.COMPANY) {
@@ -42,13 +47,29 @@ public class CustomerService {
             CustomerType type,
             Boolean isActive,
             int page,
-            int limit
+            int limit,
+            String cursor
     ) {
         String tenantId = TenantContext.getTenantId();
+        Set<String> matchedIds = searchIndexService.findCustomerIds(tenantId, search);
+
+        if (cursor != null) {
+            if (limit < 1) {
+                throw CustomException.badRequest("Limit must be at least 1");
+            }
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            List<Customer> customers = customerRepository.findAllWithFiltersAfter(
+                    tenantId, matchedIds, search, type, isActive,
+                    KeysetCursor.timestampOf(after), KeysetCursor.idOf(after), Limit.of(limit + 1)
+            );
+            return KeysetCursor.page(customers, limit,
+                    customer -> new KeysetCursor(customer.getCreatedAt(), customer.getId()), customerMapper::toResponse);
+        }
+
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by("createdAt").descending());
 
         Page<Customer> customerPage = customerRepository.findAllWithFilters(
-                tenantId, search, type, isActive, pageable
+                tenantId, matchedIds, search, type, isActive, pageable
         );
 
         List<CustomerResponse> items = customerPage.getContent().stream()
@@ -81,6 +102,7 @@ public class CustomerService {
         customer.setTenantId(tenantId);
 
         customer = customerRepository.save(customer);
+        searchIndexService.indexCustomer(customer);
 
         // Create log
         activityLogService.createLog(LogType.CUSTOMER_CREATED, customer.getId(),
@@ -99,6 +121,8 @@ public class CustomerService {
 
         customerMapper.updateEntity(request, customer);
         customer = customerRepository.save(customer);
+        searchIndexService.indexCustomer(customer);
+        publicOfferCache.evictCustomer(customer.getId());
 
         // Create log
         activityLogService.createLog(LogType.CUSTOMER_UPDATED, customer.getId(),
@@ -119,6 +143,7 @@ public class CustomerService {
 
         customer.setIsDeleted(true);
         customerRepository.save(customer);
+        searchIndexService.indexCustomer(customer);
 
         // Create log
         activityLogService.createLog(LogType.CUSTOMER_DELETED, id,
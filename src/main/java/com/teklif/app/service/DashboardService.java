@@ -1,16 +1,16 @@
 package com.teklif.app.service;
 
-import com.teklif.app.dto.response.OfferResponse;
-import com.teklif.app.entity.Offer;
+import com.teklif.app.dto.response.OfferSummaryResponse;
+import com.teklif.app.entity.TenantOfferStats;
 import com.teklif.app.enums.OfferStatus;
-import com.teklif.app.mapper.OfferMapper;
 import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.TenantOfferStatsRepository;
 import com.teklif.app.util.TenantContext;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,48 +20,39 @@ import java.util.Map;
 public class DashboardService {
 
     private final OfferRepository offerRepository;
-    private final OfferMapper offerMapper;
+    private final TenantOfferStatsRepository statsRepository;
+    private final TenantOfferStatsReconciler statsReconciler;
 
     public Map<String, Object> getDashboardStats(String period) {
         String tenantId = TenantContext.getTenantId();
 
         Map<String, Object> stats = new HashMap<>();
 
-        // Count offers by status
-        long totalOffers = offerRepository.countByTenantIdAndStatusAndIsDeletedFalse(tenantId, null);
-        long draftOffers = offerRepository.countByTenantIdAndStatusAndIsDeletedFalse(tenantId, OfferStatus.DRAFT);
-        long sentOffers = offerRepository.countByTenantIdAndStatusAndIsDeletedFalse(tenantId, OfferStatus.SENT);
-        long viewedOffers = offerRepository.countByTenantIdAndStatusAndIsDeletedFalse(tenantId, OfferStatus.VIEWED);
-        long acceptedOffers = offerRepository.countByTenantIdAndStatusAndIsDeletedFalse(tenantId, OfferStatus.ACCEPTED);
-        long rejectedOffers = offerRepository.countByTenantIdAndStatusAndIsDeletedFalse(tenantId, OfferStatus.REJECTED);
-        long expiredOffers = offerRepository.countByTenantIdAndStatusAndIsDeletedFalse(tenantId, OfferStatus.EXPIRED);
+        // Counts and totals come from the stats read model (one row per status and currency)
+        Map<OfferStatus, TenantOfferStats> byStatus = new EnumMap<>(OfferStatus.class);
+        for (TenantOfferStats row : statusTotals(tenantId)) {
+            byStatus.merge(row.getStatus(), row, DashboardService::sum);
+        }
 
+        long totalOffers = byStatus.values().stream().mapToLong(TenantOfferStats::getOfferCount).sum();
         stats.put("totalOffers", totalOffers);
-        stats.put("draftOffers", draftOffers);
-        stats.put("sentOffers", sentOffers);
-        stats.put("viewedOffers", viewedOffers);
-        stats.put("acceptedOffers", acceptedOffers);
-        stats.put("rejectedOffers", rejectedOffers);
-        stats.put("expiredOffers", expiredOffers);
+        stats.put("draftOffers", count(byStatus, OfferStatus.DRAFT));
+        stats.put("sentOffers", count(byStatus, OfferStatus.SENT));
+        stats.put("viewedOffers", count(byStatus, OfferStatus.VIEWED));
+        stats.put("acceptedOffers", count(byStatus, OfferStatus.ACCEPTED));
+        stats.put("rejectedOffers", count(byStatus, OfferStatus.REJECTED));
+        stats.put("expiredOffers", count(byStatus, OfferStatus.EXPIRED));
 
         // Calculate revenue
-        Double acceptedRevenue = offerRepository.sumTotalByTenantIdAndStatus(tenantId, OfferStatus.ACCEPTED);
-        Double pendingRevenue = offerRepository.sumTotalByTenantIdAndStatus(tenantId, OfferStatus.SENT);
-        pendingRevenue += offerRepository.sumTotalByTenantIdAndStatus(tenantId, OfferStatus.VIEWED);
+        double acceptedRevenue = revenue(byStatus, OfferStatus.ACCEPTED);
+        double pendingRevenue = revenue(byStatus, OfferStatus.SENT) + revenue(byStatus, OfferStatus.VIEWED);
 
-        Double totalRevenue = (acceptedRevenue != null ? acceptedRevenue : 0.0) +
-                (pendingRevenue != null ? pendingRevenue : 0.0);
-
-        stats.put("totalRevenue", totalRevenue);
-        stats.put("acceptedRevenue", acceptedRevenue != null ? acceptedRevenue : 0.0);
-        stats.put("pendingRevenue", pendingRevenue != null ? pendingRevenue : 0.0);
+        stats.put("totalRevenue", acceptedRevenue + pendingRevenue);
+        stats.put("acceptedRevenue", acceptedRevenue);
+        stats.put("pendingRevenue", pendingRevenue);
 
         // Get recent offers
-        Pageable pageable = PageRequest.of(0, 5);
-        List<Offer> recentOffersList = offerRepository.findRecentOffers(tenantId, pageable).getContent();
-        List<OfferResponse> recentOffers = recentOffersList.stream()
-                .map(offerMapper::toResponse)
-                .toList();
+        List<OfferSummaryResponse> recentOffers = offerRepository.findRecentSummaries(tenantId, 5);
 
         stats.put("recentOffers", recentOffers);
 
@@ -69,4 +60,37 @@ public class DashboardService {
 
         return stats;
     }
+
+    // İlk uzlaştırma bitene kadar okuma modelinde eski teklifler eksik olabilir; teklifler sayılır
+    private List<TenantOfferStats> statusTotals(String tenantId) {
+        if (statsReconciler.isBackfilled()) {
+            return statsRepository.findByTenantId(tenantId);
+        }
+        return offerRepository.findStatusTotals(tenantId).stream()
+                .map(totals -> TenantOfferStats.builder()
+                        .tenantId(tenantId).status(totals.getStatus()).currency(totals.getCurrency())
+                        .offerCount(totals.getCount())
+                        .totalAmount(totals.getTotal() != null ? totals.getTotal() : BigDecimal.ZERO)
+                        .build())
+                .toList();
+    }
+
+    // Para birimleri eskisi gibi birlikte toplanır
+    private static TenantOfferStats sum(TenantOfferStats a, TenantOfferStats b) {
+        return TenantOfferStats.builder()
+                .tenantId(a.getTenantId()).status(a.getStatus())
+                .offerCount(a.getOfferCount() + b.getOfferCount())
+                .totalAmount(a.getTotalAmount().add(b.getTotalAmount()))
+                .build();
+    }
+
+    private static long count(Map<OfferStatus, TenantOfferStats> byStatus, OfferStatus status) {
+        TenantOfferStats totals = byStatus.get(status);
+        return totals != null ? totals.getOfferCount() : 0;
+    }
+
+    private static double revenue(Map<OfferStatus, TenantOfferStats> byStatus, OfferStatus status) {
+        TenantOfferStats totals = byStatus.get(status);
+        return totals != null ? totals.getTotalAmount().doubleValue() : 0.0;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,324 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.EmailOutbox;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.enums.OutboxStatus;
+import com.teklif.app.repository.EmailOutboxRepository;
+import com.teklif.app.repository.TenantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains {@code email_outbox} every {@code offer.mail.interval-ms}. Due mails are
+ * grouped by tenant and sent over pooled SMTP sessions from {@link SmtpTransportPool},
+ * with at most {@code offer.mail.per-tenant-concurrency} sessions per tenant, so one
+ * slow or throttling server cannot hold up the other tenants' mail.
+ * <p>
+ * Failed mails are retried with exponential backoff up to {@code offer.mail.max-attempts};
+ * rejected recipients fail at once. Only the node holding the {@value #LEASE} lease
+ * dispatches. Delivery is at-least-once: a node that dies between the SMTP reply and
+ * the status update sends that mail again.
+ */
+@Slf4j
+@Service
+public class EmailOutboxDispatcher {
+
+    static final String LEASE = "email-outbox";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final TenantRepository tenantRepository;
+    private final SmtpTransportPool transportPool;
+    private final JobLeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int perTenantConcurrency;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration leaseDuration;
+    private final ThreadPoolExecutor sendPool;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer sendTimer;
+    private final AtomicLong pending = new AtomicLong();
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 TenantRepository tenantRepository,
+                                 SmtpTransportPool transportPool,
+                                 JobLeaseService leaseService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${offer.mail.enabled:true}") boolean enabled,
+                                 @Value("${offer.mail.batch-size:100}") int batchSize,
+                                 @Value("${offer.mail.threads:8}") int threads,
+                                 @Value("${offer.mail.per-tenant-concurrency:2}") int perTenantConcurrency,
+                                 @Value("${offer.mail.max-attempts:6}") int maxAttempts,
+                                 @Value("${offer.mail.backoff-base-seconds:30}") long backoffBaseSeconds,
+                                 @Value("${offer.mail.backoff-max-seconds:3600}") long backoffMaxSeconds,
+                                 @Value("${offer.mail.lease-seconds:60}") long leaseSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.tenantRepository = tenantRepository;
+        this.transportPool = transportPool;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.perTenantConcurrency = Math.max(1, perTenantConcurrency);
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = Duration.ofSeconds(backoffBaseSeconds);
+        this.backoffMax = Duration.ofSeconds(backoffMaxSeconds);
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+        // Bir turdaki şerit sayısı batchSize'ı geçemez; kuyruk hiç dolmaz
+        this.sendPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, batchSize)), namedThreads("offer-mail-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.sent = Counter.builder("offer.mail.sent").register(meterRegistry);
+        this.retried = Counter.builder("offer.mail.retried").register(meterRegistry);
+        this.failed = Counter.builder("offer.mail.failed").register(meterRegistry);
+        this.sendTimer = Timer.builder("offer.mail.send")
+                .description("Time spent delivering one outbox mail over SMTP")
+                .register(meterRegistry);
+        meterRegistry.gauge("offer.mail.pending", pending, AtomicLong::get);
+        meterRegistry.gauge("offer.mail.active", sendPool, ThreadPoolExecutor::getActiveCount);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sendPool.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${offer.mail.interval-ms:5000}")
+    public void scheduledRun() {
+        if (enabled) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Sends one batch of due mails.
+     *
+     * @return number of mails sent, or -1 when another node holds the lease
+     */
+    public int dispatch() {
+        if (!leaseService.tryAcquire(LEASE, leaseDuration)) {
+            return -1;
+        }
+
+        List<EmailOutbox> due = outboxRepository.findDue(Instant.now(), Limit.of(batchSize));
+        if (due.isEmpty()) {
+            pending.set(0);
+            return 0;
+        }
+
+        Map<String, List<EmailOutbox>> byTenant = due.stream()
+                .collect(Collectors.groupingBy(EmailOutbox::getTenantId));
+        Map<String, Tenant> tenants = tenantRepository.findAllById(byTenant.keySet()).stream()
+                .collect(Collectors.toMap(Tenant::getId, Function.identity()));
+
+        Queue<Result> results = new ConcurrentLinkedQueue<>();
+        // Kiracı başına en fazla perTenantConcurrency oturum; şeritler paralel gönderir
+        List<Future<?>> running = new ArrayList<>();
+        byTenant.forEach((tenantId, mails) -> {
+            Tenant tenant = tenants.get(tenantId);
+            for (List<EmailOutbox> lane : lanes(mails)) {
+                running.add(sendPool.submit(() -> sendLane(tenant, lane, results)));
+            }
+        });
+        for (Future<?> lane : running) {
+            try {
+                lane.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("Outbox lane failed", e.getCause());
+            }
+        }
+
+        record(results);
+        pending.set(outboxRepository.countByStatus(OutboxStatus.PENDING));
+        return (int) results.stream().filter(Result::delivered).count();
+    }
+
+    private List<List<EmailOutbox>> lanes(List<EmailOutbox> mails) {
+        int count = Math.min(perTenantConcurrency, mails.size());
+        List<List<EmailOutbox>> lanes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < mails.size(); i++) {
+            lanes.get(i % count).add(mails.get(i));
+        }
+        return lanes;
+    }
+
+    // Bir şerit tek SMTP oturumunu sırayla kullanır; oturum bozulursa kalan postalar yenisiyle devam eder
+    private void sendLane(Tenant tenant, List<EmailOutbox> mails, Queue<Result> results) {
+        SmtpTransportPool.Settings settings = SmtpTransportPool.Settings.of(tenant);
+        if (settings == null || tenant.getFromEmail() == null) {
+            mails.forEach(mail -> results.add(Result.retry(mail, "Tenant has no SMTP settings")));
+            return;
+        }
+
+        Transport transport = null;
+        try {
+            for (EmailOutbox mail : mails) {
+                try {
+                    MimeMessage message = message(settings, tenant, mail);
+                    if (transport == null) {
+                        transport = transportPool.borrow(settings);
+                    }
+                    Transport current = transport;
+                    sendTimer.recordCallable(() -> {
+                        current.sendMessage(message, message.getAllRecipients());
+                        return null;
+                    });
+                    results.add(Result.delivered(mail));
+                } catch (Exception e) {
+                    if (isRejected(e)) {
+                        // Alıcı reddedildi: tekrar denemek sonucu değiştirmez
+                        results.add(Result.rejected(mail, e.getMessage()));
+                        continue;
+                    }
+                    results.add(Result.retry(mail, e.getMessage()));
+                    if (transport != null) {
+                        transportPool.invalidate(transport);
+                        transport = null;
+                    }
+                }
+            }
+        } finally {
+            if (transport != null) {
+                transportPool.release(settings, transport);
+            }
+        }
+    }
+
+    private static boolean isRejected(Exception e) {
+        return e instanceof AddressException
+                || e instanceof SendFailedException failure
+                && failure.getInvalidAddresses() != null && failure.getInvalidAddresses().length > 0;
+    }
+
+    private MimeMessage message(SmtpTransportPool.Settings settings, Tenant tenant, EmailOutbox mail)
+            throws MessagingException {
+        MimeMessage message = new MimeMessage(transportPool.session(settings));
+        try {
+            message.setFrom(new InternetAddress(tenant.getFromEmail(),
+                    tenant.getFromName() != null ? tenant.getFromName() : tenant.getName(),
+                    StandardCharsets.UTF_8.name()));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(mail.getRecipient(), true));
+        message.setSubject(mail.getSubject(), StandardCharsets.UTF_8.name());
+        message.setText(mail.getBody(), StandardCharsets.UTF_8.name());
+        message.setSentDate(new Date());
+        return message;
+    }
+
+    private void record(Collection<Result> results) {
+        Instant now = Instant.now();
+        List<String> delivered = results.stream().filter(Result::delivered).map(r -> r.mail().getId()).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxRepository.markSent(delivered, now);
+            }
+            for (Result result : results) {
+                if (result.delivered()) {
+                    continue;
+                }
+                EmailOutbox mail = result.mail();
+                int attempts = mail.getAttempts() + 1;
+                boolean giveUp = result.permanent() || attempts >= maxAttempts;
+                String error = result.error() == null ? "unknown error"
+                        : result.error().substring(0, Math.min(result.error().length(), MAX_ERROR_LENGTH));
+                outboxRepository.markFailed(mail.getId(), giveUp ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+                        giveUp ? mail.getNextAttemptAt() : now.plus(backoff(attempts)), error, now);
+                if (giveUp) {
+                    failed.increment();
+                    log.warn("Mail {} to {} for tenant {} failed after {} attempts: {}",
+                            mail.getId(), mail.getRecipient(), mail.getTenantId(), attempts, error);
+                } else {
+                    retried.increment();
+                }
+            }
+        });
+        sent.increment(delivered.size());
+    }
+
+    // 30s, 1dk, 2dk, ... backoffMax ile sınırlı
+    private Duration backoff(int attempts) {
+        Duration delay = backoffBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Result(EmailOutbox mail, boolean delivered, boolean permanent, String error) {
+
+        static Result delivered(EmailOutbox mail) {
+            return new Result(mail, true, false, null);
+        }
+
+        static Result retry(EmailOutbox mail, String error) {
+            return new Result(mail, false, false, error);
+        }
+
+        static Result rejected(EmailOutbox mail, String error) {
+            return new Result(mail, false, true, error);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.EmailOutbox;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.enums.CustomerType;
+import com.teklif.app.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Queues customer mails in the {@code email_outbox} table. Callers run inside the
+ * transaction that changes the offer, so a mail exists exactly when the change was
+ * committed; {@link EmailOutboxDispatcher} sends it afterwards.
+ */
+@Slf4j
+@Service
+public class EmailOutboxService {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy")
+            .withZone(ZoneId.of("Europe/Istanbul"));
+
+    private final EmailOutboxRepository outboxRepository;
+    private final String linkBaseUrl;
+
+    public EmailOutboxService(EmailOutboxRepository outboxRepository,
+                              @Value("${offer.mail.link-base-url:http://localhost:5173/offer/}") String linkBaseUrl) {
+        this.outboxRepository = outboxRepository;
+        this.linkBaseUrl = linkBaseUrl.endsWith("/") ? linkBaseUrl : linkBaseUrl + "/";
+    }
+
+    /**
+     * Queues the "offer sent" mail to the customer. Skipped when the customer has no
+     * e-mail address or the tenant has no SMTP server configured.
+     *
+     * @param offer offer with its customer and tenant loaded
+     */
+    public void enqueueOfferSent(Offer offer) {
+        Customer customer = offer.getCustomer();
+        Tenant tenant = offer.getTenant();
+        if (customer.getEmail() == null || customer.getEmail().isBlank()) {
+            log.debug("Offer {} sent without mail, customer {} has no e-mail", offer.getId(), customer.getId());
+            return;
+        }
+        if (tenant.getSmtpHost() == null || tenant.getSmtpHost().isBlank() || tenant.getFromEmail() == null) {
+            log.debug("Offer {} sent without mail, tenant {} has no SMTP settings", offer.getId(), tenant.getId());
+            return;
+        }
+
+        String customerName = customer.getType() == CustomerType.COMPANY
+                ? customer.getCompanyName()
+                : customer.getFirstName() + " " + customer.getLastName();
+        StringBuilder body = new StringBuilder()
+                .append("Sayın ").append(customerName).append(",\n\n")
+                .append(offer.getOfferNo()).append(" numaralı teklifimizi aşağıdaki bağlantıdan inceleyebilirsiniz:\n")
+                .append(linkBaseUrl).append(offer.getUuid()).append("\n\n");
+        if (offer.getValidUntil() != null) {
+            body.append("Teklif geçerlilik tarihi: ").append(DATE_FORMAT.format(offer.getValidUntil())).append("\n\n");
+        }
+        body.append("Saygılarımızla,\n").append(tenant.getName());
+
+        outboxRepository.save(EmailOutbox.builder()
+                .tenantId(offer.getTenantId())
+                .offerId(offer.getId())
+                .recipient(customer.getEmail())
+                .subject(tenant.getName() + " - " + offer.getOfferNo() + " numaralı teklif")
+                .body(body.toString())
+                .nextAttemptAt(Instant.now())
+                .build());
+    }
+}
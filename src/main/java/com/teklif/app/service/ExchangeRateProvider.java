@@ -0,0 +1,17 @@
+package com.teklif.app.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Source of the rates kept by {@link ExchangeRateService}.
+ */
+@FunctionalInterface
+public interface ExchangeRateProvider {
+
+    /**
+     * @return TRY value of one unit of each currency, keyed by ISO code
+     */
+    Map<String, BigDecimal> fetch() throws IOException;
+}
@@ -0,0 +1,130 @@
+package com.teklif.app.service;
+
+import com.teklif.app.dto.response.OfferResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the latest exchange rates in memory. {@link #refresh()} builds a new immutable
+ * {@link Rates} from the {@link ExchangeRateProvider} and swaps it in, so lookups never
+ * block or do I/O. A failed refresh keeps the previous rates until they are older than
+ * {@code offer.exchange-rate.max-age-hours}.
+ */
+@Slf4j
+@Service
+public class ExchangeRateService {
+
+    public static final String BASE_CURRENCY = "TRY";
+
+    private final ExchangeRateProvider provider;
+    private final Duration maxAge;
+    private final Counter refreshed;
+    private final Counter failed;
+
+    private volatile Rates rates = Rates.EMPTY;
+
+    public ExchangeRateService(ExchangeRateProvider provider,
+                               MeterRegistry meterRegistry,
+                               @Value("${offer.exchange-rate.max-age-hours:72}") long maxAgeHours) {
+        this.provider = provider;
+        this.maxAge = Duration.ofHours(maxAgeHours);
+        this.refreshed = Counter.builder("exchange.rate.refresh").tag("result", "success").register(meterRegistry);
+        this.failed = Counter.builder("exchange.rate.refresh").tag("result", "failure").register(meterRegistry);
+        meterRegistry.gauge("exchange.rate.age", this, service -> {
+            Instant fetchedAt = service.rates.fetchedAt();
+            return fetchedAt == null ? Double.NaN : Duration.between(fetchedAt, Instant.now()).toSeconds();
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${offer.exchange-rate.refresh-ms:3600000}")
+    public void refresh() {
+        try {
+            Map<String, BigDecimal> fetched = new HashMap<>();
+            provider.fetch().forEach((currency, rate) -> {
+                if (rate != null && rate.signum() > 0) {
+                    fetched.put(currency.toUpperCase(Locale.ROOT), rate);
+                }
+            });
+            if (fetched.isEmpty()) {
+                throw new IllegalStateException("provider returned no rates");
+            }
+            fetched.put(BASE_CURRENCY, BigDecimal.ONE);
+            rates = new Rates(Map.copyOf(fetched), Instant.now());
+            refreshed.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Exchange rates could not be refreshed, keeping rates from {}: {}",
+                    rates.fetchedAt(), e.getMessage());
+        }
+    }
+
+    public Rates current() {
+        return rates;
+    }
+
+    /**
+     * @return TRY value of one unit of {@code currency}, or empty when the rate is
+     * unknown or the rates are stale
+     */
+    public Optional<BigDecimal> rateToTry(String currency) {
+        if (BASE_CURRENCY.equalsIgnoreCase(currency)) {
+            return Optional.of(BigDecimal.ONE);
+        }
+        Rates current = rates;
+        if (currency == null || current.fetchedAt() == null
+                || current.fetchedAt().isBefore(Instant.now().minus(maxAge))) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.toTry().get(currency.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Fills the TL equivalents of an offer response. Sent offers use the rate stamped
+     * at send time; drafts (rate 0) use the current rates.
+     */
+    public void applyTlEquivalent(OfferResponse response) {
+        boolean showTl = Boolean.TRUE.equals(response.getShowTlEquivalent());
+        if (!showTl && !Boolean.TRUE.equals(response.getShowExchangeRateInfo())) {
+            return;
+        }
+
+        BigDecimal stamped = response.getExchangeRate();
+        BigDecimal rate = stamped != null && stamped.signum() > 0 ? stamped
+                : rateToTry(response.getCurrency()).orElse(null);
+        if (rate == null) {
+            return;
+        }
+
+        response.setExchangeRate(rate);
+        if (showTl) {
+            response.setSubtotalTl(toTry(response.getSubtotal(), rate));
+            response.setVatTotalTl(toTry(response.getVatTotal(), rate));
+            response.setTotalTl(toTry(response.getTotal(), rate));
+        }
+    }
+
+    private static BigDecimal toTry(BigDecimal amount, BigDecimal rate) {
+        return amount == null ? null : amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Immutable rate table; replaced as a whole on every successful refresh.
+     */
+    public record Rates(Map<String, BigDecimal> toTry, Instant fetchedAt) {
+
+        static final Rates EMPTY = new Rates(Map.of(), null);
+    }
+}
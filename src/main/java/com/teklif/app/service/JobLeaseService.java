@@ -0,0 +1,100 @@
+package com.teklif.app.service;
+
+import com.teklif.app.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Database-backed leases for jobs that must run on one node at a time. A node holds
+ * a lease until it expires or is released, and renews it while it keeps working; a
+ * node that dies simply lets it lapse.
+ */
+@Slf4j
+@Service
+public class JobLeaseService {
+
+    private final JobLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    @Autowired
+    public JobLeaseService(JobLeaseRepository leaseRepository, PlatformTransactionManager transactionManager) {
+        this(leaseRepository, transactionManager, hostName() + "-" + UUID.randomUUID());
+    }
+
+    JobLeaseService(JobLeaseRepository leaseRepository, PlatformTransactionManager transactionManager, String owner) {
+        this.leaseRepository = leaseRepository;
+        this.owner = owner;
+        // Lease, işin transaction'ından bağımsız hemen commit edilir
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Takes or renews the lease for {@code duration}.
+     *
+     * @return false when another node holds an unexpired lease
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        Instant now = Instant.now();
+        Instant until = now.plus(duration);
+        try {
+            Boolean acquired = transactionTemplate.execute(status -> {
+                if (leaseRepository.acquire(name, owner, until, now) == 1) {
+                    return true;
+                }
+                if (leaseRepository.existsById(name)) {
+                    return false;
+                }
+                leaseRepository.insert(name, owner, until, now);
+                return true;
+            });
+            return Boolean.TRUE.equals(acquired);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease row first and holds it now
+            log.debug("Job lease {} created concurrently by another node", name);
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(status -> leaseRepository.release(name, owner, Instant.now()));
+    }
+
+    /**
+     * Records that a full run of the job finished, so every node can see it.
+     */
+    public void markCompleted(String name) {
+        transactionTemplate.executeWithoutResult(status -> leaseRepository.complete(name, Instant.now()));
+    }
+
+    /**
+     * @return whether a run of the job has finished on any node
+     */
+    public boolean hasCompleted(String name) {
+        return leaseRepository.existsByNameAndCompletedAtIsNotNull(name);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
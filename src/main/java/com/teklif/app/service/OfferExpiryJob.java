@@ -0,0 +1,270 @@
+package com.teklif.app.service;
+
+import com.teklif.app.enums.LogType;
+import com.teklif.app.enums.NotificationType;
+import com.teklif.app.enums.OfferStatus;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Moves SENT and VIEWED offers past their {@code validUntil} to EXPIRED. Offers are
+ * scanned in id order and expired with one conditional bulk UPDATE per chunk of
+ * {@code offer.expiry.batch-size}, each chunk in its own transaction together with
+ * the OFFER_EXPIRED notifications, activity logs and offer stats deltas. Notifications
+ * and logs are written with JDBC batch inserts.
+ * <p>
+ * Only the node holding the {@value #LEASE} lease runs the job; the lease is renewed
+ * after every chunk. Expired offers lose their stored snapshot and public cache entry,
+ * so their links render the new status.
+ */
+@Slf4j
+@Service
+public class OfferExpiryJob {
+
+    static final String LEASE = "offer-expiry";
+
+    private static final Set<OfferStatus> EXPIRABLE = EnumSet.of(OfferStatus.SENT, OfferStatus.VIEWED);
+
+    private static final String NOTIFICATION_TITLE = "Teklif Süresi Doldu";
+
+    private static final String INSERT_NOTIFICATION = "INSERT INTO notifications (id, title, message, type, tenant_id, "
+            + "offer_id, created_at, updated_at, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_NOTIFICATION_READ = "INSERT INTO notification_reads (id, notification_id, "
+            + "user_id, is_read, created_at, updated_at, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_LOG = "INSERT INTO activity_logs (id, log_date, log_type, target_id, title, "
+            + "message, tenant_id, created_at, updated_at, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final OfferRepository offerRepository;
+    private final UserRepository userRepository;
+    private final OfferSnapshotService offerSnapshotService;
+    private final PublicOfferCache publicOfferCache;
+    private final TenantOfferStatsService offerStatsService;
+    private final JobLeaseService leaseService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration leaseDuration;
+
+    private final Counter processed;
+    private final Timer runTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public OfferExpiryJob(OfferRepository offerRepository,
+                          UserRepository userRepository,
+                          OfferSnapshotService offerSnapshotService,
+                          PublicOfferCache publicOfferCache,
+                          TenantOfferStatsService offerStatsService,
+                          JobLeaseService leaseService,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${offer.expiry.enabled:true}") boolean enabled,
+                          @Value("${offer.expiry.batch-size:500}") int batchSize,
+                          @Value("${offer.expiry.lease-seconds:300}") long leaseSeconds) {
+        this.offerRepository = offerRepository;
+        this.userRepository = userRepository;
+        this.offerSnapshotService = offerSnapshotService;
+        this.publicOfferCache = publicOfferCache;
+        this.offerStatsService = offerStatsService;
+        this.leaseService = leaseService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+
+        this.processed = Counter.builder("offer.expiry.processed")
+                .description("Offers moved to EXPIRED by the expiry job")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("offer.expiry.run")
+                .description("Duration of expiry job runs on the lease holder")
+                .register(meterRegistry);
+        meterRegistry.gauge("offer.expiry.lag", lagSeconds, AtomicLong::get);
+    }
+
+    @Scheduled(fixedDelayString = "${offer.expiry.interval-ms:60000}",
+            initialDelayString = "${offer.expiry.interval-ms:60000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Expires every past-due offer, chunk by chunk, while this node holds the lease.
+     *
+     * @return number of offers expired, or -1 when another node holds the lease
+     */
+    public int run() {
+        if (!leaseService.tryAcquire(LEASE, leaseDuration)) {
+            log.debug("Offer expiry skipped, lease {} is held by another node", LEASE);
+            return -1;
+        }
+
+        long started = System.nanoTime();
+        // MICROS: updatedAt eşitliğiyle geri okunacağı için DB hassasiyetine yuvarlanır
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        int total = 0;
+        try {
+            String afterId = "";
+            while (true) {
+                List<OfferRepository.ExpiringOfferRef> chunk = offerRepository.findExpiring(
+                        EXPIRABLE, now, afterId, Limit.of(batchSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).getId();
+
+                Integer expired = transactionTemplate.execute(status -> expireChunk(chunk, now));
+                total += expired != null ? expired : 0;
+
+                if (chunk.size() < batchSize) {
+                    break;
+                }
+                if (!leaseService.tryAcquire(LEASE, leaseDuration)) {
+                    log.warn("Offer expiry lease {} lost after {} offers, stopping", LEASE, total);
+                    break;
+                }
+            }
+        } finally {
+            runTimer.record(Duration.ofNanos(System.nanoTime() - started));
+            updateLag();
+        }
+
+        if (total > 0) {
+            log.info("Offer expiry: {} offers expired in {} ms", total,
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        }
+        return total;
+    }
+
+    private int expireChunk(List<OfferRepository.ExpiringOfferRef> chunk, Instant now) {
+        List<String> ids = chunk.stream().map(OfferRepository.ExpiringOfferRef::getId).toList();
+
+        // Tarama ile UPDATE arasında kabul/red edilenler koşula takılır, bildirim almaz.
+        // Durum başına ayrı UPDATE: istatistikte her teklifin hangi satırdan düşüleceği bilinir.
+        TenantOfferStatsService.Changes stats = new TenantOfferStatsService.Changes();
+        Set<String> expiredIds = new HashSet<>();
+        for (OfferStatus from : EXPIRABLE) {
+            if (offerRepository.expire(ids, EnumSet.of(from), now) == 0) {
+                continue;
+            }
+            for (OfferRepository.ExpiredOfferRef offer : offerRepository.findExpiredAt(ids, now)) {
+                if (expiredIds.add(offer.getId())) {
+                    stats.move(offer.getTenantId(), offer.getCurrency(), offer.getTotal(), from, OfferStatus.EXPIRED);
+                }
+            }
+        }
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+
+        List<OfferRepository.ExpiringOfferRef> expired = chunk.stream()
+                .filter(offer -> expiredIds.contains(offer.getId()))
+                .toList();
+
+        offerStatsService.apply(stats);
+        insertNotifications(expired, now);
+        insertLogs(expired, now);
+        offerSnapshotService.deleteAll(expiredIds);
+        expired.forEach(offer -> publicOfferCache.evictOffer(offer.getUuid()));
+
+        processed.increment(expired.size());
+        return expired.size();
+    }
+
+    private void insertNotifications(List<OfferRepository.ExpiringOfferRef> expired, Instant now) {
+        LocalDateTime timestamp = LocalDateTime.ofInstant(now, ZoneOffset.UTC);
+        Set<String> tenantIds = expired.stream()
+                .map(OfferRepository.ExpiringOfferRef::getTenantId)
+                .collect(Collectors.toSet());
+        Map<String, List<String>> membersByTenant = userRepository.findActiveMembers(tenantIds).stream()
+                .collect(Collectors.groupingBy(UserRepository.TenantMember::getTenantId,
+                        Collectors.mapping(UserRepository.TenantMember::getId, Collectors.toList())));
+
+        List<String[]> notifications = new ArrayList<>(expired.size());
+        List<String[]> reads = new ArrayList<>();
+        for (OfferRepository.ExpiringOfferRef offer : expired) {
+            String notificationId = UUID.randomUUID().toString();
+            notifications.add(new String[]{notificationId, offer.getTenantId(), offer.getId(), offer.getOfferNo()});
+            for (String userId : membersByTenant.getOrDefault(offer.getTenantId(), List.of())) {
+                reads.add(new String[]{notificationId, userId});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, notifications, batchSize, (ps, n) -> {
+            ps.setString(1, n[0]);
+            ps.setString(2, NOTIFICATION_TITLE);
+            ps.setString(3, n[3] + " numaralı teklifin geçerlilik süresi doldu.");
+            ps.setString(4, NotificationType.OFFER_EXPIRED.name());
+            ps.setString(5, n[1]);
+            ps.setString(6, n[2]);
+            ps.setObject(7, timestamp);
+            ps.setObject(8, timestamp);
+            ps.setBoolean(9, false);
+        });
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION_READ, reads, batchSize, (ps, r) -> {
+            ps.setString(1, UUID.randomUUID().toString());
+            ps.setString(2, r[0]);
+            ps.setString(3, r[1]);
+            ps.setBoolean(4, false);
+            ps.setObject(5, timestamp);
+            ps.setObject(6, timestamp);
+            ps.setBoolean(7, false);
+        });
+    }
+
+    private void insertLogs(List<OfferRepository.ExpiringOfferRef> expired, Instant now) {
+        LocalDateTime timestamp = LocalDateTime.ofInstant(now, ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate(INSERT_LOG, expired, batchSize, (ps, offer) -> {
+            ps.setString(1, UUID.randomUUID().toString());
+            ps.setObject(2, timestamp);
+            // LogType'ta OFFER_EXPIRED yok; enum kolonu değiştirmemek için SYSTEM_INFO
+            ps.setString(3, LogType.SYSTEM_INFO.name());
+            ps.setString(4, offer.getId());
+            ps.setString(5, NOTIFICATION_TITLE);
+            ps.setString(6, offer.getOfferNo() + " numaralı teklifin süresi doldu, durum EXPIRED yapıldı.");
+            ps.setString(7, offer.getTenantId());
+            ps.setObject(8, timestamp);
+            ps.setObject(9, timestamp);
+            ps.setBoolean(10, false);
+        });
+    }
+
+    // Gecikme: süresi geçtiği halde hâlâ SENT/VIEWED olan en eski teklifin yaşı
+    private void updateLag() {
+        Instant now = Instant.now();
+        lagSeconds.set(offerRepository.findOldestPastDue(EXPIRABLE, now)
+                .map(oldest -> Duration.between(oldest, now).toSeconds())
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,463 @@
+package com.teklif.app.service;
+
+import com.teklif.app.dto.request.OfferImportRow;
+import com.teklif.app.dto.request.OfferItemRequest;
+import com.teklif.app.dto.response.OfferImportResponse;
+import com.teklif.app.enums.LogType;
+import com.teklif.app.enums.OfferStatus;
+import com.teklif.app.exception.CustomException;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.util.CsvReader;
+import com.teklif.app.util.PricingEngine;
+import com.teklif.app.util.TenantContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk offer import for migrating history from other systems. The body is read as a
+ * stream (NDJSON, one offer per line, or CSV, one item per row grouped by
+ * {@code offerRef}) and offers are written with JDBC batch inserts in chunks of
+ * {@code offer.import.chunk-size}, one transaction per chunk.
+ * <p>
+ * Invalid rows are reported and skipped; the rest of the job continues. No per-offer
+ * notifications or activity logs are written, only one summary log per job.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OfferImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of(
+            "offerRef", "customerId", "currency", "productName", "quantity", "unit", "unitPrice", "vatRate");
+
+    private static final String INSERT_OFFER = "INSERT INTO offers (id, offer_no, tenant_id, customer_id, uuid, status, "
+            + "subtotal, vat_total, exchange_rate, total, currency, valid_until, notes, one_time_view, has_been_viewed, "
+            + "show_tl_equivalent, show_exchange_rate_info, created_at, updated_at, is_deleted, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM = "INSERT INTO offer_items (id, parent_id, product_id, product_name, "
+            + "description, quantity, unit, unit_price, vat_rate, discount_rate, subtotal, vat_amount, total, "
+            + "created_at, updated_at, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final CustomerRepository customerRepository;
+    private final OfferRepository offerRepository;
+    private final OfferService offerService;
+    private final ActivityLogService activityLogService;
+    private final SearchIndexService searchIndexService;
+    private final TenantOfferStatsService offerStatsService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${offer.import.chunk-size:500}")
+    private int chunkSize;
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    public OfferImportResponse importOffers(InputStream body, Format format) {
+        String tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw CustomException.forbidden("Tenant context is required");
+        }
+
+        // Müşteri kontrolü satır başına sorgu yerine önceden yüklenen küme üzerinden yapılır
+        ImportJob job = new ImportJob(tenantId, new HashSet<>(customerRepository.findIdsByTenantId(tenantId)));
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (format == Format.CSV) {
+                readCsv(reader, job);
+            } else {
+                readNdjson(reader, job);
+            }
+        } catch (IOException e) {
+            job.fail(job.lastRow, null, "Import stream could not be read, stopped here: " + e.getMessage());
+        }
+        job.flush();
+
+        log.info("Offer import for tenant {}: {} offers, {} items imported, {} rows failed",
+                tenantId, job.importedOffers, job.importedItems, job.failedRows);
+        activityLogService.createLog(LogType.SYSTEM_INFO, tenantId,
+                "Toplu Teklif Aktarımı",
+                job.importedOffers + " teklif içe aktarıldı, " + job.failedRows + " satır hatalı.",
+                null);
+
+        return job.toResponse();
+    }
+
+    private void readNdjson(BufferedReader reader, ImportJob job) throws IOException {
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            job.lastRow = lineNo;
+            if (line.isBlank()) {
+                continue;
+            }
+            job.totalRows++;
+
+            OfferImportRow row;
+            try {
+                row = objectMapper.readValue(line, OfferImportRow.class);
+            } catch (JacksonException e) {
+                job.fail(lineNo, null, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            job.accept(lineNo, row);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportJob job) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        List<String> missing = REQUIRED_CSV_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw CustomException.badRequest("Missing CSV columns: " + String.join(", ", missing));
+        }
+
+        String currentRef = null;
+        long groupRow = 0;
+        OfferImportRow group = null;
+        String groupError = null;
+
+        while (true) {
+            long lineNo = csv.getLine();
+            List<String> record = csv.next();
+            job.lastRow = lineNo;
+            if (record == null) {
+                break;
+            }
+            if (record.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            CsvRecord r = new CsvRecord(record, columns);
+
+            String ref = r.get("offerRef");
+            if (group == null || !Objects.equals(ref, currentRef)) {
+                completeGroup(job, groupRow, group, groupError);
+                job.totalRows++;
+                currentRef = ref;
+                groupRow = lineNo;
+                groupError = null;
+                group = new OfferImportRow();
+                group.setOfferNo(r.get("offerNo"));
+                group.setCustomerId(r.get("customerId"));
+                group.setCurrency(r.get("currency"));
+                group.setNotes(r.get("notes"));
+                try {
+                    String validUntil = r.get("validUntil");
+                    group.setValidUntil(validUntil != null ? Instant.parse(validUntil) : null);
+                    String status = r.get("status");
+                    group.setStatus(status != null ? OfferStatus.valueOf(status.toUpperCase()) : null);
+                } catch (RuntimeException e) {
+                    groupError = "Line " + lineNo + ": " + e.getMessage();
+                }
+            }
+
+            try {
+                group.getItems().add(r.toItem());
+            } catch (RuntimeException e) {
+                if (groupError == null) {
+                    groupError = "Line " + lineNo + ": " + e.getMessage();
+                }
+            }
+        }
+        completeGroup(job, groupRow, group, groupError);
+    }
+
+    private void completeGroup(ImportJob job, long row, OfferImportRow group, String error) {
+        if (group == null) {
+            return;
+        }
+        if (error != null) {
+            job.fail(row, group.getOfferNo(), error);
+        } else {
+            job.accept(row, group);
+        }
+    }
+
+    private record CsvRecord(List<String> values, Map<String, Integer> columns) {
+
+        String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        OfferItemRequest toItem() {
+            OfferItemRequest item = new OfferItemRequest();
+            item.setProductId(get("productId"));
+            item.setProductName(get("productName"));
+            item.setDescription(get("description"));
+            item.setUnit(get("unit"));
+            String quantity = get("quantity");
+            item.setQuantity(quantity != null ? Integer.valueOf(quantity) : null);
+            String unitPrice = get("unitPrice");
+            item.setUnitPrice(unitPrice != null ? new BigDecimal(unitPrice) : null);
+            String vatRate = get("vatRate");
+            item.setVatRate(vatRate != null ? Integer.valueOf(vatRate) : null);
+            String discountRate = get("discountRate");
+            item.setDiscountRate(discountRate != null ? new BigDecimal(discountRate) : BigDecimal.ZERO);
+            return item;
+        }
+    }
+
+    private record PendingOffer(long row, OfferImportRow source, List<PricingEngine.Line> lines,
+                                PricingEngine.Totals totals, String id) {
+    }
+
+    private final class ImportJob {
+
+        private final String tenantId;
+        private final Set<String> customerIds;
+        private final Set<String> seenOfferNos = new HashSet<>();
+        private final List<PendingOffer> pending = new ArrayList<>();
+        private final List<OfferImportResponse.RowError> errors = new ArrayList<>();
+
+        private long lastRow;
+        private int totalRows;
+        private int importedOffers;
+        private int importedItems;
+        private int failedRows;
+
+        private ImportJob(String tenantId, Set<String> customerIds) {
+            this.tenantId = tenantId;
+            this.customerIds = customerIds;
+        }
+
+        private void accept(long row, OfferImportRow source) {
+            Set<ConstraintViolation<OfferImportRow>> violations = validator.validate(source);
+            if (!violations.isEmpty()) {
+                fail(row, source.getOfferNo(), violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            if (!customerIds.contains(source.getCustomerId())) {
+                fail(row, source.getOfferNo(), "Customer not found: " + source.getCustomerId());
+                return;
+            }
+            if (source.getOfferNo() != null && !seenOfferNos.add(source.getOfferNo())) {
+                fail(row, source.getOfferNo(), "Duplicate offer number in import");
+                return;
+            }
+
+            PricingEngine.Totals totals = new PricingEngine.Totals();
+            List<PricingEngine.Line> lines = new ArrayList<>(source.getItems().size());
+            for (OfferItemRequest item : source.getItems()) {
+                PricingEngine.Line line = PricingEngine.line(item.getUnitPrice(), item.getQuantity(),
+                        item.getDiscountRate(), item.getVatRate());
+                lines.add(line);
+                totals.add(line);
+            }
+
+            pending.add(new PendingOffer(row, source, lines, totals, UUID.randomUUID().toString()));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<String> providedNos = pending.stream()
+                    .map(p -> p.source().getOfferNo())
+                    .filter(Objects::nonNull)
+                    .toList();
+            Set<String> existing = providedNos.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(offerRepository.findExistingOfferNos(providedNos));
+
+            List<PendingOffer> chunk = new ArrayList<>(pending.size());
+            for (PendingOffer offer : pending) {
+                String offerNo = offer.source().getOfferNo();
+                if (offerNo != null && existing.contains(offerNo)) {
+                    fail(offer.row(), offerNo, "Offer number already exists");
+                } else {
+                    if (offerNo == null) {
+                        offer.source().setOfferNo(offerService.generateOfferNo());
+                    }
+                    chunk.add(offer);
+                }
+            }
+            pending.clear();
+
+            store(chunk);
+        }
+
+        // Reddedilen parça ikiye bölünerek tekrar denenir; yalnızca hatalı satırlar düşer
+        private void store(List<PendingOffer> chunk) {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                int items = new TransactionTemplate(transactionManager).execute(status -> insert(chunk));
+                chunk.forEach(offer -> searchIndexService.indexOffer(tenantId, offer.id(), offer.source().getOfferNo()));
+                importedOffers += chunk.size();
+                importedItems += items;
+            } catch (DataAccessException e) {
+                if (chunk.size() == 1) {
+                    PendingOffer offer = chunk.get(0);
+                    log.debug("Offer import row {} rejected for tenant {}", offer.row(), tenantId, e);
+                    fail(offer.row(), offer.source().getOfferNo(),
+                            "Rejected by database: " + e.getMostSpecificCause().getMessage());
+                    return;
+                }
+                log.debug("Offer import chunk of {} offers failed for tenant {}, splitting: {}",
+                        chunk.size(), tenantId, e.getMostSpecificCause().getMessage());
+                int middle = chunk.size() / 2;
+                store(chunk.subList(0, middle));
+                store(chunk.subList(middle, chunk.size()));
+            }
+        }
+
+        private int insert(List<PendingOffer> chunk) {
+            Instant now = Instant.now();
+            LocalDateTime timestamp = LocalDateTime.ofInstant(now, ZoneOffset.UTC);
+
+            jdbcTemplate.batchUpdate(INSERT_OFFER, chunk, chunk.size(), (ps, offer) -> {
+                OfferImportRow source = offer.source();
+                ps.setString(1, offer.id());
+                ps.setString(2, source.getOfferNo());
+                ps.setString(3, tenantId);
+                ps.setString(4, source.getCustomerId());
+                ps.setString(5, UUID.randomUUID().toString());
+                ps.setString(6, statusOf(source).name());
+                ps.setBigDecimal(7, offer.totals().subtotal());
+                ps.setBigDecimal(8, offer.totals().vatTotal());
+                ps.setBigDecimal(9, BigDecimal.ZERO);
+                ps.setBigDecimal(10, offer.totals().total());
+                ps.setString(11, source.getCurrency());
+                setInstant(ps, 12, source.getValidUntil());
+                ps.setString(13, source.getNotes());
+                ps.setBoolean(14, false);
+                ps.setBoolean(15, false);
+                ps.setBoolean(16, false);
+                ps.setBoolean(17, false);
+                ps.setObject(18, timestamp);
+                ps.setObject(19, timestamp);
+                ps.setBoolean(20, false);
+                ps.setLong(21, 0L);
+            });
+
+            List<ItemRow> items = new ArrayList<>();
+            for (PendingOffer offer : chunk) {
+                List<OfferItemRequest> requests = offer.source().getItems();
+                for (int i = 0; i < requests.size(); i++) {
+                    items.add(new ItemRow(offer.id(), requests.get(i), offer.lines().get(i)));
+                }
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_ITEM, items, chunkSize, (ps, row) -> {
+                OfferItemRequest item = row.item();
+                ps.setString(1, UUID.randomUUID().toString());
+                ps.setString(2, row.offerId());
+                ps.setString(3, item.getProductId());
+                ps.setString(4, item.getProductName());
+                ps.setString(5, item.getDescription());
+                ps.setInt(6, item.getQuantity());
+                ps.setString(7, item.getUnit());
+                ps.setBigDecimal(8, item.getUnitPrice());
+                ps.setInt(9, item.getVatRate());
+                ps.setBigDecimal(10, item.getDiscountRate() != null ? item.getDiscountRate() : BigDecimal.ZERO);
+                ps.setBigDecimal(11, row.line().subtotal());
+                ps.setBigDecimal(12, row.line().vatAmount());
+                ps.setBigDecimal(13, row.line().total());
+                ps.setObject(14, timestamp);
+                ps.setObject(15, timestamp);
+                ps.setBoolean(16, false);
+            });
+
+            TenantOfferStatsService.Changes stats = new TenantOfferStatsService.Changes();
+            chunk.forEach(offer -> stats.add(tenantId, statusOf(offer.source()), offer.source().getCurrency(),
+                    offer.totals().total()));
+            offerStatsService.apply(stats);
+            return items.size();
+        }
+
+        private void fail(long row, String offerNo, String message) {
+            failedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new OfferImportResponse.RowError(row, offerNo, message));
+            }
+        }
+
+        private OfferImportResponse toResponse() {
+            return OfferImportResponse.builder()
+                    .totalRows(totalRows)
+                    .importedOffers(importedOffers)
+                    .importedItems(importedItems)
+                    .failedRows(failedRows)
+                    .errors(errors)
+                    .errorsTruncated(failedRows > errors.size())
+                    .build();
+        }
+    }
+
+    private static OfferStatus statusOf(OfferImportRow source) {
+        return source.getStatus() != null ? source.getStatus() : OfferStatus.DRAFT;
+    }
+
+    private record ItemRow(String offerId, OfferItemRequest item, PricingEngine.Line line) {
+    }
+
+    private static void setInstant(PreparedStatement ps, int index, Instant value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setObject(index, LocalDateTime.ofInstant(value, ZoneOffset.UTC));
+        }
+    }
+}
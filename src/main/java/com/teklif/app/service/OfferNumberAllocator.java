@@ -0,0 +1,144 @@
+package com.teklif.app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teklif.app.entity.OfferNumberSequence;
+import com.teklif.app.repository.OfferNumberSequenceRepository;
+import com.teklif.app.repository.OfferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Issues offer numbers ({@code PREFIX-yyyyMMdd-0001}) with hi/lo block allocation.
+ * Each node reserves a block of {@code blockSize} numbers per prefix and day by
+ * advancing its {@link OfferNumberSequence} row with a single UPDATE, then hands
+ * numbers out from memory until the block runs out.
+ * <p>
+ * Numbers are unique across nodes because blocks never overlap. Numbers left in a
+ * block when a node stops are skipped, so the sequence may have gaps.
+ */
+@Slf4j
+@Service
+public class OfferNumberAllocator {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final BlockReserver reserver;
+    private final int blockSize;
+
+    // Gün değişince eski anahtarlar kendiliğinden düşer
+    private final Cache<String, Block> blocks = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofDays(2))
+            .build();
+
+    @Autowired
+    public OfferNumberAllocator(OfferNumberSequenceRepository sequenceRepository,
+                                OfferRepository offerRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${offer.number.block-size:20}") int blockSize) {
+        this(new DatabaseBlockReserver(sequenceRepository, offerRepository, transactionManager), blockSize);
+    }
+
+    OfferNumberAllocator(BlockReserver reserver, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.reserver = reserver;
+        this.blockSize = blockSize;
+    }
+
+    public String next(String prefix, LocalDate day) {
+        String key = prefix + "-" + day.format(DAY_FORMAT);
+        long value = blocks.get(key, k -> new Block()).next(key);
+        return key + "-" + String.format("%04d", value);
+    }
+
+    /**
+     * Reserves {@code size} consecutive numbers for the key and returns the first one.
+     */
+    @FunctionalInterface
+    interface BlockReserver {
+        long reserve(String key, int size);
+    }
+
+    private final class Block {
+
+        // ReentrantLock: rezervasyon DB'ye gider, synchronized sanal thread'i sabitlerdi
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next;
+        private long limit;
+
+        private long next(String key) {
+            lock.lock();
+            try {
+                if (next >= limit) {
+                    next = reserver.reserve(key, blockSize);
+                    limit = next + blockSize;
+                }
+                return next++;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class DatabaseBlockReserver implements BlockReserver {
+
+        private final OfferNumberSequenceRepository sequenceRepository;
+        private final OfferRepository offerRepository;
+        private final TransactionTemplate transactionTemplate;
+
+        private DatabaseBlockReserver(OfferNumberSequenceRepository sequenceRepository,
+                                      OfferRepository offerRepository,
+                                      PlatformTransactionManager transactionManager) {
+            this.sequenceRepository = sequenceRepository;
+            this.offerRepository = offerRepository;
+            // Blok, teklif transaction'ından bağımsız commit edilir; kilit kısa tutulur
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        @Override
+        public long reserve(String key, int size) {
+            try {
+                return transactionTemplate.execute(status -> reserveLocked(key, size));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the row first; it exists now, so advance it
+                log.debug("Offer number sequence {} created concurrently, retrying", key);
+                return transactionTemplate.execute(status -> reserveLocked(key, size));
+            }
+        }
+
+        private long reserveLocked(String key, int size) {
+            if (sequenceRepository.advance(key, size, Instant.now()) > 0) {
+                return sequenceRepository.findNextValue(key) - size;
+            }
+
+            long first = highestExisting(key) + 1;
+            sequenceRepository.insert(key, first + size, Instant.now());
+            return first;
+        }
+
+        // Sequence satırı yokken bu önek için verilmiş numaralar (eski sayım yöntemi) atlanır
+        private long highestExisting(String key) {
+            String prefix = key + "-";
+            return offerRepository.findMaxOfferNoByPrefix(prefix)
+                    .map(offerNo -> offerNo.substring(prefix.length()))
+                    .filter(suffix -> !suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit))
+                    .map(Long::parseLong)
+                    .orElse(0L);
+        }
+    }
+}
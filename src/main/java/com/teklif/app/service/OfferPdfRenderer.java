@@ -0,0 +1,313 @@
+package com.teklif.app.service;
+
+import com.lowagie.text.Chunk;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.Image;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.OfferItem;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.enums.CustomerType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Lays out an offer as an A4 PDF with the tenant's branding: logo, primary color and
+ * {@code Tenant.template}. Known templates are {@code default} (white header with a
+ * colored rule) and {@code modern} (filled header band); anything else renders as
+ * {@code default}.
+ * <p>
+ * Rendering is CPU-bound and only reads the given entities and the logo file, so it
+ * is safe to run on a worker thread inside a read-only transaction.
+ */
+@Slf4j
+@Component
+public class OfferPdfRenderer {
+
+    /**
+     * Part of every PDF cache key; bump it when the layout changes so stale files are
+     * not served.
+     */
+    static final int LAYOUT_REVISION = 1;
+
+    private static final Locale TR = Locale.forLanguageTag("tr-TR");
+    private static final ZoneId ZONE = ZoneId.of("Europe/Istanbul");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy").withZone(ZONE);
+    private static final Color DEFAULT_COLOR = new Color(0x1F, 0x4E, 0x79);
+    private static final String UPLOAD_URL_PREFIX = "/files/uploads/";
+
+    private final Path uploadDir;
+    private final BaseFont regular;
+    private final BaseFont bold;
+
+    public OfferPdfRenderer(@Value("${file.upload-dir:./uploads}") String uploadDir) {
+        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        try {
+            // Cp1254: standart Helvetica ile Türkçe karakterler (ş, ğ, ı, İ)
+            this.regular = BaseFont.createFont(BaseFont.HELVETICA, "Cp1254", BaseFont.NOT_EMBEDDED);
+            this.bold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, "Cp1254", BaseFont.NOT_EMBEDDED);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("PDF fonts could not be loaded", e);
+        }
+    }
+
+    /**
+     * Writes the PDF of an offer whose customer, tenant and items are loaded.
+     */
+    public void render(Offer offer, OutputStream out) {
+        Tenant tenant = offer.getTenant();
+        Color primary = parseColor(tenant.getPrimaryColor());
+        boolean modern = "modern".equalsIgnoreCase(tenant.getTemplate());
+
+        Document document = new Document(PageSize.A4, 36, 36, 36, 48);
+        try {
+            PdfWriter.getInstance(document, out);
+            document.addTitle(offer.getOfferNo());
+            document.addCreator(tenant.getName());
+            document.open();
+
+            document.add(header(offer, tenant, primary, modern));
+            document.add(customerBlock(offer.getCustomer()));
+            document.add(itemsTable(offer, primary, modern));
+            document.add(totals(offer));
+            if (offer.getNotes() != null && !offer.getNotes().isBlank()) {
+                Paragraph notes = new Paragraph();
+                notes.setSpacingBefore(16);
+                notes.add(new Chunk("Notlar\n", font(bold, 10, Color.BLACK)));
+                notes.add(new Chunk(offer.getNotes(), font(regular, 9, Color.DARK_GRAY)));
+                document.add(notes);
+            }
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Offer PDF could not be rendered: " + offer.getId(), e);
+        } finally {
+            document.close();
+        }
+    }
+
+    private PdfPTable header(Offer offer, Tenant tenant, Color primary, boolean modern) throws DocumentException {
+        Color text = modern ? Color.WHITE : Color.BLACK;
+        PdfPTable table = new PdfPTable(new float[]{3, 2});
+        table.setWidthPercentage(100);
+        table.setSpacingAfter(16);
+
+        PdfPCell company = cell(modern ? primary : null);
+        Image logo = loadLogo(tenant.getLogo());
+        if (logo != null) {
+            logo.scaleToFit(140, 48);
+            company.addElement(logo);
+        }
+        company.addElement(new Paragraph(tenant.getName(), font(bold, 13, text)));
+        company.addElement(new Paragraph(joinLines(tenant.getAddress(), tenant.getPhone(), tenant.getEmail(),
+                tenant.getTaxOffice() != null ? tenant.getTaxOffice() + " V.D. " + tenant.getTaxNumber()
+                        : "VKN " + tenant.getTaxNumber()), font(regular, 8, text)));
+        table.addCell(company);
+
+        PdfPCell title = cell(modern ? primary : null);
+        Paragraph heading = new Paragraph("TEKLİF", font(bold, 18, modern ? Color.WHITE : primary));
+        heading.setAlignment(Element.ALIGN_RIGHT);
+        title.addElement(heading);
+        Paragraph meta = new Paragraph(joinLines(
+                "No: " + offer.getOfferNo(),
+                "Tarih: " + formatDate(offer.getSentAt() != null ? offer.getSentAt() : offer.getCreatedAt()),
+                offer.getValidUntil() != null ? "Geçerlilik: " + formatDate(offer.getValidUntil()) : null),
+                font(regular, 9, text));
+        meta.setAlignment(Element.ALIGN_RIGHT);
+        title.addElement(meta);
+        table.addCell(title);
+
+        if (!modern) {
+            PdfPCell rule = new PdfPCell();
+            rule.setColspan(2);
+            rule.setBorder(Rectangle.BOTTOM);
+            rule.setBorderWidthBottom(2);
+            rule.setBorderColorBottom(primary);
+            rule.setFixedHeight(4);
+            table.addCell(rule);
+        }
+        return table;
+    }
+
+    private PdfPTable customerBlock(Customer customer) {
+        PdfPTable table = new PdfPTable(1);
+        table.setWidthPercentage(100);
+        table.setSpacingAfter(12);
+
+        PdfPCell cell = cell(null);
+        cell.addElement(new Paragraph("Sayın", font(regular, 8, Color.GRAY)));
+        String name = customer.getType() == CustomerType.COMPANY
+                ? customer.getCompanyName()
+                : customer.getFirstName() + " " + customer.getLastName();
+        cell.addElement(new Paragraph(name, font(bold, 11, Color.BLACK)));
+        cell.addElement(new Paragraph(joinLines(
+                customer.getType() == CustomerType.COMPANY ? customer.getContactPerson() : null,
+                customer.getAddress(), customer.getPhone(), customer.getEmail()), font(regular, 8, Color.DARK_GRAY)));
+        table.addCell(cell);
+        return table;
+    }
+
+    private PdfPTable itemsTable(Offer offer, Color primary, boolean modern) throws DocumentException {
+        PdfPTable table = new PdfPTable(new float[]{5, 1.2f, 1.2f, 2, 1.2f, 1, 2.2f});
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+
+        Color headerText = modern ? Color.WHITE : primary;
+        for (String title : new String[]{"Ürün / Hizmet", "Miktar", "Birim", "Birim Fiyat", "İsk. %", "KDV %", "Tutar"}) {
+            PdfPCell cell = new PdfPCell(new Phrase(title, font(bold, 8, headerText)));
+            cell.setBorder(Rectangle.BOTTOM);
+            cell.setBorderColorBottom(primary);
+            cell.setPadding(4);
+            if (modern) {
+                cell.setBackgroundColor(primary);
+            }
+            table.addCell(cell);
+        }
+
+        NumberFormat money = moneyFormat();
+        Font body = font(regular, 8, Color.BLACK);
+        for (OfferItem item : offer.getItems()) {
+            Phrase product = new Phrase(item.getProductName(), body);
+            if (item.getDescription() != null && !item.getDescription().isBlank()) {
+                product.add(new Chunk("\n" + item.getDescription(), font(regular, 7, Color.GRAY)));
+            }
+            table.addCell(bodyCell(product, Element.ALIGN_LEFT));
+            table.addCell(bodyCell(new Phrase(String.valueOf(item.getQuantity()), body), Element.ALIGN_RIGHT));
+            table.addCell(bodyCell(new Phrase(item.getUnit(), body), Element.ALIGN_LEFT));
+            table.addCell(bodyCell(new Phrase(money.format(item.getUnitPrice()), body), Element.ALIGN_RIGHT));
+            table.addCell(bodyCell(new Phrase(percent(item.getDiscountRate()), body), Element.ALIGN_RIGHT));
+            table.addCell(bodyCell(new Phrase(String.valueOf(item.getVatRate()), body), Element.ALIGN_RIGHT));
+            table.addCell(bodyCell(new Phrase(money.format(item.getSubtotal()), body), Element.ALIGN_RIGHT));
+        }
+        return table;
+    }
+
+    private PdfPTable totals(Offer offer) throws DocumentException {
+        PdfPTable table = new PdfPTable(new float[]{2, 1.5f});
+        table.setWidthPercentage(40);
+        table.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.setSpacingBefore(8);
+
+        NumberFormat money = moneyFormat();
+        String currency = " " + offer.getCurrency();
+        totalRow(table, "Ara Toplam", money.format(offer.getSubtotal()) + currency, false);
+        totalRow(table, "KDV", money.format(offer.getVatTotal()) + currency, false);
+        totalRow(table, "Genel Toplam", money.format(offer.getTotal()) + currency, true);
+        return table;
+    }
+
+    private void totalRow(PdfPTable table, String label, String value, boolean emphasized) {
+        Font font = font(emphasized ? bold : regular, emphasized ? 10 : 9, Color.BLACK);
+        PdfPCell labelCell = bodyCell(new Phrase(label, font), Element.ALIGN_LEFT);
+        PdfPCell valueCell = bodyCell(new Phrase(value, font), Element.ALIGN_RIGHT);
+        if (emphasized) {
+            labelCell.setBorder(Rectangle.TOP);
+            valueCell.setBorder(Rectangle.TOP);
+        }
+        table.addCell(labelCell);
+        table.addCell(valueCell);
+    }
+
+    // Logo, upload dizinindeki göreli yol ya da /files/uploads/ URL'i olarak saklanıyor; uzak URL'ler atlanır
+    private Image loadLogo(String logo) {
+        if (logo == null || logo.isBlank() || logo.contains("://")) {
+            return null;
+        }
+        String relative = logo.startsWith(UPLOAD_URL_PREFIX) ? logo.substring(UPLOAD_URL_PREFIX.length()) : logo;
+        Path path = uploadDir.resolve(relative.startsWith("/") ? relative.substring(1) : relative).normalize();
+        if (!path.startsWith(uploadDir) || !Files.isReadable(path)) {
+            return null;
+        }
+        try {
+            return Image.getInstance(Files.readAllBytes(path));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Tenant logo {} could not be embedded in offer PDF: {}", logo, e.getMessage());
+            return null;
+        }
+    }
+
+    private PdfPCell cell(Color background) {
+        PdfPCell cell = new PdfPCell();
+        cell.setBorder(Rectangle.NO_BORDER);
+        cell.setPadding(background != null ? 8 : 0);
+        if (background != null) {
+            cell.setBackgroundColor(background);
+        }
+        return cell;
+    }
+
+    private static PdfPCell bodyCell(Phrase phrase, int alignment) {
+        PdfPCell cell = new PdfPCell(phrase);
+        cell.setBorder(Rectangle.BOTTOM);
+        cell.setBorderColorBottom(Color.LIGHT_GRAY);
+        cell.setHorizontalAlignment(alignment);
+        cell.setPadding(4);
+        return cell;
+    }
+
+    private static Font font(BaseFont base, float size, Color color) {
+        return new Font(base, size, Font.NORMAL, color);
+    }
+
+    private static Color parseColor(String value) {
+        if (value == null) {
+            return DEFAULT_COLOR;
+        }
+        try {
+            return Color.decode(value.startsWith("#") ? value : "#" + value);
+        } catch (NumberFormatException e) {
+            return DEFAULT_COLOR;
+        }
+    }
+
+    private static NumberFormat moneyFormat() {
+        NumberFormat format = NumberFormat.getNumberInstance(TR);
+        format.setMinimumFractionDigits(2);
+        format.setMaximumFractionDigits(2);
+        return format;
+    }
+
+    private static String percent(BigDecimal value) {
+        return value == null ? "0" : value.stripTrailingZeros().toPlainString();
+    }
+
+    private static String formatDate(Instant instant) {
+        return instant == null ? "" : DATE_FORMAT.format(instant);
+    }
+
+    private static String joinLines(String... lines) {
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            if (line != null && !line.isBlank()) {
+                if (!text.isEmpty()) {
+                    text.append('\n');
+                }
+                text.append(line);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,318 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.Offer;
+import com.teklif.app.exception.CustomException;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.util.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Offer PDFs, rendered by {@link OfferPdfRenderer} on a bounded worker pool and kept
+ * on disk under {@code offer.pdf.dir}. Files are named after a hash of the offer
+ * version and the tenant's template and branding, so a cached file is never stale
+ * and a download of an unchanged offer is a file transfer without touching the
+ * offer graph.
+ * <p>
+ * Request threads only wait for a render, up to {@code offer.pdf.timeout-ms}; a full
+ * queue or a slow render is answered with 503. Sending an offer queues its render
+ * after commit so the first download is usually a cache hit.
+ */
+@Slf4j
+@Service
+public class OfferPdfService {
+
+    private final OfferRepository offerRepository;
+    private final OfferPdfRenderer renderer;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path directory;
+    private final long timeoutMillis;
+    private final Duration retention;
+
+    private final ThreadPoolExecutor renderPool;
+    // Aynı teklif için eşzamanlı istekler tek render'ı bekler
+    private final Map<String, FutureTask<Pdf>> inFlight = new ConcurrentHashMap<>();
+
+    private final Timer renderTimer;
+    private final Counter hits;
+    private final Counter misses;
+
+    public OfferPdfService(OfferRepository offerRepository,
+                           OfferPdfRenderer renderer,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${offer.pdf.dir:./pdf-cache}") String directory,
+                           @Value("${offer.pdf.threads:2}") int threads,
+                           @Value("${offer.pdf.queue-capacity:100}") int queueCapacity,
+                           @Value("${offer.pdf.timeout-ms:10000}") long timeoutMillis,
+                           @Value("${offer.pdf.retention-days:30}") long retentionDays) {
+        this.offerRepository = offerRepository;
+        this.renderer = renderer;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.timeoutMillis = timeoutMillis;
+        this.retention = Duration.ofDays(retentionDays);
+
+        // Render CPU-bound: sanal thread yerine sınırlı platform thread havuzu
+        this.renderPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("offer-pdf-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.renderTimer = Timer.builder("offer.pdf.render")
+                .description("Time spent rendering and storing offer PDFs")
+                .register(meterRegistry);
+        this.hits = Counter.builder("offer.pdf.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("offer.pdf.requests").tag("result", "miss").register(meterRegistry);
+        meterRegistry.gauge("offer.pdf.queue.depth", renderPool, pool -> pool.getQueue().size());
+        meterRegistry.gauge("offer.pdf.active", renderPool, ThreadPoolExecutor::getActiveCount);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    public Pdf getPdf(String id) {
+        String tenantId = TenantContext.getTenantId();
+        OfferRepository.PdfRef ref = offerRepository.findPdfRefByIdAndTenantId(id, tenantId)
+                .orElseThrow(() -> CustomException.notFound("Offer not found"));
+        return fetch(ref);
+    }
+
+    /**
+     * PDF of a public link; links with a password require it and one-time links
+     * are closed once the offer has been viewed, as for the public offer itself.
+     */
+    public Pdf getPublicPdf(String uuid, String password) {
+        OfferRepository.PdfRef ref = offerRepository.findPdfRefByUuid(uuid)
+                .orElseThrow(() -> CustomException.notFound("Offer not found"));
+        if (Boolean.TRUE.equals(ref.getOneTimeView()) && Boolean.TRUE.equals(ref.getHasBeenViewed())) {
+            throw CustomException.forbidden("This offer has already been viewed");
+        }
+        if (ref.getLinkPassword() != null && !ref.getLinkPassword().equals(password)) {
+            throw CustomException.forbidden("Invalid offer password");
+        }
+        return fetch(ref);
+    }
+
+    /**
+     * Queues the render of an offer once the current transaction commits. Skipped
+     * when the queue is full; the first download renders it then.
+     */
+    public void prewarm(String offerId, String tenantId) {
+        Runnable submit = () -> {
+            try {
+                submit(offerId, tenantId);
+            } catch (RejectedExecutionException e) {
+                log.debug("PDF render queue full, offer {} will be rendered on first download", offerId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    private Pdf fetch(OfferRepository.PdfRef ref) {
+        String key = key(ref.getId(), ref.getVersion(), ref.getTenantUpdatedAt(), ref.getCustomerUpdatedAt(),
+                ref.getTemplate(), ref.getPrimaryColor(), ref.getLogo());
+        Path path = pathFor(key);
+        if (Files.exists(path)) {
+            hits.increment();
+            return new Pdf(path, etag(key), ref.getOfferNo() + ".pdf");
+        }
+        misses.increment();
+
+        FutureTask<Pdf> task;
+        try {
+            task = submit(ref.getId(), ref.getTenantId());
+        } catch (RejectedExecutionException e) {
+            throw CustomException.serviceUnavailable("Too many PDFs are being generated. Please try again shortly.");
+        }
+
+        try {
+            return task.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Render iptal edilmez; bir sonraki istek diskten alır
+            throw CustomException.serviceUnavailable("The PDF is still being generated. Please try again shortly.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw CustomException.serviceUnavailable("PDF generation was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CustomException custom) {
+                throw custom;
+            }
+            throw new IllegalStateException("Offer PDF could not be generated: " + ref.getId(), e.getCause());
+        }
+    }
+
+    private FutureTask<Pdf> submit(String offerId, String tenantId) {
+        FutureTask<Pdf> task = new FutureTask<>(() -> renderTimer.recordCallable(() -> render(offerId, tenantId)));
+        FutureTask<Pdf> existing = inFlight.putIfAbsent(offerId, task);
+        if (existing != null) {
+            // Bitmiş ama henüz silinmemiş render eski halin sonucunu taşıyabilir; ona bağlanılmaz
+            if (!existing.isDone()) {
+                return existing;
+            }
+            inFlight.remove(offerId, existing);
+            return submit(offerId, tenantId);
+        }
+        try {
+            renderPool.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.remove(offerId, task);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(offerId, task);
+            throw e;
+        }
+        return task;
+    }
+
+    // Worker'da çalışır: teklif o anki haliyle yüklenir, anahtar da bu halden hesaplanır
+    private Pdf render(String offerId, String tenantId) {
+        Offer offer = readOnlyTransaction.execute(status -> offerRepository.findDetailByIdAndTenantId(offerId, tenantId)
+                .orElseThrow(() -> CustomException.notFound("Offer not found")));
+
+        String key = key(offer.getId(), offer.getVersion(), offer.getTenant().getUpdatedAt(),
+                offer.getCustomer().getUpdatedAt(), offer.getTenant().getTemplate(),
+                offer.getTenant().getPrimaryColor(), offer.getTenant().getLogo());
+        Path path = pathFor(key);
+        if (!Files.exists(path)) {
+            write(offer, path);
+        }
+        return new Pdf(path, etag(key), offer.getOfferNo() + ".pdf");
+    }
+
+    private void write(Offer offer, Path path) {
+        Path temp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                renderer.render(offer, out);
+            }
+            // Yarım dosya hiçbir zaman okunmaz: rename atomik
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Offer PDF could not be stored: " + path, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.debug("Temporary PDF {} could not be deleted", temp, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes PDFs older than {@code offer.pdf.retention-days}. Files of older offer
+     * versions are never served again; current ones are re-rendered on demand.
+     */
+    @Scheduled(fixedDelayString = "${offer.pdf.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(retention);
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException e) {
+                    log.debug("Cached PDF {} could not be purged", file, e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Offer PDF cache cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private Path pathFor(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".pdf");
+    }
+
+    private static String etag(String key) {
+        return "\"" + key + "\"";
+    }
+
+    private static String key(String offerId, long version, Instant tenantUpdatedAt, Instant customerUpdatedAt,
+                              String template, String primaryColor, String logo) {
+        String source = String.join("|", String.valueOf(OfferPdfRenderer.LAYOUT_REVISION), offerId,
+                String.valueOf(version), String.valueOf(tenantUpdatedAt), String.valueOf(customerUpdatedAt),
+                String.valueOf(template), String.valueOf(primaryColor), String.valueOf(logo));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A rendered PDF on disk, its strong ETag and the download file name.
+     */
+    public record Pdf(Path path, String etag, String fileName) {
+    }
+}
@@ -3,11 +3,16 @@ package com.teklif.app.service;
 import com.teklif.app.controller.OfferController;
 import com.teklif.app.dto.request.CreateOfferRequest;
 import com.teklif.app.dto.request.OfferItemRequest;
+import com.teklif.app.dto.request.OfferItemsPatchRequest;
 import com.teklif.app.dto.response.OfferResponse;
+import com.teklif.app.dto.response.OfferSummaryResponse;
 import com.teklif.app.dto.response.PagedResponse;
 import com.teklif.app.dto.response.PaginationResponse;
+import com.teklif.app.entity.Customer;
 import com.teklif.app.entity.Offer;
 import com.teklif.app.entity.OfferItem;
+import com.teklif.app.entity.OfferSnapshot;
+import com.teklif.app.entity.ProductFile;
 import com.teklif.app.entity.User;
 import com.teklif.app.enums.LogType;
 import com.teklif.app.enums.NotificationType;
@@ -16,10 +21,14 @@ import com.teklif.app.exception.CustomException;
 import com.teklif.app.mapper.OfferMapper;
 import com.teklif.app.repository.CustomerRepository;
 import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.ProductFileRepository;
 import com.teklif.app.security.CustomUserDetails;
 import com.teklif.app.util.Func;
+import com.teklif.app.util.KeysetCursor;
+import com.teklif.app.util.PricingEngine;
 import com.teklif.app.util.TenantContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -30,59 +39,109 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OfferService {
 
+    // Kabul/red yalnızca bu durumlardaki tekliflere uygulanır
+    private static final Set<OfferStatus> OPEN_STATUSES =
+            EnumSet.of(OfferStatus.DRAFT, OfferStatus.SENT, OfferStatus.VIEWED);
+
     private final OfferRepository offerRepository;
     private final CustomerRepository customerRepository;
+    private final ProductFileRepository productFileRepository;
     private final OfferMapper offerMapper;
     private final NotificationService notificationService;
     private final ActivityLogService activityLogService;
-
-    public PagedResponse<OfferResponse> getAllOffers(
+    private final OfferNumberAllocator offerNumberAllocator;
+    private final SearchIndexService searchIndexService;
+    private final PublicOfferCache publicOfferCache;
+    private final OfferSnapshotService offerSnapshotService;
+    private final OfferPdfService offerPdfService;
+    private final EmailOutboxService emailOutboxService;
+    private final ExchangeRateService exchangeRateService;
+    private final TenantOfferStatsService offerStatsService;
+
+    public PagedResponse<OfferSummaryResponse> getAllOffers(
             String search,
             OfferStatus status,
             String customerId,
             Instant startDate,
             Instant endDate,
             int page,
-            int limit
+            int limit,
+            String cursor
     ) {
         String tenantId = TenantContext.getTenantId();
+        Set<String> matchedIds = searchIndexService.findOfferIds(tenantId, search);
+
+        if (cursor != null) {
+            if (limit < 1) {
+                throw CustomException.badRequest("Limit must be at least 1");
+            }
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            List<OfferSummaryResponse> offers = offerRepository.findSummariesWithFiltersAfter(
+                    tenantId, matchedIds, search, status, customerId, startDate, endDate,
+                    KeysetCursor.timestampOf(after), KeysetCursor.idOf(after), Limit.of(limit + 1)
+            );
+            return KeysetCursor.page(offers, limit,
+                    offer -> new KeysetCursor(offer.getCreatedAt(), offer.getId()), Function.identity());
+        }
+
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by("createdAt").descending());
 
-        Page<Offer> offerPage = offerRepository.findAllWithFilters(
-                tenantId, search, status, customerId, startDate, endDate, pageable
+        Page<OfferSummaryResponse> offerPage = offerRepository.findSummariesWithFilters(
+                tenantId, matchedIds, search, status, customerId, startDate, endDate, pageable
         );
 
-        List<OfferResponse> items = offerPage.getContent().stream()
-                .map(offerMapper::toResponse)
-                .toList();
-
         PaginationResponse pagination = PaginationResponse.of(
                 offerPage.getTotalElements(), page, limit
         );
 
-        return PagedResponse.<OfferResponse>builder()
-                .items(items)
+        return PagedResponse.<OfferSummaryResponse>builder()
+                .items(offerPage.getContent())
                 .pagination(pagination)
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public OfferResponse getOfferById(String id) {
         String tenantId = TenantContext.getTenantId();
-        Offer offer = offerRepository.findByIdAndTenantIdAndIsDeletedFalse(id, tenantId)
+        Offer offer = offerRepository.findDetailByIdAndTenantId(id, tenantId)
                 .orElseThrow(() -> CustomException.notFound("Offer not found"));
 
-        return offerMapper.toResponse(offer);
+        return toDetailResponse(offer);
+    }
+
+    /**
+     * Maps an offer loaded with {@code findDetail*}: items and products are already
+     * fetched, the non-deleted files of all products come in one extra query. Two
+     * statements in total regardless of the number of items.
+     */
+    private OfferResponse toDetailResponse(Offer offer) {
+        Set<String> productIds = offer.getItems().stream()
+                .map(OfferItem::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, List<ProductFile>> filesByProductId = productIds.isEmpty() ? Map.of()
+                : productFileRepository.findActiveByProductIds(productIds).stream()
+                        .collect(Collectors.groupingBy(ProductFile::getProductId));
+        OfferResponse response = offerMapper.toDetailResponse(offer, filesByProductId);
+        exchangeRateService.applyTlEquivalent(response);
+        return response;
     }
 
     @Transactional
@@ -112,23 +171,24 @@ public class OfferService {
         }
 
         // Calculate totals
-        BigDecimal subtotal = BigDecimal.ZERO;
-        BigDecimal vatTotal = BigDecimal.ZERO;
+        PricingEngine.Totals totals = new PricingEngine.Totals();
 
         for (OfferItemRequest itemReq : request.getItems()) {
-            OfferItem item = createOfferItem(itemReq);
+            PricingEngine.Line line = calculateLine(itemReq);
+            OfferItem item = createOfferItem(itemReq, line);
             item.setOffer(offer);
             offer.getItems().add(item);
 
-            subtotal = subtotal.add(item.getSubtotal());
-            vatTotal = vatTotal.add(item.getVatAmount());
+            totals.add(line);
         }
 
-        offer.setSubtotal(subtotal);
-        offer.setVatTotal(vatTotal);
-        offer.setTotal(subtotal.add(vatTotal));
+        offer.setSubtotal(totals.subtotal());
+        offer.setVatTotal(totals.vatTotal());
+        offer.setTotal(totals.total());
 
         offer = offerRepository.save(offer);
+        searchIndexService.indexOffer(offer);
+        offerStatsService.apply(new TenantOfferStatsService.Changes().add(offer));
 
         // Create notification
         createNotification(offer.getId(), tenantId, NotificationType.OFFER_CREATED,
@@ -144,47 +204,144 @@ public class OfferService {
         return offerMapper.toResponse(offer);
     }
 
-    private OfferItem createOfferItem(OfferItemRequest request) {
-        BigDecimal quantity = BigDecimal.valueOf(request.getQuantity());
-        BigDecimal unitPrice = request.getUnitPrice();
-        BigDecimal discountRate = request.getDiscountRate();
+    @Transactional
+    public OfferResponse patchOfferItems(String id, OfferItemsPatchRequest request) {
+        String tenantId = TenantContext.getTenantId();
+        Offer offer = offerRepository.findByIdAndTenantIdAndIsDeletedFalse(id, tenantId)
+                .orElseThrow(() -> CustomException.notFound("Offer not found"));
 
-        // Calculate subtotal
-        BigDecimal subtotal = unitPrice.multiply(quantity);
+        TenantOfferStatsService.Changes stats = new TenantOfferStatsService.Changes().remove(offer);
+        Map<String, OfferItem> itemsById = offer.getItems().stream()
+                .collect(Collectors.toMap(OfferItem::getId, Function.identity()));
+        boolean itemsChanged = false;
+
+        if (request.getRemove() != null) {
+            for (String itemId : request.getRemove()) {
+                OfferItem item = itemsById.remove(itemId);
+                if (item == null) {
+                    throw CustomException.notFound("Offer item not found: " + itemId);
+                }
+                offer.getItems().remove(item);
+                itemsChanged = true;
+            }
+        }
 
-        // Apply discount
-        if (discountRate.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal discount = subtotal.multiply(discountRate).divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
-            subtotal = subtotal.subtract(discount);
+        if (request.getUpsert() != null) {
+            for (OfferItemRequest itemReq : request.getUpsert()) {
+                if (itemReq.getId() == null) {
+                    offer.getItems().add(newOfferItem(offer, itemReq));
+                    itemsChanged = true;
+                    continue;
+                }
+                OfferItem item = itemsById.get(itemReq.getId());
+                if (item == null) {
+                    throw CustomException.notFound("Offer item not found: " + itemReq.getId());
+                }
+                itemsChanged |= applyOfferItem(item, itemReq);
+            }
         }
 
-        // Calculate VAT
-        BigDecimal vatRate = BigDecimal.valueOf(request.getVatRate());
-        BigDecimal vatAmount = subtotal.multiply(vatRate).divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+        if (offer.getItems().isEmpty()) {
+            throw CustomException.badRequest("At least one item is required");
+        }
 
-        // Calculate total
-        BigDecimal total = subtotal.add(vatAmount);
+        recalculateTotals(offer);
+        if (itemsChanged) {
+            touch(offer);
+        }
+        offer = offerRepository.save(offer);
+        offerStatsService.apply(stats.add(offer));
+        refreshSnapshot(offer);
+        publicOfferCache.evictOffer(offer.getUuid());
 
+        notificationService.createNotificationForOffer(offer.getId(), offer.getTenantId(), NotificationType.OFFER_UPDATED,
+                "Teklif Güncellendi",
+                offer.getOfferNo() + " numaralı teklifin kalemleri güncellendi. Yeni toplam: " + offer.getTotal() + " " + offer.getCurrency());
+
+        activityLogService.createLog(LogType.OFFER_UPDATED, offer.getId(),
+                "Teklif Güncellendi",
+                offer.getOfferNo() + " numaralı teklifin kalemleri güncellendi. Yeni toplam: " + offer.getTotal() + " " + offer.getCurrency(),
+                null);
+
+        return offerMapper.toResponse(offer);
+    }
+
+    private OfferItem newOfferItem(Offer offer, OfferItemRequest request) {
+        OfferItem item = createOfferItem(request, calculateLine(request));
+        item.setOffer(offer);
+        return item;
+    }
+
+    // Aynı değerler atanırsa Hibernate dirty checking UPDATE üretmez; kalem değiştiyse true döner
+    private boolean applyOfferItem(OfferItem item, OfferItemRequest request) {
+        PricingEngine.Line line = calculateLine(request);
+        BigDecimal discountRate = request.getDiscountRate() != null ? request.getDiscountRate() : BigDecimal.ZERO;
+        boolean changed = !Objects.equals(item.getProductId(), request.getProductId())
+                || !Objects.equals(item.getProductName(), request.getProductName())
+                || !Objects.equals(item.getDescription(), request.getDescription())
+                || !Objects.equals(item.getQuantity(), request.getQuantity())
+                || !Objects.equals(item.getUnit(), request.getUnit())
+                || !sameAmount(item.getUnitPrice(), request.getUnitPrice())
+                || !Objects.equals(item.getVatRate(), request.getVatRate())
+                || !sameAmount(item.getDiscountRate(), discountRate);
+        item.setProductId(request.getProductId());
+        item.setProductName(request.getProductName());
+        item.setDescription(request.getDescription());
+        item.setQuantity(request.getQuantity());
+        item.setUnit(request.getUnit());
+        item.setUnitPrice(request.getUnitPrice());
+        item.setVatRate(request.getVatRate());
+        item.setDiscountRate(discountRate);
+        item.setSubtotal(line.subtotal());
+        item.setVatAmount(line.vatAmount());
+        item.setTotal(line.total());
+        return changed;
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    // Yalnız kalemler değiştiğinde Offer satırı kirlenmez ve version artmaz; PDF cache
+    // anahtarı version'a bağlı olduğundan satır yine güncellenir
+    private void touch(Offer offer) {
+        offer.setUpdatedAt(Instant.now());
+    }
+
+    private void recalculateTotals(Offer offer) {
+        PricingEngine.Totals totals = new PricingEngine.Totals();
+        for (OfferItem item : offer.getItems()) {
+            totals.add(PricingEngine.line(item.getUnitPrice(), item.getQuantity(), item.getDiscountRate(), item.getVatRate()));
+        }
+        offer.setSubtotal(totals.subtotal());
+        offer.setVatTotal(totals.vatTotal());
+        offer.setTotal(totals.total());
+    }
+
+    private PricingEngine.Line calculateLine(OfferItemRequest request) {
+        return PricingEngine.line(request.getUnitPrice(), request.getQuantity(),
+                request.getDiscountRate(), request.getVatRate());
+    }
+
+    private OfferItem createOfferItem(OfferItemRequest request, PricingEngine.Line line) {
         return OfferItem.builder()
                 .productId(request.getProductId())
                 .productName(request.getProductName())
                 .description(request.getDescription())
                 .quantity(request.getQuantity())
                 .unit(request.getUnit())
-                .unitPrice(unitPrice)
+                .unitPrice(request.getUnitPrice())
                 .vatRate(request.getVatRate())
-                .discountRate(discountRate)
-                .subtotal(subtotal)
-                .vatAmount(vatAmount)
-                .total(total)
+                .discountRate(request.getDiscountRate() != null ? request.getDiscountRate() : BigDecimal.ZERO)
+                .subtotal(line.subtotal())
+                .vatAmount(line.vatAmount())
+                .total(line.total())
                 .build();
     }
 
-    private String generateOfferNo() {
+    String generateOfferNo() {
         String pref =generateOfferNoPrefix( (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal());
-        String prefix = pref+"-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
-        long count = offerRepository.countByOfferNoPrefix(prefix);
-        return prefix + String.format("%04d", count + 1);
+        return offerNumberAllocator.next(pref, LocalDate.now());
     }
 
     private String generateOfferNoPrefix(CustomUserDetails cud) {
@@ -226,11 +383,14 @@ public class OfferService {
                 .orElseThrow(() -> CustomException.notFound("Offer not found"));
 
         // Validate customer
-        customerRepository.findByIdAndTenantIdAndIsDeletedFalse(request.getCustomerId(), tenantId)
+        Customer customer = customerRepository.findByIdAndTenantIdAndIsDeletedFalse(request.getCustomerId(), tenantId)
                 .orElseThrow(() -> CustomException.notFound("Customer not found"));
 
+        TenantOfferStatsService.Changes stats = new TenantOfferStatsService.Changes().remove(offer);
+
         // Update basic fields
         offer.setCustomerId(request.getCustomerId());
+        offer.setCustomer(customer);
         offer.setCurrency(request.getCurrency());
         offer.setValidUntil(request.getValidUntil());
         offer.setNotes(request.getNotes());
@@ -243,27 +403,35 @@ public class OfferService {
             offer.setOneTimeView(request.getLinkSettings().getOneTimeView());
         }
 
-        // Handle items - replace all items
-        offer.getItems().clear();
-
-        BigDecimal subtotal = BigDecimal.ZERO;
-        BigDecimal vatTotal = BigDecimal.ZERO;
+        // Handle items - match by id so unchanged lines produce no SQL
+        Map<String, OfferItem> existingItems = offer.getItems().stream()
+                .collect(Collectors.toMap(OfferItem::getId, Function.identity()));
+        List<OfferItem> addedItems = new ArrayList<>();
+        boolean itemsChanged = false;
 
         for (OfferItemRequest itemReq : request.getItems()) {
-            OfferItem item = createOfferItem(itemReq);
-            item.setOffer(offer);
-            offer.getItems().add(item);
-
-            subtotal = subtotal.add(item.getSubtotal());
-            vatTotal = vatTotal.add(item.getVatAmount());
+            OfferItem existing = itemReq.getId() != null ? existingItems.remove(itemReq.getId()) : null;
+            if (existing != null) {
+                itemsChanged |= applyOfferItem(existing, itemReq);
+            } else {
+                addedItems.add(newOfferItem(offer, itemReq));
+            }
         }
 
-        offer.setSubtotal(subtotal);
-        offer.setVatTotal(vatTotal);
-        offer.setTotal(subtotal.add(vatTotal));
+        // Lines missing from the request are deleted by orphanRemoval
+        offer.getItems().removeAll(existingItems.values());
+        offer.getItems().addAll(addedItems);
 
-        offer = offerRepository.save(offer);
+        recalculateTotals(offer);
+        if (itemsChanged || !addedItems.isEmpty() || !existingItems.isEmpty()) {
+            touch(offer);
+        }
 
+        offer = offerRepository.save(offer);
+        offerStatsService.apply(stats.add(offer));
+        searchIndexService.indexOffer(offer);
+        refreshSnapshot(offer);
+        publicOfferCache.evictOffer(offer.getUuid());
 
         notificationService.createNotificationForOffer(offer.getId(), offer.getTenantId(), NotificationType.OFFER_UPDATED,"Teklif Güncellendi", offer.getOfferNo() + " numaralı teklif güncellendi. Yeni toplam: " + offer.getTotal() + " " + offer.getCurrency());
 
@@ -286,10 +454,24 @@ public class OfferService {
             throw CustomException.badRequest("Only draft offers can be sent");
         }
 
+        // Kur gönderim anında sabitlenir; snapshot ve PDF bu kuru kullanır
+        Optional<BigDecimal> rate = exchangeRateService.rateToTry(offer.getCurrency());
+        if (rate.isPresent()) {
+            offer.setExchangeRate(rate.get());
+        } else if (Boolean.TRUE.equals(offer.getShowTlEquivalent())
+                || Boolean.TRUE.equals(offer.getShowExchangeRateInfo())) {
+            throw CustomException.serviceUnavailable("Exchange rate for " + offer.getCurrency() + " is not available");
+        }
+
         offer.setStatus(OfferStatus.SENT);
         offer.setSentAt(Instant.now());
 
         offer = offerRepository.save(offer);
+        offerStatsService.apply(new TenantOfferStatsService.Changes()
+                .move(tenantId, offer.getCurrency(), offer.getTotal(), OfferStatus.DRAFT, OfferStatus.SENT));
+        refreshSnapshot(offer);
+        publicOfferCache.evictOffer(offer.getUuid());
+        offerPdfService.prewarm(offer.getId(), tenantId);
 
         // Create notification
         createNotification(offer.getId(), tenantId, NotificationType.OFFER_SENT,
@@ -302,7 +484,7 @@ public class OfferService {
                 offer.getOfferNo() + " numaralı teklif müşteriye gönderildi.",
                 null);
 
-        // TODO: Send email notification
+        emailOutboxService.enqueueOfferSent(offer);
 
         return offerMapper.toResponse(offer);
     }
@@ -347,6 +529,8 @@ public class OfferService {
         }
 
         duplicate = offerRepository.save(duplicate);
+        searchIndexService.indexOffer(duplicate);
+        offerStatsService.apply(new TenantOfferStatsService.Changes().add(duplicate));
 
         // Create log
         activityLogService.createLog(LogType.OFFER_DUPLICATED, duplicate.getId(),
@@ -366,6 +550,10 @@ public class OfferService {
         String offerNo = offer.getOfferNo();
         offer.setIsDeleted(true);
         offerRepository.save(offer);
+        offerStatsService.apply(new TenantOfferStatsService.Changes().remove(offer));
+        searchIndexService.indexOffer(offer);
+        offerSnapshotService.delete(offer.getId());
+        publicOfferCache.evictOffer(offer.getUuid());
 
         // Create log
         activityLogService.createLog(LogType.OFFER_DELETED, id,
@@ -376,46 +564,92 @@ public class OfferService {
 
     // Public methods (no auth required)
 
-    public OfferResponse getPublicOffer(String uuid) {
-        Offer offer = offerRepository.findByUuidAndIsDeletedFalse(uuid)
-                .orElseThrow(() -> CustomException.notFound("Offer not found"));
+    /**
+     * Serialized public payload, served from {@link PublicOfferCache}; a cache miss
+     * reads the offer's snapshot, only drafts are rendered from entities.
+     */
+    public OfferSnapshotService.Rendered getPublicOffer(String uuid) {
+        PublicOfferCache.Entry entry = publicOfferCache.get(uuid, this::loadPublicOffer);
 
         // Check if one-time view and already viewed
-        if (offer.getOneTimeView() && offer.getHasBeenViewed()) {
+        if (entry.consumed()) {
             throw CustomException.forbidden("This offer has already been viewed");
         }
 
-        OfferResponse response = new OfferResponse();
-        if(offer.getLinkPassword() != null) {
-            response.setPasswordRequired(true);
-        }else{
-            response = offerMapper.toResponse(offer);
+        return entry.passwordRequired() ? offerSnapshotService.passwordPrompt() : entry.content();
+    }
+
+    public OfferSnapshotService.Rendered getOffer(String uuid){
+        return publicOfferCache.get(uuid, this::loadPublicOffer).content();
+    }
+
+    private PublicOfferCache.Entry loadPublicOffer(String uuid) {
+        Optional<OfferSnapshot> snapshot = offerSnapshotService.find(uuid);
+        if (snapshot.isPresent()) {
+            OfferSnapshot s = snapshot.get();
+            return new PublicOfferCache.Entry(s.getTenantId(), s.getCustomerId(), Set.of(),
+                    OfferSnapshotService.Rendered.of(s), s.getPasswordRequired(), s.getConsumed());
         }
-        return response;
+
+        Offer offer = offerRepository.findDetailByUuid(uuid)
+                .orElseThrow(() -> CustomException.notFound("Offer not found"));
+        Set<String> productIds = offer.getItems().stream()
+                .map(OfferItem::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        return new PublicOfferCache.Entry(offer.getTenantId(), offer.getCustomerId(), productIds,
+                offerSnapshotService.render(toDetailResponse(offer)), offer.getLinkPassword() != null,
+                Boolean.TRUE.equals(offer.getOneTimeView()) && Boolean.TRUE.equals(offer.getHasBeenViewed()));
     }
 
-    public OfferResponse getOffer(String uuid){
-        Offer offer = offerRepository.findByUuidAndIsDeletedFalse(uuid)
+    /**
+     * Re-renders the public snapshot of a sent offer, e.g. after its product files were
+     * corrected. Edits made through this service re-render automatically.
+     */
+    @Transactional
+    public void rerenderSnapshot(String id) {
+        String tenantId = TenantContext.getTenantId();
+        Offer offer = offerRepository.findDetailByIdAndTenantId(id, tenantId)
                 .orElseThrow(() -> CustomException.notFound("Offer not found"));
-        return offerMapper.toResponse(offer);
+
+        if (offer.getStatus() == OfferStatus.DRAFT) {
+            throw CustomException.badRequest("Draft offers have no snapshot");
+        }
+
+        refreshSnapshot(offer);
+        publicOfferCache.evictOffer(offer.getUuid());
+    }
+
+    // Gönderilmiş teklifin public içeriği değiştiyse snapshot yeniden yazılır
+    private void refreshSnapshot(Offer offer) {
+        if (offer.getStatus() == OfferStatus.DRAFT) {
+            return;
+        }
+        offerRepository.flush();
+        offerSnapshotService.store(offer, toDetailResponse(offer));
     }
 
 
     @Transactional
     public boolean recordOfferView(String uuid, OfferController.ViewRequest request) {
-        Offer offer = offerRepository.findByUuidAndIsDeletedFalse(uuid)
+        OfferRepository.PublicOfferRef offer = offerRepository.findRefByUuid(uuid)
                 .orElseThrow(() -> CustomException.notFound("Offer not found"));
 
         if(offer.getLinkPassword() != null && !offer.getLinkPassword().equals(request.getPassword())){
             return false;
         }
 
-        if (!offer.getHasBeenViewed()) {
-            offer.setStatus(OfferStatus.VIEWED);
-            offer.setHasBeenViewed(true);
-            offer.setViewedAt(Instant.now());
-            offer.setViewedBy(request.getName());
-            offerRepository.save(offer);
+        // Yalnızca ilk görüntülemeyi yapan istek bildirim/log üretir. Okunan durum UPDATE'i seçer;
+        // araya başka bir geçiş girdiyse görüntüleme durum değiştirmeden kaydedilir
+        Instant now = Instant.now();
+        boolean sent = offer.getStatus() == OfferStatus.SENT
+                && offerRepository.markSentViewed(uuid, request.getName(), now) == 1;
+        if (sent || offerRepository.markViewed(uuid, request.getName(), now) == 1) {
+            Offer viewed = afterPublicTransition(uuid);
+            if (sent) {
+                offerStatsService.apply(new TenantOfferStatsService.Changes().move(viewed.getTenantId(),
+                        viewed.getCurrency(), viewed.getTotal(), OfferStatus.SENT, OfferStatus.VIEWED));
+            }
 
             // Create notification
             createNotification(offer.getId(), offer.getTenantId(), NotificationType.OFFER_VIEWED,
@@ -433,18 +667,11 @@ public class OfferService {
 
     @Transactional
     public void acceptOffer(String uuid, String acceptedBy, String note) {
-        Offer offer = offerRepository.findByUuidAndIsDeletedFalse(uuid)
-                .orElseThrow(() -> CustomException.notFound("Offer not found"));
-
-        if (offer.getStatus() == OfferStatus.ACCEPTED || offer.getStatus() == OfferStatus.REJECTED) {
-            throw CustomException.badRequest("Offer has already been " + offer.getStatus().name().toLowerCase());
-        }
-
-        offer.setStatus(OfferStatus.ACCEPTED);
-        offer.setAcceptedAt(Instant.now());
-        offer.setAcceptedBy(acceptedBy);
-
-        offerRepository.save(offer);
+        Instant now = Instant.now();
+        OfferStatus from = transition(uuid, status -> offerRepository.markAccepted(uuid, acceptedBy, now, status));
+        Offer offer = afterPublicTransition(uuid);
+        offerStatsService.apply(new TenantOfferStatsService.Changes()
+                .move(offer.getTenantId(), offer.getCurrency(), offer.getTotal(), from, OfferStatus.ACCEPTED));
 
         // Create notification
         createNotification(offer.getId(), offer.getTenantId(), NotificationType.OFFER_ACCEPTED,
@@ -460,19 +687,11 @@ public class OfferService {
 
     @Transactional
     public void rejectOffer(String uuid, String rejectedBy, String note) {
-        Offer offer = offerRepository.findByUuidAndIsDeletedFalse(uuid)
-                .orElseThrow(() -> CustomException.notFound("Offer not found"));
-
-        if (offer.getStatus() == OfferStatus.ACCEPTED || offer.getStatus() == OfferStatus.REJECTED) {
-            throw CustomException.badRequest("Offer has already been " + offer.getStatus().name().toLowerCase());
-        }
-
-        offer.setStatus(OfferStatus.REJECTED);
-        offer.setRejectedAt(Instant.now());
-        offer.setRejectedBy(rejectedBy);
-        offer.setRejectionNote(note);
-
-        offerRepository.save(offer);
+        Instant now = Instant.now();
+        OfferStatus from = transition(uuid, status -> offerRepository.markRejected(uuid, rejectedBy, note, now, status));
+        Offer offer = afterPublicTransition(uuid);
+        offerStatsService.apply(new TenantOfferStatsService.Changes()
+                .move(offer.getTenantId(), offer.getCurrency(), offer.getTotal(), from, OfferStatus.REJECTED));
 
         // Create notification
         createNotification(offer.getId(), offer.getTenantId(), NotificationType.OFFER_REJECTED,
@@ -488,6 +707,50 @@ public class OfferService {
                 null);
     }
 
+    /**
+     * Applies a public accept/reject as one UPDATE conditioned on the status read just
+     * before. Only when another transition got in between is the status read again and,
+     * if the offer is still open, the UPDATE retried once.
+     *
+     * @return the status the offer was moved from
+     */
+    private OfferStatus transition(String uuid, ToIntFunction<OfferStatus> update) {
+        OfferStatus observed = openStatus(uuid);
+        if (update.applyAsInt(observed) == 1) {
+            return observed;
+        }
+        OfferStatus current = openStatus(uuid);
+        if (update.applyAsInt(current) == 1) {
+            return current;
+        }
+        // İkinci kez de yarışı kaybetti: sonuçlandıysa 400, hâlâ açıksa tekrar denenebilir
+        openStatus(uuid);
+        throw CustomException.conflict("Offer was changed concurrently. Please try again.");
+    }
+
+    // Teklif yoksa 404, sonuçlanmışsa 400
+    private OfferStatus openStatus(String uuid) {
+        OfferStatus status = offerRepository.findRefByUuid(uuid)
+                .orElseThrow(() -> CustomException.notFound("Offer not found"))
+                .getStatus();
+        if (!OPEN_STATUSES.contains(status)) {
+            throw CustomException.badRequest("Offer has already been " + status.name().toLowerCase());
+        }
+        return status;
+    }
+
+    /**
+     * Runs after a public conditional UPDATE actually changed the offer: re-renders its
+     * snapshot from the committed-to-be state and evicts the cached payload.
+     */
+    private Offer afterPublicTransition(String uuid) {
+        Offer offer = offerRepository.findDetailByUuid(uuid)
+                .orElseThrow(() -> CustomException.notFound("Offer not found"));
+        refreshSnapshot(offer);
+        publicOfferCache.evictOffer(uuid);
+        return offer;
+    }
+
     private void createNotification(String offerId, String tenantId, NotificationType type, String title, String message) {
         notificationService.createNotificationForOffer(offerId, tenantId, type, title, message);
     }
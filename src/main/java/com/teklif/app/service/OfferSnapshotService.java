@@ -0,0 +1,133 @@
+package com.teklif.app.service;
+
+import com.teklif.app.dto.response.ApiResponse;
+import com.teklif.app.dto.response.OfferResponse;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.OfferSnapshot;
+import com.teklif.app.repository.OfferSnapshotRepository;
+import com.teklif.app.util.GzipCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Serializes public offer payloads once and keeps the bytes of sent offers in
+ * {@link OfferSnapshot}, so public links are served without hydrating the offer graph
+ * or running Jackson. Drafts have no snapshot and are rendered on demand.
+ */
+@Service
+public class OfferSnapshotService {
+
+    private final OfferSnapshotRepository snapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean gzip;
+    private final Rendered passwordPrompt;
+
+    public OfferSnapshotService(OfferSnapshotRepository snapshotRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${offer.snapshot.gzip:true}") boolean gzip) {
+        this.snapshotRepository = snapshotRepository;
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+
+        OfferResponse prompt = new OfferResponse();
+        prompt.setPasswordRequired(true);
+        this.passwordPrompt = render(prompt);
+    }
+
+    /**
+     * Serializes {@code ApiResponse.success(response)} the way the controller would,
+     * gzip-compressed when enabled. The ETag is a hash of the uncompressed JSON.
+     */
+    public Rendered render(OfferResponse response) {
+        byte[] json = objectMapper.writeValueAsBytes(ApiResponse.success(response));
+        return new Rendered(gzip ? GzipCodec.compress(json) : json, gzip, "\"" + hash(json) + "\"");
+    }
+
+    /**
+     * Body served by the public GET instead of the offer while the link has a password.
+     */
+    public Rendered passwordPrompt() {
+        return passwordPrompt;
+    }
+
+    /**
+     * Writes or replaces the snapshot of an offer. Must run in the transaction that
+     * changed the offer, after the changes are flushed.
+     */
+    public void store(Offer offer, OfferResponse response) {
+        Rendered rendered = render(response);
+        boolean passwordRequired = offer.getLinkPassword() != null;
+        boolean consumed = Boolean.TRUE.equals(offer.getOneTimeView()) && Boolean.TRUE.equals(offer.getHasBeenViewed());
+
+        OfferSnapshot snapshot = snapshotRepository.findById(offer.getId())
+                .orElseGet(() -> OfferSnapshot.builder().offerId(offer.getId()).revision(0).build());
+        if (rendered.etag().equals(snapshot.getEtag())
+                && Boolean.valueOf(passwordRequired).equals(snapshot.getPasswordRequired())
+                && Boolean.valueOf(consumed).equals(snapshot.getConsumed())) {
+            return;
+        }
+
+        snapshot.setUuid(offer.getUuid());
+        snapshot.setTenantId(offer.getTenantId());
+        snapshot.setCustomerId(offer.getCustomerId());
+        snapshot.setRevision(snapshot.getRevision() + 1);
+        snapshot.setEtag(rendered.etag());
+        snapshot.setGzipped(rendered.gzipped());
+        snapshot.setPasswordRequired(passwordRequired);
+        snapshot.setConsumed(consumed);
+        snapshot.setBody(rendered.body());
+        snapshot.setRenderedAt(Instant.now());
+        snapshotRepository.save(snapshot);
+    }
+
+    public Optional<OfferSnapshot> find(String uuid) {
+        return snapshotRepository.findByUuid(uuid);
+    }
+
+    public void delete(String offerId) {
+        snapshotRepository.deleteById(offerId);
+    }
+
+    /**
+     * Drops the snapshots of offers changed in bulk; their links fall back to a live
+     * rendering until the next write re-stores them.
+     */
+    public void deleteAll(Collection<String> offerIds) {
+        snapshotRepository.deleteByOfferIds(offerIds);
+    }
+
+    private static String hash(byte[] payload) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload);
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Serialized {@code ApiResponse} body and its strong ETag.
+     */
+    public record Rendered(byte[] body, boolean gzipped, String etag) {
+
+        public static Rendered of(OfferSnapshot snapshot) {
+            return new Rendered(snapshot.getBody(), snapshot.getGzipped(), snapshot.getEtag());
+        }
+
+        /**
+         * @return the uncompressed JSON, for clients that do not accept gzip
+         */
+        public byte[] json() {
+            return gzipped ? GzipCodec.decompress(body) : body;
+        }
+    }
+}
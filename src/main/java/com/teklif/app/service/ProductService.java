@@ -12,9 +12,11 @@ import com.teklif.app.exception.CustomException;
 import com.teklif.app.mapper.ProductMapper;
 import com.teklif.app.repository.ProductFileRepository;
 import com.teklif.app.repository.ProductRepository;
+import com.teklif.app.util.KeysetCursor;
 import com.teklif.app.util.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -35,6 +37,7 @@ public class ProductService {
     private final ProductMapper productMapper;
     private final ProductFileRepository productFileRepository;
     private final ActivityLogService activityLogService;
+    private final PublicOfferCache publicOfferCache;
 
     @Value("${file.upload-dir:./uploads}")
     private String uploadDir;
@@ -44,9 +47,24 @@ public class ProductService {
             String category,
             Boolean isActive,
             int page,
-            int limit
+            int limit,
+            String cursor
     ) {
         String tenantId = TenantContext.getTenantId();
+
+        if (cursor != null) {
+            if (limit < 1) {
+                throw CustomException.badRequest("Limit must be at least 1");
+            }
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            List<Product> products = productRepository.findAllWithFiltersAfter(
+                    tenantId, search, category, isActive,
+                    KeysetCursor.timestampOf(after), KeysetCursor.idOf(after), Limit.of(limit + 1)
+            );
+            return KeysetCursor.page(products, limit,
+                    product -> new KeysetCursor(product.getCreatedAt(), product.getId()), productMapper::toResponse);
+        }
+
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by("createdAt").descending());
 
         Page<Product> productPage = productRepository.findAllWithFilters(
@@ -161,6 +179,7 @@ public class ProductService {
                 .build();
 
         productFile = productFileRepository.save(productFile);
+        publicOfferCache.evictProduct(productId);
 
         // Create log
         activityLogService.createLog(LogType.PRODUCT_UPDATED, productId,
@@ -206,6 +225,7 @@ public class ProductService {
         // Delete database record
         productFile.setIsDeleted(true);
         productFileRepository.save(productFile);
+        publicOfferCache.evictProduct(productId);
 
         // Create log
         activityLogService.createLog(LogType.PRODUCT_UPDATED, productId,
@@ -0,0 +1,112 @@
+package com.teklif.app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Serialized payloads of public offer links, keyed by uuid. Each entry holds the
+ * bytes and strong ETag of one rendering (the stored snapshot of a sent offer, or a
+ * live rendering of a draft), so a cached link - conditional or not - is answered
+ * without touching the database.
+ * <p>
+ * {@code OfferService} evicts an offer on every write (update, send, view, accept,
+ * reject, delete); customer, tenant and product edits evict the offers that embed
+ * them. The TTL only bounds staleness for writes made by other nodes.
+ */
+@Component
+public class PublicOfferCache {
+
+    private final Cache<String, Entry> entries;
+
+    // Yükleme sırasında araya giren bir eviction eski sürümün cache'e yazılmasını engeller
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PublicOfferCache(MeterRegistry meterRegistry,
+                            @Value("${offer.public-cache.max-size:10000}") long maxSize,
+                            @Value("${offer.public-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "offer.public");
+    }
+
+    /**
+     * Returns the cached entry, or loads one with {@code loader}. The loader runs
+     * outside any cache lock; its result is only stored when no eviction happened
+     * while it ran.
+     */
+    public Entry get(String uuid, Function<String, Entry> loader) {
+        Entry cached = entries.getIfPresent(uuid);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = evictions.get();
+        Entry entry = loader.apply(uuid);
+        if (evictions.get() == generation) {
+            entries.asMap().putIfAbsent(uuid, entry);
+        }
+        return entry;
+    }
+
+    public void evictOffer(String uuid) {
+        runNowAndAfterCommit(() -> entries.invalidate(uuid));
+    }
+
+    public void evictCustomer(String customerId) {
+        evictIf(entry -> customerId.equals(entry.customerId()));
+    }
+
+    public void evictTenant(String tenantId) {
+        evictIf(entry -> tenantId.equals(entry.tenantId()));
+    }
+
+    public void evictProduct(String productId) {
+        evictIf(entry -> entry.productIds().contains(productId));
+    }
+
+    private void evictIf(Predicate<Entry> predicate) {
+        runNowAndAfterCommit(() -> entries.asMap().values().removeIf(predicate));
+    }
+
+    private void runNowAndAfterCommit(Runnable eviction) {
+        Runnable counted = () -> {
+            evictions.incrementAndGet();
+            eviction.run();
+        };
+        counted.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counted.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * @param productIds       products whose files appear in the payload; empty for
+     *                         snapshots, which keep the files they were sent with
+     * @param passwordRequired the public GET serves the password prompt instead
+     * @param consumed         one-time link that has already been viewed
+     */
+    public record Entry(String tenantId, String customerId, Set<String> productIds,
+                        OfferSnapshotService.Rendered content, boolean passwordRequired, boolean consumed) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.util.TrigramIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant trigram indexes for offer number and customer search, so the list
+ * endpoints can resolve matching ids in memory instead of running leading-wildcard
+ * LIKEs over the whole tenant.
+ * <p>
+ * The indexes are rebuilt from the database in the background at startup; until that
+ * finishes, and whenever a term matches too many rows to send as an id list, callers
+ * get {@code null} and keep using the SQL LIKE. Local writes are applied after commit.
+ * A periodic delta sync on {@code updated_at} picks up bulk imports and writes made
+ * by other nodes.
+ */
+@Slf4j
+@Service
+public class SearchIndexService {
+
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final int batchSize;
+
+    private final Map<String, TrigramIndex> offers = new ConcurrentHashMap<>();
+    private final Map<String, TrigramIndex> customers = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+    private volatile Instant syncedFrom;
+
+    public SearchIndexService(JdbcTemplate jdbcTemplate,
+                              @Value("${search.index.enabled:true}") boolean enabled,
+                              @Value("${search.index.max-candidates:2000}") int maxCandidates,
+                              @Value("${search.index.batch-size:10000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return ids of the tenant's offers whose number contains the term, or null when the
+     * index cannot answer (disabled, still rebuilding, blank term, too many matches)
+     */
+    public Set<String> findOfferIds(String tenantId, String search) {
+        return find(offers, tenantId, search);
+    }
+
+    public Set<String> findCustomerIds(String tenantId, String search) {
+        return find(customers, tenantId, search);
+    }
+
+    public void indexOffer(Offer offer) {
+        afterCommit(() -> applyOffer(offer.getTenantId(), offer.getId(), offer.getOfferNo(), offer.getIsDeleted()));
+    }
+
+    public void indexOffer(String tenantId, String id, String offerNo) {
+        afterCommit(() -> applyOffer(tenantId, id, offerNo, false));
+    }
+
+    public void indexCustomer(Customer customer) {
+        afterCommit(() -> applyCustomer(customer.getTenantId(), customer.getId(), customer.getIsDeleted(),
+                customer.getCompanyName(), customer.getContactPerson(), customer.getEmail()));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Loads every live offer and customer in id-ordered batches. Rows changed while the
+     * rebuild runs are re-applied by the first delta sync.
+     */
+    public void rebuild() {
+        long started = System.nanoTime();
+        Instant from = Instant.now();
+        int offerCount = load("SELECT id, tenant_id, offer_no FROM offers "
+                + "WHERE is_deleted = false AND id > ? ORDER BY id LIMIT ?", this::loadOffer);
+        int customerCount = load("SELECT id, tenant_id, company_name, contact_person, email FROM customers "
+                + "WHERE is_deleted = false AND id > ? ORDER BY id LIMIT ?", this::loadCustomer);
+        syncedFrom = from;
+        ready = true;
+        log.info("Search index rebuilt: {} offers, {} customers in {} ms",
+                offerCount, customerCount, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.sync-interval-ms:30000}")
+    public void syncChanges() {
+        if (!ready) {
+            return;
+        }
+        Instant from = Instant.now();
+        Object since = LocalDateTime.ofInstant(syncedFrom.minus(SYNC_OVERLAP), ZoneOffset.UTC);
+
+        jdbcTemplate.query("SELECT id, tenant_id, offer_no, is_deleted FROM offers WHERE updated_at >= ?",
+                rs -> {
+                    applyOffer(rs.getString("tenant_id"), rs.getString("id"),
+                            rs.getString("offer_no"), rs.getBoolean("is_deleted"));
+                }, since);
+        jdbcTemplate.query("SELECT id, tenant_id, company_name, contact_person, email, is_deleted FROM customers "
+                        + "WHERE updated_at >= ?",
+                rs -> {
+                    applyCustomer(rs.getString("tenant_id"), rs.getString("id"), rs.getBoolean("is_deleted"),
+                            rs.getString("company_name"), rs.getString("contact_person"), rs.getString("email"));
+                }, since);
+        syncedFrom = from;
+    }
+
+    private Set<String> find(Map<String, TrigramIndex> indexes, String tenantId, String search) {
+        if (!enabled || !ready || search == null || search.isBlank()) {
+            return null;
+        }
+        TrigramIndex index = indexes.get(tenantId);
+        return index != null ? index.search(search, maxCandidates) : Set.of();
+    }
+
+    private void applyOffer(String tenantId, String id, String offerNo, Boolean deleted) {
+        apply(offers, tenantId, id, Boolean.TRUE.equals(deleted), offerNo);
+    }
+
+    private void applyCustomer(String tenantId, String id, Boolean deleted, String... fields) {
+        apply(customers, tenantId, id, Boolean.TRUE.equals(deleted), fields);
+    }
+
+    private void apply(Map<String, TrigramIndex> indexes, String tenantId, String id, boolean deleted, String... fields) {
+        if (!enabled) {
+            return;
+        }
+        if (deleted) {
+            TrigramIndex index = indexes.get(tenantId);
+            if (index != null) {
+                index.remove(id);
+            }
+        } else {
+            indexes.computeIfAbsent(tenantId, key -> new TrigramIndex()).put(id, fields);
+        }
+    }
+
+    private void loadOffer(ResultSet rs) throws SQLException {
+        applyOffer(rs.getString("tenant_id"), rs.getString("id"), rs.getString("offer_no"), false);
+    }
+
+    private void loadCustomer(ResultSet rs) throws SQLException {
+        applyCustomer(rs.getString("tenant_id"), rs.getString("id"), false,
+                rs.getString("company_name"), rs.getString("contact_person"), rs.getString("email"));
+    }
+
+    // OFFSET yerine id üzerinden seek: 1M satırda da her batch aynı maliyette
+    private int load(String sql, RowLoader loader) {
+        String lastId = "";
+        int total = 0;
+        while (true) {
+            String[] last = {null};
+            int[] count = {0};
+            jdbcTemplate.query(sql, rs -> {
+                loader.load(rs);
+                last[0] = rs.getString("id");
+                count[0]++;
+            }, lastId, batchSize);
+            total += count[0];
+            if (count[0] < batchSize) {
+                return total;
+            }
+            lastId = last[0];
+        }
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowLoader {
+        void load(ResultSet rs) throws SQLException;
+    }
+}
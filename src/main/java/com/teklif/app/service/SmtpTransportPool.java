@@ -0,0 +1,151 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.Tenant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Connected SMTP transports, kept per server and account so consecutive mails of a
+ * tenant reuse one authenticated session instead of reconnecting for every message.
+ * Borrowed transports are used by one thread at a time; idle ones are closed after
+ * {@code offer.mail.smtp.idle-seconds}.
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool {
+
+    private final Map<Settings, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Settings, Deque<Idle>> idle = new ConcurrentHashMap<>();
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final Duration idleTimeout;
+    private final Counter connections;
+
+    public SmtpTransportPool(MeterRegistry meterRegistry,
+                             @Value("${offer.mail.smtp.connect-timeout-ms:10000}") long connectTimeoutMillis,
+                             @Value("${offer.mail.smtp.read-timeout-ms:30000}") long readTimeoutMillis,
+                             @Value("${offer.mail.smtp.idle-seconds:60}") long idleSeconds) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.idleTimeout = Duration.ofSeconds(idleSeconds);
+        this.connections = Counter.builder("offer.mail.smtp.connections")
+                .description("SMTP connections opened by the outbox dispatcher")
+                .register(meterRegistry);
+    }
+
+    public Session session(Settings settings) {
+        return sessions.computeIfAbsent(settings, this::createSession);
+    }
+
+    /**
+     * Returns an idle connected transport for the server, or connects a new one.
+     */
+    public Transport borrow(Settings settings) throws MessagingException {
+        Deque<Idle> pooled = idle.get(settings);
+        Idle candidate;
+        while (pooled != null && (candidate = pooled.pollFirst()) != null) {
+            // isConnected() bir NOOP gönderir; sunucunun kapattığı bağlantı burada elenir
+            if (candidate.transport().isConnected()) {
+                return candidate.transport();
+            }
+            close(candidate.transport());
+        }
+
+        Transport transport = session(settings).getTransport();
+        transport.connect(settings.host(), settings.port(), settings.user(), settings.password());
+        connections.increment();
+        return transport;
+    }
+
+    public void release(Settings settings, Transport transport) {
+        idle.computeIfAbsent(settings, key -> new ConcurrentLinkedDeque<>())
+                .offerFirst(new Idle(transport, Instant.now()));
+    }
+
+    /**
+     * Closes a transport whose session failed instead of returning it to the pool.
+     */
+    public void invalidate(Transport transport) {
+        close(transport);
+    }
+
+    @Scheduled(fixedDelayString = "${offer.mail.smtp.idle-check-ms:30000}")
+    public void closeIdle() {
+        Instant cutoff = Instant.now().minus(idleTimeout);
+        idle.values().forEach(pooled -> pooled.removeIf(entry -> {
+            if (entry.since().isBefore(cutoff)) {
+                close(entry.transport());
+                return true;
+            }
+            return false;
+        }));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        idle.values().forEach(pooled -> pooled.forEach(entry -> close(entry.transport())));
+        idle.clear();
+    }
+
+    private Session createSession(Settings settings) {
+        Properties properties = new Properties();
+        properties.put("mail.transport.protocol", "smtp");
+        properties.put("mail.smtp.auth", String.valueOf(settings.user() != null));
+        properties.put("mail.smtp.starttls.enable", "true");
+        properties.put("mail.smtp.ssl.enable", String.valueOf(settings.port() == 465));
+        properties.put("mail.smtp.connectiontimeout", String.valueOf(connectTimeoutMillis));
+        properties.put("mail.smtp.timeout", String.valueOf(readTimeoutMillis));
+        properties.put("mail.smtp.writetimeout", String.valueOf(readTimeoutMillis));
+        return Session.getInstance(properties);
+    }
+
+    private static void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("SMTP transport could not be closed cleanly: {}", e.getMessage());
+        }
+    }
+
+    private record Idle(Transport transport, Instant since) {
+    }
+
+    /**
+     * SMTP server and account of a tenant; the pool key.
+     */
+    public record Settings(String host, int port, String user, String password) {
+
+        /**
+         * @return the tenant's settings, or null when no SMTP server is configured
+         */
+        public static Settings of(Tenant tenant) {
+            if (tenant == null || tenant.getSmtpHost() == null || tenant.getSmtpHost().isBlank()) {
+                return null;
+            }
+            String user = tenant.getSmtpUser() == null || tenant.getSmtpUser().isBlank() ? null : tenant.getSmtpUser();
+            return new Settings(tenant.getSmtpHost(), tenant.getSmtpPort() != null ? tenant.getSmtpPort() : 587,
+                    user, tenant.getSmtpPassword());
+        }
+
+        @Override
+        public String toString() {
+            return (user != null ? user + "@" : "") + host + ":" + port;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.teklif.app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the daily bulletin of the Turkish central bank ({@code today.xml}). The source
+ * is any URI: the TCMB endpoint in production, a {@code file:} URI or a local server
+ * serving the same format elsewhere. Forex selling rates are used, divided by the
+ * bulletin's unit (e.g. 100 JPY).
+ */
+@Component
+public class TcmbExchangeRateProvider implements ExchangeRateProvider {
+
+    private final URI source;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public TcmbExchangeRateProvider(@Value("${offer.exchange-rate.source:https://www.tcmb.gov.tr/kurlar/today.xml}") String source,
+                                    @Value("${offer.exchange-rate.timeout-ms:10000}") long timeoutMillis) {
+        this.source = URI.create(source);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public Map<String, BigDecimal> fetch() throws IOException {
+        if ("file".equals(source.getScheme())) {
+            try (InputStream in = Files.newInputStream(Path.of(source))) {
+                return parse(in);
+            }
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(source).timeout(timeout).GET().build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream in = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new IOException("Exchange rate source answered " + response.statusCode());
+                }
+                return parse(in);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exchange rate request was interrupted", e);
+        }
+    }
+
+    static Map<String, BigDecimal> parse(InputStream in) throws IOException {
+        Document document;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            document = factory.newDocumentBuilder().parse(in);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Exchange rate bulletin could not be parsed", e);
+        }
+
+        Map<String, BigDecimal> rates = new HashMap<>();
+        NodeList currencies = document.getElementsByTagName("Currency");
+        for (int i = 0; i < currencies.getLength(); i++) {
+            Element currency = (Element) currencies.item(i);
+            String code = currency.getAttribute("CurrencyCode");
+            String selling = text(currency, "ForexSelling");
+            // XDR gibi bazı satırlarda döviz satış kuru yok
+            if (code.isBlank() || selling.isBlank()) {
+                continue;
+            }
+            String unit = text(currency, "Unit");
+            BigDecimal rate = new BigDecimal(selling);
+            if (!unit.isBlank()) {
+                rate = rate.divide(new BigDecimal(unit), MathContext.DECIMAL64);
+            }
+            rates.put(code, rate);
+        }
+        return rates;
+    }
+
+    private static String text(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() == 0 ? "" : nodes.item(0).getTextContent().trim();
+    }
+}
@@ -0,0 +1,199 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.TenantOfferStats;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.TenantOfferStatsRepository;
+import com.teklif.app.repository.TenantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recounts every tenant's offers with one GROUP BY and overwrites the
+ * {@link TenantOfferStats} rows that drifted from it, e.g. after manual SQL or a bug
+ * in a delta. Each tenant is reconciled in its own transaction that locks the tenant's
+ * stats rows before counting: writers applying deltas wait for it, and the count
+ * includes everything committed before the lock.
+ * <p>
+ * Only the node holding the {@value #LEASE} lease runs the job. It also runs once at
+ * startup, so rows of offers written before the read model existed are backfilled.
+ * A completed run is recorded on the lease row; until any node has completed one,
+ * {@link #isBackfilled()} is false and readers count the offers instead.
+ */
+@Slf4j
+@Service
+public class TenantOfferStatsReconciler {
+
+    static final String LEASE = "offer-stats-reconcile";
+
+    private final TenantRepository tenantRepository;
+    private final OfferRepository offerRepository;
+    private final TenantOfferStatsRepository statsRepository;
+    private final JobLeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration leaseDuration;
+
+    private final Counter drift;
+    private final Timer runTimer;
+
+    private volatile boolean backfilled;
+
+    public TenantOfferStatsReconciler(TenantRepository tenantRepository,
+                                      OfferRepository offerRepository,
+                                      TenantOfferStatsRepository statsRepository,
+                                      JobLeaseService leaseService,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${offer.stats.reconcile.enabled:true}") boolean enabled,
+                                      @Value("${offer.stats.reconcile.lease-seconds:600}") long leaseSeconds) {
+        this.tenantRepository = tenantRepository;
+        this.offerRepository = offerRepository;
+        this.statsRepository = statsRepository;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+
+        this.drift = Counter.builder("offer.stats.drift")
+                .description("Offer stats rows that differed from the offers and were repaired")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("offer.stats.reconcile")
+                .description("Duration of offer stats reconciliation runs on the lease holder")
+                .register(meterRegistry);
+    }
+
+    public boolean isBackfilled() {
+        // Bir kez true olduktan sonra tekrar sorulmaz; backfill geri alınmaz
+        if (!backfilled && leaseService.hasCompleted(LEASE)) {
+            backfilled = true;
+        }
+        return backfilled;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${offer.stats.reconcile.interval-ms:3600000}",
+            initialDelayString = "${offer.stats.reconcile.interval-ms:3600000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Reconciles all tenants while this node holds the lease.
+     *
+     * @return number of stats rows repaired, or -1 when another node holds the lease
+     */
+    public int run() {
+        if (!leaseService.tryAcquire(LEASE, leaseDuration)) {
+            log.debug("Offer stats reconciliation skipped, lease {} is held by another node", LEASE);
+            return -1;
+        }
+
+        long started = System.nanoTime();
+        int repaired = 0;
+        boolean complete = true;
+        try {
+            for (String tenantId : tenantRepository.findAllIds()) {
+                try {
+                    repaired += reconcile(tenantId);
+                } catch (DataAccessException e) {
+                    complete = false;
+                    log.warn("Offer stats of tenant {} could not be reconciled: {}", tenantId, e.getMessage());
+                }
+                if (!leaseService.tryAcquire(LEASE, leaseDuration)) {
+                    complete = false;
+                    log.warn("Offer stats lease {} lost, stopping reconciliation", LEASE);
+                    break;
+                }
+            }
+            if (complete) {
+                leaseService.markCompleted(LEASE);
+                backfilled = true;
+            }
+        } finally {
+            runTimer.record(Duration.ofNanos(System.nanoTime() - started));
+        }
+        return repaired;
+    }
+
+    /**
+     * @return number of the tenant's stats rows that were repaired
+     */
+    public int reconcile(String tenantId) {
+        Integer repaired = transactionTemplate.execute(status -> reconcileLocked(tenantId));
+        return repaired != null ? repaired : 0;
+    }
+
+    private int reconcileLocked(String tenantId) {
+        // Önce kilit, sonra sayım: sayım kilidi bekleten yazarların commit'lerini görür
+        Map<TenantOfferStats.Key, TenantOfferStats> rows = new HashMap<>();
+        for (TenantOfferStats row : statsRepository.lockByTenantId(tenantId)) {
+            rows.put(new TenantOfferStats.Key(row.getTenantId(), row.getStatus(), row.getCurrency()), row);
+        }
+
+        Instant now = Instant.now();
+        int repaired = 0;
+        for (OfferRepository.StatusTotals actual : offerRepository.findStatusTotals(tenantId)) {
+            TenantOfferStats row = rows.remove(
+                    new TenantOfferStats.Key(tenantId, actual.getStatus(), actual.getCurrency()));
+            if (row == null) {
+                row = TenantOfferStats.builder()
+                        .tenantId(tenantId).status(actual.getStatus()).currency(actual.getCurrency())
+                        .offerCount(0).totalAmount(BigDecimal.ZERO).updatedAt(now)
+                        .build();
+                repair(row, actual.getCount(), actual.getTotal(), now);
+                statsRepository.save(row);
+                repaired++;
+            } else if (repair(row, actual.getCount(), actual.getTotal(), now)) {
+                repaired++;
+            }
+        }
+        // Kalan satırların artık teklifi yok; sıfırlanır, silinmez
+        for (TenantOfferStats row : rows.values()) {
+            if (repair(row, 0, BigDecimal.ZERO, now)) {
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    private boolean repair(TenantOfferStats row, long count, BigDecimal total, Instant now) {
+        BigDecimal amount = total != null ? total : BigDecimal.ZERO;
+        if (row.getOfferCount() == count && row.getTotalAmount().compareTo(amount) == 0) {
+            return false;
+        }
+        log.warn("Offer stats drift for tenant {} {} {}: {} offers / {} recorded, {} / {} counted",
+                row.getTenantId(), row.getStatus(), row.getCurrency(),
+                row.getOfferCount(), row.getTotalAmount(), count, amount);
+        row.setOfferCount(count);
+        row.setTotalAmount(amount);
+        row.setUpdatedAt(now);
+        drift.increment();
+        return true;
+    }
+}
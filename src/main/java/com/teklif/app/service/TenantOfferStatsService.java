@@ -0,0 +1,97 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.TenantOfferStats;
+import com.teklif.app.enums.OfferStatus;
+import com.teklif.app.repository.TenantOfferStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the {@link TenantOfferStats} read model. Callers collect the effect of an
+ * offer change in {@link Changes} and {@link #apply} it once, inside the transaction
+ * that changes the offers, so the stats commit or roll back together with them.
+ * <p>
+ * Each delta is one upsert that creates the row or adds to it, issued in key order so
+ * concurrent writers lock the rows of a tenant in the same order. Nothing runs outside
+ * the caller's transaction, so a stats update never needs a second connection.
+ */
+@Service
+@RequiredArgsConstructor
+public class TenantOfferStatsService {
+
+    private static final Comparator<TenantOfferStats.Key> KEY_ORDER = Comparator
+            .comparing(TenantOfferStats.Key::getTenantId)
+            .thenComparing(TenantOfferStats.Key::getStatus)
+            .thenComparing(TenantOfferStats.Key::getCurrency);
+
+    private final TenantOfferStatsRepository statsRepository;
+
+    /**
+     * Adds the collected deltas to the stats rows, creating missing rows. Must run in
+     * the caller's transaction.
+     */
+    public void apply(Changes changes) {
+        Instant now = Instant.now();
+        changes.deltas.forEach((key, delta) -> {
+            if (!delta.isZero()) {
+                statsRepository.increment(key.getTenantId(), key.getStatus(), key.getCurrency(),
+                        delta.count, delta.amount, now);
+            }
+        });
+    }
+
+    /**
+     * Net effect of one or more offer changes on the stats rows. Removing an offer before
+     * editing it and adding it afterwards leaves only the difference.
+     */
+    public static final class Changes {
+
+        private final Map<TenantOfferStats.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+
+        public Changes add(Offer offer) {
+            return add(offer.getTenantId(), offer.getStatus(), offer.getCurrency(), offer.getTotal());
+        }
+
+        public Changes remove(Offer offer) {
+            return remove(offer.getTenantId(), offer.getStatus(), offer.getCurrency(), offer.getTotal());
+        }
+
+        public Changes add(String tenantId, OfferStatus status, String currency, BigDecimal amount) {
+            return merge(tenantId, status, currency, 1, amount);
+        }
+
+        public Changes remove(String tenantId, OfferStatus status, String currency, BigDecimal amount) {
+            return merge(tenantId, status, currency, -1, amount != null ? amount.negate() : null);
+        }
+
+        public Changes move(String tenantId, String currency, BigDecimal amount, OfferStatus from, OfferStatus to) {
+            return remove(tenantId, from, currency, amount).add(tenantId, to, currency, amount);
+        }
+
+        private Changes merge(String tenantId, OfferStatus status, String currency, long count, BigDecimal amount) {
+            Delta delta = deltas.computeIfAbsent(new TenantOfferStats.Key(tenantId, status, currency), k -> new Delta());
+            delta.count += count;
+            if (amount != null) {
+                delta.amount = delta.amount.add(amount);
+            }
+            return this;
+        }
+    }
+
+    private static final class Delta {
+
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        private boolean isZero() {
+            return count == 0 && amount.signum() == 0;
+        }
+    }
+}
@@ -15,6 +15,8 @@ import com.teklif.app.mapper.TenantMapper;
 import com.teklif.app.repository.TenantRepository;
 import com.teklif.app.repository.UserRepository;
 import com.teklif.app.repository.UserTenantRepository;
+import com.teklif.app.security.AuthCache;
+import com.teklif.app.security.TenantTierCache;
 import com.teklif.app.security.CustomUserDetails;
 import com.teklif.app.util.TenantContext;
 import lombok.RequiredArgsConstructor;
@@ -39,6 +41,9 @@ public class TenantService {
     private final ActivityLogService activityLogService;
     private final UserTenantRepository userTenantRepository;
     private final UserRepository userRepository;
+    private final AuthCache authCache;
+    private final TenantTierCache tenantTierCache;
+    private final PublicOfferCache publicOfferCache;
 
     private String getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -149,6 +154,8 @@ public class TenantService {
         }
 
         tenant = tenantRepository.save(tenant);
+        tenantTierCache.evict(tenant.getId());
+        publicOfferCache.evictTenant(tenant.getId());
 
         // Create log
         activityLogService.createLog(LogType.TENANT_UPDATED, tenant.getId(),
@@ -168,6 +175,7 @@ public class TenantService {
 
         tenant.setIsDeleted(true);
         tenantRepository.save(tenant);
+        tenantTierCache.evict(id);
 
         // Create log
         activityLogService.createLog(LogType.TENANT_DELETED, id,
@@ -367,6 +375,7 @@ public class TenantService {
                 .build();
 
         userTenantRepository.save(userTenant);
+        authCache.evictMemberships(userId);
     }
 
     @Transactional
@@ -377,6 +386,7 @@ public class TenantService {
         // Use soft delete instead of hard delete
         userTenant.setIsDeleted(true);
         userTenantRepository.save(userTenant);
+        authCache.evictMemberships(userId);
     }
 
     @Transactional
@@ -401,6 +411,7 @@ public class TenantService {
                     .build();
 
             userTenantRepository.save(newUserTenant);
+            authCache.evictMemberships(userId);
             return;
         }
 
@@ -422,6 +433,7 @@ public class TenantService {
 
         userTenant.setIsDefault(true);
         userTenantRepository.save(userTenant);
+        authCache.evictMemberships(userId);
 
         // Not: TenantContext artık JwtAuthenticationFilter'da otomatik set ediliyor
         // Her request'te user_tenants tablosundaki default tenant kullanılacak
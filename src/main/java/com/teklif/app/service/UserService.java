@@ -11,6 +11,7 @@ import com.teklif.app.enums.Role;
 import com.teklif.app.exception.CustomException;
 import com.teklif.app.mapper.UserMapper;
 import com.teklif.app.repository.UserRepository;
+import com.teklif.app.security.AuthCache;
 import com.teklif.app.util.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -31,6 +32,7 @@ public class UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final ActivityLogService activityLogService;
+    private final AuthCache authCache;
 
     public PagedResponse<UserResponse> getAllUsers(
             String search,
@@ -131,6 +133,7 @@ public class UserService {
 
         userMapper.updateEntity(request, user);
         user = userRepository.save(user);
+        authCache.evictUser(user.getId());
 
         // Create log
         activityLogService.createLog(LogType.USER_UPDATED, user.getId(),
@@ -155,6 +158,7 @@ public class UserService {
 
         user.setIsDeleted(true);
         userRepository.save(user);
+        authCache.evictUser(id);
 
         // Create log
         activityLogService.createLog(LogType.USER_DELETED, id,
@@ -175,6 +179,7 @@ public class UserService {
 
         user.setIsActive(!user.getIsActive());
         user = userRepository.save(user);
+        authCache.evictUser(user.getId());
 
         // Create log
         activityLogService.createLog(LogType.USER_UPDATED, user.getId(),
@@ -0,0 +1,70 @@
+package com.teklif.app.util;
+
+import com.teklif.app.dto.response.PagedResponse;
+import com.teklif.app.dto.response.PaginationResponse;
+import com.teklif.app.exception.CustomException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position in a list sorted by {@code (timestamp DESC, id DESC)}. Clients get it as an
+ * opaque base64 string and send it back to fetch the rows after it, so listings can
+ * seek with {@code WHERE (ts, id) < (:ts, :id)} instead of OFFSET and skip the COUNT.
+ */
+public record KeysetCursor(Instant timestamp, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for an empty cursor (first page)
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw CustomException.badRequest("Invalid cursor");
+            }
+            return new KeysetCursor(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw CustomException.badRequest("Invalid cursor");
+        }
+    }
+
+    public static Instant timestampOf(KeysetCursor cursor) {
+        return cursor != null ? cursor.timestamp() : null;
+    }
+
+    public static String idOf(KeysetCursor cursor) {
+        return cursor != null ? cursor.id() : null;
+    }
+
+    /**
+     * Builds a cursor page from rows fetched with {@code limit + 1}; the extra row only tells whether there is more.
+     */
+    public static <E, T> PagedResponse<T> page(List<E> rows, int limit,
+                                               Function<E, KeysetCursor> keyOf,
+                                               Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? keyOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+
+        return PagedResponse.<T>builder()
+                .items(pageRows.stream().map(mapper).toList())
+                .pagination(PaginationResponse.ofCursor(limit, hasMore, nextCursor))
+                .build();
+    }
+}
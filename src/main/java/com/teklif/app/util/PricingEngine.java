@@ -0,0 +1,176 @@
+package com.teklif.app.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Offer line and total calculations in fixed-point arithmetic: amounts are longs
+ * holding the value × 10^4, the same scale as the money columns.
+ * <p>
+ * Results match the BigDecimal rules exactly: discount and VAT are
+ * {@code amount * rate / 100} rounded {@link RoundingMode#HALF_UP} to scale 4.
+ * Inputs that do not fit (unit price with more than 4 decimals, discount rate with
+ * more than 4 decimals, or long overflow) fall back to BigDecimal for that line.
+ */
+public final class PricingEngine {
+
+    public static final int SCALE = 4;
+
+    private static final long ONE = 10_000L;
+    private static final long PERCENT = 100L;
+
+    private PricingEngine() {
+    }
+
+    public static Line line(BigDecimal unitPrice, int quantity, BigDecimal discountRate, int vatRate) {
+        BigDecimal discount = discountRate != null ? discountRate : BigDecimal.ZERO;
+        try {
+            long price = toScaled(unitPrice);
+            long rate = toScaled(discount);
+
+            long subtotal = Math.multiplyExact(price, (long) quantity);
+            if (rate > 0) {
+                // subtotal (×10^4) * rate (×10^4) / 100 → ×10^8 fazlası ölçeklenir
+                subtotal -= divideHalfUp(Math.multiplyExact(subtotal, rate), ONE * PERCENT);
+            }
+            long vat = divideHalfUp(Math.multiplyExact(subtotal, (long) vatRate), PERCENT);
+            return new Line(subtotal, vat, Math.addExact(subtotal, vat));
+        } catch (ArithmeticException e) {
+            return decimalLine(unitPrice, quantity, discount, vatRate);
+        }
+    }
+
+    /**
+     * Same rules in BigDecimal, used for lines that do not fit in scaled longs.
+     */
+    static Line decimalLine(BigDecimal unitPrice, int quantity, BigDecimal discountRate, int vatRate) {
+        BigDecimal hundred = BigDecimal.valueOf(PERCENT);
+        BigDecimal subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        if (discountRate.compareTo(BigDecimal.ZERO) > 0) {
+            subtotal = subtotal.subtract(subtotal.multiply(discountRate).divide(hundred, SCALE, RoundingMode.HALF_UP));
+        }
+        BigDecimal vat = subtotal.multiply(BigDecimal.valueOf(vatRate)).divide(hundred, SCALE, RoundingMode.HALF_UP);
+        return new Line(subtotal, vat, subtotal.add(vat));
+    }
+
+    private static long toScaled(BigDecimal value) {
+        return value.movePointRight(SCALE).longValueExact();
+    }
+
+    // HALF_UP: yarım değerler sıfırdan uzağa yuvarlanır (negatif tutarlar için de)
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    private static BigDecimal toDecimal(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+
+    /**
+     * Amounts of one offer line. Holds scaled longs, or BigDecimals when the line fell back.
+     */
+    public static final class Line {
+
+        private final boolean scaled;
+        private final long subtotal;
+        private final long vatAmount;
+        private final long total;
+        private final BigDecimal decimalSubtotal;
+        private final BigDecimal decimalVatAmount;
+        private final BigDecimal decimalTotal;
+
+        private Line(long subtotal, long vatAmount, long total) {
+            this.scaled = true;
+            this.subtotal = subtotal;
+            this.vatAmount = vatAmount;
+            this.total = total;
+            this.decimalSubtotal = null;
+            this.decimalVatAmount = null;
+            this.decimalTotal = null;
+        }
+
+        private Line(BigDecimal subtotal, BigDecimal vatAmount, BigDecimal total) {
+            this.scaled = false;
+            this.subtotal = 0;
+            this.vatAmount = 0;
+            this.total = 0;
+            this.decimalSubtotal = subtotal;
+            this.decimalVatAmount = vatAmount;
+            this.decimalTotal = total;
+        }
+
+        public BigDecimal subtotal() {
+            return scaled ? toDecimal(subtotal) : decimalSubtotal;
+        }
+
+        public BigDecimal vatAmount() {
+            return scaled ? toDecimal(vatAmount) : decimalVatAmount;
+        }
+
+        public BigDecimal total() {
+            return scaled ? toDecimal(total) : decimalTotal;
+        }
+    }
+
+    /**
+     * Sums line amounts into offer totals, staying in scaled longs while every line did.
+     */
+    public static final class Totals {
+
+        private boolean scaled = true;
+        private long subtotal;
+        private long vatTotal;
+        private BigDecimal decimalSubtotal;
+        private BigDecimal decimalVatTotal;
+
+        public Totals add(Line line) {
+            if (scaled && line.scaled) {
+                try {
+                    long nextSubtotal = Math.addExact(subtotal, line.subtotal);
+                    long nextVatTotal = Math.addExact(vatTotal, line.vatAmount);
+                    subtotal = nextSubtotal;
+                    vatTotal = nextVatTotal;
+                    return this;
+                } catch (ArithmeticException e) {
+                    switchToDecimal();
+                }
+            }
+            if (scaled) {
+                switchToDecimal();
+            }
+            decimalSubtotal = decimalSubtotal.add(line.subtotal());
+            decimalVatTotal = decimalVatTotal.add(line.vatAmount());
+            return this;
+        }
+
+        public BigDecimal subtotal() {
+            return scaled ? toDecimal(subtotal) : decimalSubtotal;
+        }
+
+        public BigDecimal vatTotal() {
+            return scaled ? toDecimal(vatTotal) : decimalVatTotal;
+        }
+
+        public BigDecimal total() {
+            if (scaled) {
+                try {
+                    return toDecimal(Math.addExact(subtotal, vatTotal));
+                } catch (ArithmeticException e) {
+                    return toDecimal(subtotal).add(toDecimal(vatTotal));
+                }
+            }
+            return decimalSubtotal.add(decimalVatTotal);
+        }
+
+        private void switchToDecimal() {
+            decimalSubtotal = toDecimal(subtotal);
+            decimalVatTotal = toDecimal(vatTotal);
+            scaled = false;
+        }
+    }
+}
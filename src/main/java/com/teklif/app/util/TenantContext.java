@@ -1,17 +1,70 @@
 package com.teklif.app.util;
 
-public class TenantContext {
+import java.util.concurrent.Callable;
+
+/**
+ * Holds the tenant of the current request. The tenant is bound for a bounded scope
+ * with {@link #bind(String)} and restored when the scope closes, so nothing leaks to
+ * the next task on a pooled (or virtual) thread.
+ * <p>
+ * Java 21 only has {@code ScopedValue} as a preview API, so the carrier is a
+ * ThreadLocal that is only ever written through scopes.
+ */
+public final class TenantContext {
+
     private static final ThreadLocal<String> currentTenant = new ThreadLocal<>();
 
-    public static void setTenantId(String tenantId) {
-        currentTenant.set(tenantId);
+    private TenantContext() {
     }
 
     public static String getTenantId() {
         return currentTenant.get();
     }
 
+    /**
+     * Binds the tenant until the returned scope is closed; the previous value (usually none) is restored on close.
+     */
+    public static Scope bind(String tenantId) {
+        String previous = currentTenant.get();
+        set(tenantId);
+        return () -> set(previous);
+    }
+
+    public static void runWith(String tenantId, Runnable task) {
+        try (Scope ignored = bind(tenantId)) {
+            task.run();
+        }
+    }
+
+    public static <T> T callWith(String tenantId, Callable<T> task) throws Exception {
+        try (Scope ignored = bind(tenantId)) {
+            return task.call();
+        }
+    }
+
+    /**
+     * Captures the current tenant so the task sees it when run on another thread.
+     */
+    public static Runnable wrap(Runnable task) {
+        String tenantId = currentTenant.get();
+        return () -> runWith(tenantId, task);
+    }
+
     public static void clear() {
         currentTenant.remove();
     }
-}
\ No newline at end of file
+
+    private static void set(String tenantId) {
+        if (tenantId == null) {
+            currentTenant.remove();
+        } else {
+            currentTenant.set(tenantId);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,242 @@
+package com.teklif.app.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index answering case- and accent-insensitive "contains" queries over
+ * one or more text fields per document, i.e. what {@code col LIKE '%term%'} does under an
+ * {@code _ai_ci} collation without scanning every row.
+ * <p>
+ * Stored texts and queries are folded the same way: decomposed (NFD), stripped of combining
+ * marks, dotless ı mapped to i and lower-cased, so "İSTANBUL" matches "istanbul" and
+ * "sirket" matches "Şirket".
+ * <p>
+ * Each document gets an internal slot; every distinct trigram maps to the ascending
+ * list of slots containing it. A query intersects the posting lists of its trigrams,
+ * starting from the shortest, then verifies the survivors with {@link String#contains}
+ * so results are exact, not just candidates. Queries shorter than three characters
+ * fall back to scanning the stored texts.
+ * <p>
+ * Updates and removals tombstone the old slot; the index compacts itself once
+ * tombstones outnumber live documents. Thread-safe: searches share a read lock.
+ */
+public final class TrigramIndex {
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final int MIN_COMPACT_TOMBSTONES = 1024;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private Map<Long, IntList> postings = new HashMap<>();
+    private int tombstones;
+
+    /**
+     * Adds or replaces the document. Null fields are skipped.
+     */
+    public void put(String id, String... fields) {
+        String text = normalize(fields);
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.get(id);
+            if (slot != null) {
+                if (texts.get(slot).equals(text)) {
+                    return;
+                }
+                tombstone(slot);
+            }
+            slotsById.put(id, append(id, text));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(id);
+            if (slot != null) {
+                tombstone(slot);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids of documents whose fields contain the term (case- and accent-insensitive), or null
+     * when more than {@code maxResults} match so the caller can use another plan
+     */
+    public Set<String> search(String term, int maxResults) {
+        String query = fold(term);
+        lock.readLock().lock();
+        try {
+            if (query.length() < 3) {
+                return scan(query, maxResults);
+            }
+
+            List<IntList> lists = new ArrayList<>();
+            for (long trigram : trigrams(query)) {
+                IntList list = postings.get(trigram);
+                if (list == null) {
+                    return Set.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            Set<String> result = new HashSet<>();
+            IntList smallest = lists.get(0);
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                int slot = smallest.values[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).contains(slot)) {
+                        continue candidates;
+                    }
+                }
+                String id = ids.get(slot);
+                if (id != null && texts.get(slot).contains(query)) {
+                    result.add(id);
+                    if (result.size() > maxResults) {
+                        return null;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<String> scan(String query, int maxResults) {
+        Set<String> result = new HashSet<>();
+        for (int slot = 0; slot < ids.size(); slot++) {
+            String id = ids.get(slot);
+            if (id != null && texts.get(slot).contains(query)) {
+                result.add(id);
+                if (result.size() > maxResults) {
+                    return null;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int append(String id, String text) {
+        int slot = ids.size();
+        ids.add(id);
+        texts.add(text);
+        // Slotlar artan sırada eklendiği için posting listeleri sıralı kalır
+        for (long trigram : trigrams(text)) {
+            postings.computeIfAbsent(trigram, key -> new IntList()).add(slot);
+        }
+        return slot;
+    }
+
+    private void tombstone(int slot) {
+        ids.set(slot, null);
+        texts.set(slot, "");
+        tombstones++;
+    }
+
+    private void compactIfNeeded() {
+        if (tombstones < MIN_COMPACT_TOMBSTONES || tombstones < slotsById.size()) {
+            return;
+        }
+        List<String> liveIds = new ArrayList<>(slotsById.size());
+        List<String> liveTexts = new ArrayList<>(slotsById.size());
+        for (int slot = 0; slot < ids.size(); slot++) {
+            if (ids.get(slot) != null) {
+                liveIds.add(ids.get(slot));
+                liveTexts.add(texts.get(slot));
+            }
+        }
+        ids.clear();
+        texts.clear();
+        postings = new HashMap<>();
+        slotsById.clear();
+        tombstones = 0;
+        for (int i = 0; i < liveIds.size(); i++) {
+            slotsById.put(liveIds.get(i), append(liveIds.get(i), liveTexts.get(i)));
+        }
+    }
+
+    private static String normalize(String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            if (field == null || field.isEmpty()) {
+                continue;
+            }
+            if (!text.isEmpty()) {
+                text.append(FIELD_SEPARATOR);
+            }
+            text.append(fold(field));
+        }
+        return text.toString();
+    }
+
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        // İ -> I + U+0307, ş -> s + U+0327; ı'nın ayrışımı yok, elle eşlenir
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace('ı', 'i');
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            char c = text.charAt(i + 2);
+            if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+                continue;
+            }
+            result.add(((long) a << 32) | ((long) b << 16) | c);
+        }
+        return result;
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+}
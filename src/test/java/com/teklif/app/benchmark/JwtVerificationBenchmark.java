@@ -0,0 +1,96 @@
+package com.teklif.app.benchmark;
+
+import com.teklif.app.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy per-request JWT handling (key + parser rebuilt, five full
+ * verifications) with {@link JwtUtil#verify(String)}.
+ * <p>
+ * Run with: {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.teklif.app.benchmark.JwtVerificationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET, 86_400_000L, 10_000);
+        // Cache size 0: every call performs exactly one signature verification
+        uncachedJwtUtil = new JwtUtil(SECRET, 86_400_000L, 0);
+        userDetails = new User("bench@teklif.com", "x", List.of());
+        token = jwtUtil.generateToken(userDetails, "user-1", "tenant-1", "TENANT_USER");
+    }
+
+    @Benchmark
+    public void legacyFiveParses(Blackhole bh) {
+        bh.consume(legacyClaims(token).getSubject());
+        bh.consume(legacyClaims(token).get("tenantId", String.class));
+        bh.consume(legacyClaims(token).get("userId", String.class));
+        // validateToken -> extractUsername + extractExpiration
+        String username = legacyClaims(token).getSubject();
+        Date exp = legacyClaims(token).getExpiration();
+        bh.consume(username.equals(userDetails.getUsername()) && !exp.before(new Date()));
+    }
+
+    @Benchmark
+    public void verifyOnceUncached(Blackhole bh) {
+        JwtUtil.VerifiedToken verified = uncachedJwtUtil.verify(token);
+        bh.consume(uncachedJwtUtil.validateToken(verified, userDetails));
+    }
+
+    @Benchmark
+    public void verifyOnceCached(Blackhole bh) {
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+        bh.consume(jwtUtil.validateToken(verified, userDetails));
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
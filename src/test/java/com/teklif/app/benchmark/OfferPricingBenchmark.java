@@ -0,0 +1,86 @@
+package com.teklif.app.benchmark;
+
+import com.teklif.app.util.LegacyPricing;
+import com.teklif.app.util.PricingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full offer recalculation (every line plus offer totals) with the previous
+ * BigDecimal code versus {@link PricingEngine}, for offers of 10 to 10,000 lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OfferPricingBenchmark {
+
+    private static final int[] VAT_RATES = {0, 1, 10, 20};
+
+    @Param({"10", "100", "1000", "10000"})
+    public int lines;
+
+    private BigDecimal[] unitPrices;
+    private int[] quantities;
+    private BigDecimal[] discountRates;
+    private int[] vatRates;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        unitPrices = new BigDecimal[lines];
+        quantities = new int[lines];
+        discountRates = new BigDecimal[lines];
+        vatRates = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            unitPrices[i] = BigDecimal.valueOf(random.nextInt(1, 10_000_000), 2);
+            quantities[i] = random.nextInt(1, 500);
+            discountRates[i] = random.nextBoolean() ? BigDecimal.ZERO : BigDecimal.valueOf(random.nextInt(1, 5_000), 2);
+            vatRates[i] = VAT_RATES[random.nextInt(VAT_RATES.length)];
+        }
+    }
+
+    @Benchmark
+    public BigDecimal[] legacyBigDecimal() {
+        return LegacyPricing.offer(unitPrices, quantities, discountRates, vatRates);
+    }
+
+    @Benchmark
+    public void fixedPoint(Blackhole blackhole) {
+        PricingEngine.Totals totals = new PricingEngine.Totals();
+        for (int i = 0; i < lines; i++) {
+            PricingEngine.Line line = PricingEngine.line(unitPrices[i], quantities[i], discountRates[i], vatRates[i]);
+            // OfferService her satır için tutarları OfferItem'a yazar
+            blackhole.consume(line.subtotal());
+            blackhole.consume(line.vatAmount());
+            blackhole.consume(line.total());
+            totals.add(line);
+        }
+        blackhole.consume(totals.total());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OfferPricingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.teklif.app.benchmark;
+
+import com.teklif.app.security.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rate limiter throughput under contention (64 threads): the legacy fixed-window
+ * map with an inline O(n) sweep versus {@link TokenBucketLimiter}.
+ * {@code hotKey} puts every thread on the same bucket; otherwise keys are spread
+ * over {@code keyCount} distinct clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class RateLimiterContentionBenchmark {
+
+    @Param({"true", "false"})
+    public boolean hotKey;
+
+    @Param({"10000"})
+    public int keyCount;
+
+    private String[] keys;
+    private TokenBucketLimiter limiter;
+    private ConcurrentHashMap<String, LegacyEntry> legacyMap;
+
+    @Setup
+    public void setup() {
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "10.0." + (i / 256) + "." + (i % 256) + ":/api/offers";
+        }
+        limiter = new TokenBucketLimiter(100, 100.0 / 60);
+        legacyMap = new ConcurrentHashMap<>();
+    }
+
+    private String nextKey() {
+        return hotKey ? keys[0] : keys[ThreadLocalRandom.current().nextInt(keyCount)];
+    }
+
+    @Benchmark
+    public long tokenBucket() {
+        return limiter.tryAcquire(nextKey());
+    }
+
+    @Benchmark
+    public boolean legacyFixedWindow() {
+        long currentTime = System.currentTimeMillis();
+        long windowStart = currentTime - 60_000L;
+        legacyMap.entrySet().removeIf(entry -> entry.getValue().timestamp() < windowStart);
+        LegacyEntry entry = legacyMap.computeIfAbsent(nextKey(),
+                k -> new LegacyEntry(currentTime, new AtomicInteger(0)));
+        return entry.count().incrementAndGet() > 100;
+    }
+
+    private record LegacyEntry(long timestamp, AtomicInteger count) {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterContentionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,173 @@
+package com.teklif.app.benchmark;
+
+import com.teklif.app.util.TenantContext;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Synthetic benchmark of request threading against a bounded connection pool; it does
+ * not start Spring or go through {@code OfferService}. Each of {@code concurrency}
+ * requests binds its tenant with {@link TenantContext}, borrows a connection from a
+ * Hikari pool of {@code poolSize} over in-memory H2, runs the keyset query of the
+ * offer listing (newest first, 20 rows) and holds the connection for {@code ioMillis}
+ * more to stand in for the round trip to a remote database.
+ * <p>
+ * Requests run on Tomcat's default 200 platform threads or on one virtual thread per
+ * request. Once requests are not limited by threads, the pool becomes the limit: at
+ * {@code poolSize} 10 both variants drain a burst in about
+ * {@code concurrency / poolSize * ioMillis}. Score is the time to drain one burst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int TENANTS = 50;
+    private static final int OFFERS_PER_TENANT = 200;
+
+    private static final String LIST_OFFERS = "SELECT id, offer_no, total, created_at FROM offers "
+            + "WHERE tenant_id = ? AND is_deleted = FALSE ORDER BY created_at DESC, id DESC LIMIT 20";
+
+    @Param({"1000"})
+    public int concurrency;
+
+    @Param({"20"})
+    public long ioMillis;
+
+    @Param({"10", "100"})
+    public int poolSize;
+
+    private HikariDataSource dataSource;
+    private ExecutorService platformPool;
+    private ExecutorService virtualThreads;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:threading-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(TimeUnit.MINUTES.toMillis(1));
+        dataSource = new HikariDataSource(config);
+        seed();
+
+        platformPool = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platformPool.shutdownNow();
+        virtualThreads.shutdownNow();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int platformThreads() throws Exception {
+        return burst(platformPool);
+    }
+
+    @Benchmark
+    public int virtualThreads() throws Exception {
+        return burst(virtualThreads);
+    }
+
+    private int burst(ExecutorService executor) throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String tenantId = "tenant-" + (i % TENANTS);
+            futures.add(executor.submit(() -> TenantContext.callWith(tenantId, () -> listOffers(tenantId))));
+        }
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get();
+        }
+        return total;
+    }
+
+    private int listOffers(String expectedTenant) throws SQLException, InterruptedException {
+        int rows = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(LIST_OFFERS)) {
+            statement.setString(1, TenantContext.getTenantId());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows++;
+                }
+            }
+            Thread.sleep(ioMillis);
+        }
+        if (!expectedTenant.equals(TenantContext.getTenantId())) {
+            throw new IllegalStateException("Tenant leaked across requests");
+        }
+        return rows;
+    }
+
+    private void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE offers (id VARCHAR(36) PRIMARY KEY, tenant_id VARCHAR(36) NOT NULL, "
+                        + "offer_no VARCHAR(32) NOT NULL, total DECIMAL(19, 4) NOT NULL, "
+                        + "created_at TIMESTAMP NOT NULL, is_deleted BOOLEAN NOT NULL)");
+                statement.execute("CREATE INDEX idx_offers_tenant_created ON offers (tenant_id, created_at, id)");
+            }
+            Instant now = Instant.now();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO offers (id, tenant_id, offer_no, total, created_at, is_deleted) "
+                            + "VALUES (?, ?, ?, ?, ?, FALSE)")) {
+                for (int t = 0; t < TENANTS; t++) {
+                    for (int i = 0; i < OFFERS_PER_TENANT; i++) {
+                        insert.setString(1, UUID.randomUUID().toString());
+                        insert.setString(2, "tenant-" + t);
+                        insert.setString(3, String.format("TKL-%02d-%04d", t, i));
+                        insert.setLong(4, 100L + i);
+                        insert.setTimestamp(5, Timestamp.from(now.minusSeconds(i)));
+                        insert.addBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequestThreadingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.teklif.app.benchmark;
+
+import com.teklif.app.util.TrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contains-search over one tenant with 1M offers or customers: a scan applying
+ * {@code LOWER(col) LIKE '%term%'} to every row (what MySQL does for the old query,
+ * minus I/O) versus {@link TrigramIndex}. The term matches a handful of rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx6g")
+public class SearchIndexBenchmark {
+
+    private static final String[] PREFIXES = {"TKL", "ABC", "ACM", "DMR", "YLD"};
+    private static final String[] NAMES = {"Ahmet", "Mehmet", "Ayşe", "Fatma", "Can", "Deniz", "Elif", "Burak"};
+    private static final String[] COMPANIES = {"Yıldız", "Demir", "Anadolu", "Ege", "Marmara", "Toros", "Kuzey"};
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"offers", "customers"})
+    public String kind;
+
+    private List<String[]> documents;
+    private TrigramIndex index;
+    private String term;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(11);
+        documents = new ArrayList<>(rows);
+        index = new TrigramIndex();
+        for (int i = 0; i < rows; i++) {
+            String[] fields = "offers".equals(kind) ? offerFields(random, i) : customerFields(random, i);
+            documents.add(fields);
+            index.put("id-" + i, fields);
+        }
+        term = "offers".equals(kind) ? "20250314-0042" : "firma4711";
+    }
+
+    @Benchmark
+    public Set<String> likeScan() {
+        String query = term.toLowerCase(Locale.ROOT);
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < documents.size(); i++) {
+            for (String field : documents.get(i)) {
+                if (field.toLowerCase(Locale.ROOT).contains(query)) {
+                    result.add("id-" + i);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Set<String> trigramIndex() {
+        return index.search(term, 2000);
+    }
+
+    private static String[] offerFields(Random random, int i) {
+        String day = String.format("2025%02d%02d", 1 + random.nextInt(12), 1 + random.nextInt(28));
+        return new String[]{PREFIXES[i % PREFIXES.length] + "-" + day + "-" + String.format("%04d", random.nextInt(1, 200))};
+    }
+
+    private static String[] customerFields(Random random, int i) {
+        String company = COMPANIES[random.nextInt(COMPANIES.length)] + " Firma" + i + " A.Ş.";
+        String contact = NAMES[random.nextInt(NAMES.length)] + " " + NAMES[random.nextInt(NAMES.length)];
+        String email = "info" + i + "@firma" + i + ".com.tr";
+        return new String[]{company, contact, email};
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
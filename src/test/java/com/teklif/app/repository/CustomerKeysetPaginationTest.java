@@ -0,0 +1,121 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.dto.response.PagedResponse;
+import com.teklif.app.entity.Customer;
+import com.teklif.app.enums.CustomerType;
+import com.teklif.app.exception.CustomException;
+import com.teklif.app.mapper.CustomerMapper;
+import com.teklif.app.service.ActivityLogService;
+import com.teklif.app.service.CustomerService;
+import com.teklif.app.service.PublicOfferCache;
+import com.teklif.app.service.SearchIndexService;
+import com.teklif.app.support.TestData;
+import com.teklif.app.util.KeysetCursor;
+import com.teklif.app.util.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerKeysetPaginationTest {
+
+    private static final int LIMIT = 7;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    private String tenantId;
+    private List<Customer> expected;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        tenantId = tenantRepository.save(TestData.acme().build()).getId();
+
+        // Aynı createdAt'e sahip kayıtlar: sayfa sınırı bir eşitlik grubunun ortasına düşmeli
+        Instant base = Instant.parse("2026-10-01T10:00:00Z");
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            customers.add(Customer.builder()
+                    .tenantId(tenantId).type(CustomerType.COMPANY)
+                    .contactPerson("Kişi " + i).email("c" + i + "@acme.test").isActive(true)
+                    .createdAt(base.plusSeconds(i / 4))
+                    .build());
+        }
+        expected = customerRepository.saveAll(customers).stream()
+                .sorted(Comparator.comparing(Customer::getCreatedAt).thenComparing(Customer::getId).reversed())
+                .toList();
+    }
+
+    @Test
+    void walksEveryRowOnceAcrossPagesWithTiedTimestamps() {
+        List<String> seen = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+
+        while (cursor != null) {
+            PagedResponse<Customer> page = fetch(cursor);
+            page.getItems().forEach(customer -> seen.add(customer.getId()));
+            assertThat(page.getPagination().getTotal()).isNull();
+            cursor = page.getPagination().getNextCursor();
+            assertThat(page.getPagination().getHasMore()).isEqualTo(cursor != null);
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(4);
+        assertThat(seen).containsExactlyElementsOf(expected.stream().map(Customer::getId).toList());
+    }
+
+    @Test
+    void exactMultipleOfLimitHasNoEmptyTrailingPage() {
+        customerRepository.deleteAll(expected.subList(21, 25));
+
+        PagedResponse<Customer> page = fetch("");
+        int pages = 1;
+        while (page.getPagination().getHasMore()) {
+            page = fetch(page.getPagination().getNextCursor());
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(page.getItems()).hasSize(LIMIT);
+    }
+
+    @Test
+    void cursorModeRejectsNonPositiveLimit() {
+        CustomerService customerService = new CustomerService(customerRepository, mock(CustomerMapper.class),
+                mock(ActivityLogService.class), mock(SearchIndexService.class), mock(PublicOfferCache.class));
+
+        try (TenantContext.Scope ignored = TenantContext.bind(tenantId)) {
+            assertThatThrownBy(() -> customerService.getAllCustomers(null, null, null, 1, 0, ""))
+                    .isInstanceOf(CustomException.class).hasMessage("Limit must be at least 1");
+        }
+    }
+
+    private PagedResponse<Customer> fetch(String cursor) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<Customer> rows = customerRepository.findAllWithFiltersAfter(
+                tenantId, null, null, null, null,
+                KeysetCursor.timestampOf(after), KeysetCursor.idOf(after), Limit.of(LIMIT + 1));
+        return KeysetCursor.page(rows, LIMIT,
+                customer -> new KeysetCursor(customer.getCreatedAt(), customer.getId()), customer -> customer);
+    }
+}
@@ -0,0 +1,240 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.enums.CustomerType;
+import com.teklif.app.enums.LogType;
+import com.teklif.app.enums.OfferStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts the WHERE clause generated for every filter combination: only the active
+ * filters appear, no {@code IS NULL} guards, and the tenant predicate always leads so
+ * the {@code (tenantId, <filter>, createdAt)} indexes apply.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.teklif.app.repository.ListingSpecificationsTest$CapturingInspector"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ListingSpecificationsTest {
+
+    private static final String TENANT = "tenant-1";
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant END = Instant.parse("2026-12-31T00:00:00Z");
+    // Boş ilk sayfa count sorgusunu atlar; ikinci sayfa hem satır hem count sorgusunu çalıştırır
+    private static final Pageable SECOND_PAGE = PageRequest.of(1, 10, Sort.by("createdAt").descending());
+    private static final Pageable SECOND_LOG_PAGE = PageRequest.of(1, 10, Sort.by("logDate").descending());
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @BeforeEach
+    void setUp() {
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void offerFiltersOnlyEmitActivePredicates() {
+        List<Filter> filters = List.of(
+                new Filter("offer_no", "search"),
+                new Filter("status", "status"),
+                new Filter("customer_id", "customerId"),
+                new Filter("created_at>=", "startDate"),
+                new Filter("created_at<=", "endDate"));
+
+        forEachCombination(filters, active -> {
+            offerRepository.findSummariesWithFilters(TENANT, null,
+                    value(active, "search", "TKL"),
+                    value(active, "status", OfferStatus.SENT),
+                    value(active, "customerId", "customer-1"),
+                    value(active, "startDate", START),
+                    value(active, "endDate", END),
+                    SECOND_PAGE);
+            assertShape(filters, active, 2);
+        });
+    }
+
+    @Test
+    void customerFiltersOnlyEmitActivePredicates() {
+        List<Filter> filters = List.of(
+                new Filter("company_name", "search"),
+                new Filter("type", "type"),
+                new Filter("is_active", "isActive"));
+
+        forEachCombination(filters, active -> {
+            customerRepository.findAllWithFilters(TENANT, null,
+                    value(active, "search", "acme"),
+                    value(active, "type", CustomerType.COMPANY),
+                    value(active, "isActive", Boolean.TRUE),
+                    SECOND_PAGE);
+            assertShape(filters, active, 2);
+        });
+    }
+
+    @Test
+    void productFiltersOnlyEmitActivePredicates() {
+        List<Filter> filters = List.of(
+                new Filter("code", "search"),
+                new Filter("category", "category"),
+                new Filter("is_active", "isActive"));
+
+        forEachCombination(filters, active -> {
+            productRepository.findAllWithFilters(TENANT,
+                    value(active, "search", "vida"),
+                    value(active, "category", "Donanım"),
+                    value(active, "isActive", Boolean.FALSE),
+                    SECOND_PAGE);
+            assertShape(filters, active, 2);
+        });
+    }
+
+    @Test
+    void activityLogFiltersOnlyEmitActivePredicates() {
+        List<Filter> filters = List.of(
+                new Filter("log_type", "logType"),
+                new Filter("target_id", "targetId"),
+                new Filter("log_date>=", "startDate"),
+                new Filter("log_date<=", "endDate"));
+
+        forEachCombination(filters, active -> {
+            activityLogRepository.findByTenantIdWithFilters(TENANT,
+                    value(active, "logType", LogType.OFFER_SENT),
+                    value(active, "targetId", "offer-1"),
+                    value(active, "startDate", START),
+                    value(active, "endDate", END),
+                    SECOND_LOG_PAGE);
+            assertShape(filters, active, 2);
+        });
+    }
+
+    @Test
+    void keysetQueryAddsSeekPredicateOnlyWithCursor() {
+        offerRepository.findSummariesWithFiltersAfter(TENANT, null, null, OfferStatus.SENT, null, null, null,
+                null, null, Limit.of(21));
+        assertThat(whereClause(single())).doesNotContain(" or ");
+
+        CapturingInspector.STATEMENTS.clear();
+        offerRepository.findSummariesWithFiltersAfter(TENANT, null, null, OfferStatus.SENT, null, null, null,
+                START, "offer-1", Limit.of(21));
+        String sql = single();
+        assertThat(whereClause(sql)).contains("created_at<?").contains("id<?").doesNotContain("is null");
+        // Projeksiyon sorgusunda Hibernate sıralamayı kolon numarasıyla yazabilir
+        assertThat(sql).containsPattern("order by (o1_0\\.created_at|\\d+) desc,(o1_0\\.id|\\d+) desc");
+    }
+
+    @Test
+    void indexedSearchReplacesLikeWithIdList() {
+        offerRepository.findSummariesWithFilters(TENANT, List.of("offer-1", "offer-2"), "TKL", null, null, null, null,
+                SECOND_PAGE);
+        for (String sql : CapturingInspector.STATEMENTS) {
+            assertThat(whereClause(sql)).contains(".id in (?,?)").doesNotContain("like");
+        }
+
+        CapturingInspector.STATEMENTS.clear();
+        customerRepository.findAllWithFilters(TENANT, List.of(), "acme", null, null, SECOND_PAGE);
+        for (String sql : CapturingInspector.STATEMENTS) {
+            assertThat(whereClause(sql)).contains("1<>1").doesNotContain("like");
+        }
+    }
+
+    private void assertShape(List<Filter> filters, List<String> active, int expectedStatements) {
+        List<String> statements = new ArrayList<>(CapturingInspector.STATEMENTS);
+        CapturingInspector.STATEMENTS.clear();
+        assertThat(statements).as("statements for %s", active).hasSize(expectedStatements);
+
+        for (String sql : statements) {
+            String where = whereClause(sql);
+            assertThat(where).as("%s: %s", active, sql)
+                    .doesNotContain("is null")
+                    .startsWith(where.substring(0, where.indexOf('.')) + ".tenant_id=?");
+            for (Filter filter : filters) {
+                if (active.contains(filter.name())) {
+                    assertThat(where).as("%s: %s", active, sql).contains(filter.column());
+                } else {
+                    assertThat(where).as("%s: %s", active, sql).doesNotContain(filter.column());
+                }
+            }
+            if (sql.startsWith("select count(")) {
+                assertThat(sql).as("count query must not fetch associations").doesNotContain(" join ");
+            }
+        }
+    }
+
+    private static String whereClause(String sql) {
+        String where = sql.substring(sql.indexOf(" where ") + " where ".length());
+        int orderBy = where.indexOf(" order by ");
+        where = orderBy >= 0 ? where.substring(0, orderBy) : where;
+        int offset = where.indexOf(" offset ");
+        where = offset >= 0 ? where.substring(0, offset) : where;
+        int fetch = where.indexOf(" fetch ");
+        return fetch >= 0 ? where.substring(0, fetch) : where;
+    }
+
+    private static String single() {
+        assertThat(CapturingInspector.STATEMENTS).hasSize(1);
+        return CapturingInspector.STATEMENTS.get(0);
+    }
+
+    private static <T> T value(List<String> active, String name, T value) {
+        return active.contains(name) ? value : null;
+    }
+
+    private static void forEachCombination(List<Filter> filters, Consumer<List<String>> check) {
+        for (int mask = 0; mask < 1 << filters.size(); mask++) {
+            List<String> active = new ArrayList<>();
+            for (int i = 0; i < filters.size(); i++) {
+                if ((mask & 1 << i) != 0) {
+                    active.add(filters.get(i).name());
+                }
+            }
+            check.accept(active);
+        }
+    }
+
+    /**
+     * @param column SQL fragment that appears in the WHERE clause only when the filter is set
+     */
+    private record Filter(String column, String name) {
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            String normalized = sql.toLowerCase(Locale.ROOT)
+                    .replaceFirst("^\\s*/\\*.*?\\*/", "")
+                    .replaceAll("\\s+", " ")
+                    .trim();
+            if (normalized.startsWith("select")) {
+                STATEMENTS.add(normalized);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.teklif.app.repository;
+
+import com.teklif.app.dto.response.OfferSummaryResponse;
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.OfferItem;
+import com.teklif.app.enums.CustomerType;
+import com.teklif.app.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OfferSummaryQueryTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String tenantId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM offer_items");
+        offerRepository.deleteAll();
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        tenantId = tenantRepository.save(TestData.acme().build()).getId();
+        Customer company = customerRepository.save(TestData.yildiz(tenantId).build());
+        Customer individual = customerRepository.save(Customer.builder()
+                .tenantId(tenantId).type(CustomerType.INDIVIDUAL).firstName("Ayşe").lastName("Demir")
+                .contactPerson("Ayşe").email("ayse@demir.test").isActive(true).build());
+
+        Instant base = Instant.parse("2026-10-01T10:00:00Z");
+        for (int i = 0; i < 30; i++) {
+            Offer offer = Offer.builder()
+                    .offerNo(String.format("TKL-20261001-%04d", i)).tenantId(tenantId)
+                    .customerId((i % 2 == 0 ? company : individual).getId()).currency("TRY")
+                    .subtotal(BigDecimal.valueOf(100)).vatTotal(BigDecimal.valueOf(20)).total(BigDecimal.valueOf(120))
+                    .exchangeRate(BigDecimal.ONE).createdAt(base.plusSeconds(i))
+                    .build();
+            for (int j = 0; j < 3; j++) {
+                offer.getItems().add(OfferItem.builder()
+                        .offer(offer).productName("Kalem " + j).quantity(1).unit("adet")
+                        .unitPrice(BigDecimal.TEN).vatRate(20).discountRate(BigDecimal.ZERO)
+                        .subtotal(BigDecimal.TEN).vatAmount(BigDecimal.TWO).total(BigDecimal.valueOf(12))
+                        .build());
+            }
+            offerRepository.save(offer);
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listPageIsOneProjectionQueryPlusCount() {
+        Page<OfferSummaryResponse> page = offerRepository.findSummariesWithFilters(tenantId, null, null, null, null,
+                null, null, PageRequest.of(0, 20, Sort.by("createdAt").descending()));
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+
+        OfferSummaryResponse newest = page.getContent().get(0);
+        assertThat(newest.getOfferNo()).isEqualTo("TKL-20261001-0029");
+        assertThat(newest.getCustomerName()).isEqualTo("Ayşe Demir");
+        assertThat(newest.getTotal()).isEqualByComparingTo("120");
+        assertThat(page.getContent().get(1).getCustomerName()).isEqualTo("Yıldız Yapı");
+    }
+
+    @Test
+    void recentOffersAreASingleQuery() {
+        List<OfferSummaryResponse> recent = offerRepository.findRecentSummaries(tenantId, 5);
+
+        assertThat(recent).extracting(OfferSummaryResponse::getOfferNo).containsExactly(
+                "TKL-20261001-0029", "TKL-20261001-0028", "TKL-20261001-0027",
+                "TKL-20261001-0026", "TKL-20261001-0025");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
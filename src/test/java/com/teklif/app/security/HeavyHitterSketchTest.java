@@ -0,0 +1,48 @@
+package com.teklif.app.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeavyHitterSketchTest {
+
+    @Test
+    void keepsTheHeaviestKeys() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(4, 1024, 2);
+        for (int i = 0; i < 50; i++) {
+            sketch.record("hot");
+        }
+        for (int i = 0; i < 20; i++) {
+            sketch.record("warm");
+        }
+        sketch.record("cold");
+
+        assertThat(sketch.currentWindow()).extracting(HeavyHitterSketch.HeavyHitter::key)
+                .containsExactly("hot", "warm");
+    }
+
+    @Test
+    void topKNeverGrowsBeyondKUnderContention() throws InterruptedException {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(4, 256, 3);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(16)) {
+            for (int t = 0; t < 16; t++) {
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 5_000; i++) {
+                        sketch.record("key-" + (i % 12));
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(sketch.currentWindow()).hasSizeLessThanOrEqualTo(3);
+    }
+}
@@ -0,0 +1,57 @@
+package com.teklif.app.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    void allowsBurstThenRejectsWithRetryAfter() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 1.0 / 60);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("client")).isZero();
+        }
+        assertThat(limiter.tryAcquire("client")).isPositive();
+        assertThat(limiter.tryAcquire("other")).isZero();
+    }
+
+    @Test
+    void neverGrantsMoreThanCapacityUnderContention() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1_000, 1.0 / 3600);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(64)) {
+            for (int t = 0; t < 64; t++) {
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire("hot") == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(granted.get()).isEqualTo(1_000);
+    }
+
+    @Test
+    void evictIdleKeepsActiveBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1.0 / 60);
+        limiter.tryAcquire("active");
+
+        assertThat(limiter.evictIdle()).isZero();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,174 @@
+package com.teklif.app.service;
+
+import com.teklif.app.dto.response.OfferSummaryResponse;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.enums.OfferStatus;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.JobLeaseRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.OfferSnapshotRepository;
+import com.teklif.app.repository.TenantOfferStatsRepository;
+import com.teklif.app.repository.TenantRepository;
+import com.teklif.app.support.TestData;
+import com.teklif.app.util.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardServiceTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private OfferSnapshotRepository offerSnapshotRepository;
+    @Autowired
+    private TenantOfferStatsRepository statsRepository;
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TenantOfferStatsReconciler reconciler;
+    private TenantContext.Scope tenantScope;
+    private String tenantId;
+    private String customerId;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM offer_items");
+        offerSnapshotRepository.deleteAll();
+        offerRepository.deleteAll();
+        statsRepository.deleteAll();
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        tenantId = tenantRepository.save(TestData.acme().build()).getId();
+        customerId = customerRepository.save(TestData.yildiz(tenantId).build()).getId();
+        String otherTenantId = tenantRepository.save(Tenant.builder()
+                .name("Beta").slug("beta").taxNumber("2").email("b@beta.test").isActive(true).build()).getId();
+
+        seed(tenantId, OfferStatus.DRAFT, 100, 3, false);
+        seed(tenantId, OfferStatus.SENT, 200, 2, false);
+        seed(tenantId, OfferStatus.VIEWED, 50, 1, false);
+        seed(tenantId, OfferStatus.ACCEPTED, 1000, 2, false);
+        seed(tenantId, OfferStatus.REJECTED, 10, 1, false);
+        seed(tenantId, OfferStatus.EXPIRED, 10, 1, false);
+        seed(tenantId, OfferStatus.ACCEPTED, 5000, 1, true);
+        seed(otherTenantId, OfferStatus.ACCEPTED, 7000, 1, false);
+
+        // Teklifler repository ile eklendi; istatistik satırlarını ilk uzlaştırma oluşturur
+        reconciler = new TenantOfferStatsReconciler(tenantRepository, offerRepository, statsRepository,
+                new JobLeaseService(jobLeaseRepository, transactionManager, "node-a"), transactionManager,
+                new SimpleMeterRegistry(), true, 60);
+
+        tenantScope = TenantContext.bind(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tenantScope.close();
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void countsOffersUntilTheFirstReconcileCompletes() {
+        // Yeni bir teklif delta ile yalnızca kendi satırını oluşturmuş olabilir
+        jdbcTemplate.update("INSERT INTO tenant_offer_stats (tenant_id, status, currency, offer_count, total_amount, "
+                + "updated_at) VALUES (?, 'DRAFT', 'TRY', 1, 100, CURRENT_TIMESTAMP)", tenantId);
+        assertThat(reconciler.isBackfilled()).isFalse();
+
+        assertExpectedStats(dashboard().getDashboardStats("month"));
+    }
+
+    @Test
+    void statsAreReadFromTheReadModelPlusRecentOffers() {
+        assertThat(reconciler.run()).isEqualTo(7);
+        assertThat(reconciler.isBackfilled()).isTrue();
+        jdbcTemplate.update("DELETE FROM offers WHERE status = 'DRAFT'");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<String, Object> stats = dashboard().getDashboardStats("month");
+
+        // Silinen taslaklar hâlâ sayılıyor: değerler okuma modelinden geliyor
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertExpectedStats(stats);
+        @SuppressWarnings("unchecked")
+        List<OfferSummaryResponse> recent = (List<OfferSummaryResponse>) stats.get("recentOffers");
+        assertThat(recent).hasSize(5);
+    }
+
+    @Test
+    void emptyTenantHasZeroStats() {
+        assertThat(reconciler.run()).isEqualTo(7);
+        offerRepository.deleteAll();
+        assertThat(reconciler.reconcile(tenantId)).isEqualTo(6);
+
+        Map<String, Object> stats = dashboard().getDashboardStats("month");
+
+        assertThat(stats).containsEntry("totalOffers", 0L)
+                .containsEntry("acceptedOffers", 0L)
+                .containsEntry("totalRevenue", 0.0);
+    }
+
+    private DashboardService dashboard() {
+        return new DashboardService(offerRepository, statsRepository, reconciler);
+    }
+
+    private static void assertExpectedStats(Map<String, Object> stats) {
+        assertThat(stats).containsEntry("totalOffers", 10L)
+                .containsEntry("draftOffers", 3L)
+                .containsEntry("sentOffers", 2L)
+                .containsEntry("viewedOffers", 1L)
+                .containsEntry("acceptedOffers", 2L)
+                .containsEntry("rejectedOffers", 1L)
+                .containsEntry("expiredOffers", 1L)
+                .containsEntry("acceptedRevenue", 2000.0)
+                .containsEntry("pendingRevenue", 450.0)
+                .containsEntry("totalRevenue", 2450.0);
+    }
+
+    private void seed(String tenant, OfferStatus status, int total, int count, boolean deleted) {
+        for (int i = 0; i < count; i++) {
+            Offer offer = Offer.builder()
+                    .offerNo(String.format("TKL-20261018-%04d", ++sequence)).tenantId(tenant).customerId(customerId)
+                    .currency("TRY").status(status)
+                    .subtotal(BigDecimal.valueOf(total)).vatTotal(BigDecimal.ZERO).total(BigDecimal.valueOf(total))
+                    .exchangeRate(BigDecimal.ONE)
+                    .build();
+            offer.setIsDeleted(deleted);
+            offerRepository.save(offer);
+        }
+    }
+}
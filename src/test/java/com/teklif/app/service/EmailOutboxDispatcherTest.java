@@ -0,0 +1,168 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.EmailOutbox;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.enums.CustomerType;
+import com.teklif.app.enums.OutboxStatus;
+import com.teklif.app.repository.EmailOutboxRepository;
+import com.teklif.app.repository.JobLeaseRepository;
+import com.teklif.app.repository.TenantRepository;
+import com.teklif.app.support.TestData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxDispatcherTest {
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SmtpTestServer server;
+    private SmtpTransportPool transportPool;
+    private final List<EmailOutboxDispatcher> dispatchers = new ArrayList<>();
+    private Tenant tenant;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cleanUp();
+        server = new SmtpTestServer();
+        transportPool = new SmtpTransportPool(meterRegistry, 5_000, 5_000, 60);
+        tenant = tenantRepository.save(TestData.acme()
+                .name("Acme Yapı").slug("acme-mail")
+                .smtpHost("127.0.0.1").smtpPort(server.port())
+                .fromEmail("teklif@acme.test").fromName("Acme Yapı").build());
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        dispatchers.forEach(EmailOutboxDispatcher::shutdown);
+        outboxRepository.deleteAll();
+        jobLeaseRepository.deleteAll();
+        if (transportPool != null) {
+            transportPool.shutdown();
+        }
+        if (server != null) {
+            server.close();
+        }
+        if (tenant != null) {
+            tenantRepository.deleteById(tenant.getId());
+        }
+    }
+
+    @Test
+    void sendsABatchOverAFewReusedConnections() {
+        for (int i = 0; i < 6; i++) {
+            enqueue("musteri" + i + "@test.com");
+        }
+        EmailOutboxDispatcher dispatcher = dispatcher(0);
+
+        assertThat(dispatcher.dispatch()).isEqualTo(6);
+        assertThat(server.messages()).hasSize(6);
+        assertThat(server.connections()).isEqualTo(2);
+        assertThat(outboxRepository.countByStatus(OutboxStatus.SENT)).isEqualTo(6);
+
+        enqueue("sonraki@test.com");
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        assertThat(server.connections()).isEqualTo(2);
+        assertThat(meterRegistry.get("offer.mail.sent").counter().count()).isEqualTo(7);
+        assertThat(meterRegistry.get("offer.mail.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void transientFailureIsRetriedAfterBackoff() {
+        EmailOutbox mail = enqueue("musteri@test.com");
+        server.failNextMessages(1);
+
+        assertThat(dispatcher(3600).dispatch()).isZero();
+        EmailOutbox retried = outboxRepository.findById(mail.getId()).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getNextAttemptAt()).isAfter(Instant.now().plusSeconds(3000));
+        assertThat(retried.getLastError()).contains("451");
+
+        // Bekleme süresi dolmadan tekrar denenmez
+        assertThat(dispatcher(3600).dispatch()).isZero();
+        assertThat(server.messages()).isEmpty();
+
+        retried.setNextAttemptAt(Instant.now());
+        outboxRepository.save(retried);
+        assertThat(dispatcher(0).dispatch()).isEqualTo(1);
+        assertThat(outboxRepository.findById(mail.getId()).orElseThrow().getStatus()).isEqualTo(OutboxStatus.SENT);
+    }
+
+    @Test
+    void rejectedRecipientFailsWithoutRetry() {
+        EmailOutbox rejected = enqueue("reject@test.com");
+        EmailOutbox accepted = enqueue("musteri@test.com");
+
+        assertThat(dispatcher(0).dispatch()).isEqualTo(1);
+
+        EmailOutbox failed = outboxRepository.findById(rejected.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(outboxRepository.findById(accepted.getId()).orElseThrow().getStatus())
+                .isEqualTo(OutboxStatus.SENT);
+        assertThat(meterRegistry.get("offer.mail.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void offerSentMailLinksToThePublicOffer() {
+        Customer customer = TestData.yildiz(tenant.getId()).companyName("Yıldız Şantiye").build();
+        Offer offer = Offer.builder()
+                .id("offer-1").offerNo("ABC-20261018-0001").tenantId(tenant.getId())
+                .customer(customer).tenant(tenant).build();
+
+        new EmailOutboxService(outboxRepository, "https://teklif.test/offer").enqueueOfferSent(offer);
+        offer.setCustomer(Customer.builder().type(CustomerType.INDIVIDUAL).build());
+        new EmailOutboxService(outboxRepository, "https://teklif.test/offer").enqueueOfferSent(offer);
+
+        List<EmailOutbox> queued = outboxRepository.findAll();
+        assertThat(queued).singleElement().satisfies(mail -> {
+            assertThat(mail.getRecipient()).isEqualTo("ali@yildiz.test");
+            assertThat(mail.getOfferId()).isEqualTo("offer-1");
+            assertThat(mail.getBody()).contains("Sayın Yıldız Şantiye", "https://teklif.test/offer/" + offer.getUuid());
+        });
+
+        assertThat(dispatcher(0).dispatch()).isEqualTo(1);
+        assertThat(server.messages().get(0)).contains("From: =?UTF-8?");
+    }
+
+    private EmailOutbox enqueue(String recipient) {
+        return outboxRepository.save(EmailOutbox.builder()
+                .tenantId(tenant.getId()).offerId("offer").recipient(recipient)
+                .subject("Teklif").body("Merhaba").nextAttemptAt(Instant.now().minusSeconds(1)).build());
+    }
+
+    private EmailOutboxDispatcher dispatcher(long backoffSeconds) {
+        EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(outboxRepository, tenantRepository, transportPool,
+                new JobLeaseService(jobLeaseRepository, transactionManager, "node-a"),
+                transactionManager, meterRegistry, true, 100, 4, 2, 3, backoffSeconds, backoffSeconds, 60);
+        dispatchers.add(dispatcher);
+        return dispatcher;
+    }
+}
@@ -0,0 +1,107 @@
+package com.teklif.app.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExchangeRateServiceTest {
+
+    private static final String BULLETIN = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <Tarih_Date Tarih="16.10.2026" Date="10/16/2026" Bulten_No="2026/198">
+              <Currency CrossOrder="0" Kod="USD" CurrencyCode="USD">
+                <Unit>1</Unit><Isim>ABD DOLARI</Isim>
+                <ForexBuying>41.7012</ForexBuying><ForexSelling>41.7763</ForexSelling>
+              </Currency>
+              <Currency CrossOrder="9" Kod="EUR" CurrencyCode="EUR">
+                <Unit>1</Unit><Isim>EURO</Isim>
+                <ForexBuying>48.6120</ForexBuying><ForexSelling>48.6996</ForexSelling>
+              </Currency>
+              <Currency CrossOrder="10" Kod="JPY" CurrencyCode="JPY">
+                <Unit>100</Unit><Isim>JAPON YENİ</Isim>
+                <ForexBuying>27.5310</ForexBuying><ForexSelling>27.7133</ForexSelling>
+              </Currency>
+              <Currency CrossOrder="20" Kod="XDR" CurrencyCode="XDR">
+                <Unit>1</Unit><Isim>ÖZEL ÇEKME HAKKI (SDR)</Isim>
+                <ForexBuying>57.1050</ForexBuying><ForexSelling></ForexSelling>
+              </Currency>
+            </Tarih_Date>
+            """;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void readsTheBulletinFromAFile(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("today.xml");
+        Files.writeString(file, BULLETIN);
+        ExchangeRateService service = new ExchangeRateService(
+                new TcmbExchangeRateProvider(file.toUri().toString(), 1_000), meterRegistry, 72);
+
+        assertThat(service.rateToTry("USD")).isEmpty();
+        service.refresh();
+
+        assertThat(service.rateToTry("usd")).hasValueSatisfying(rate -> assertThat(rate).isEqualByComparingTo("41.7763"));
+        assertThat(service.rateToTry("JPY")).hasValueSatisfying(rate -> assertThat(rate).isEqualByComparingTo("0.277133"));
+        assertThat(service.rateToTry("TRY")).contains(BigDecimal.ONE);
+        assertThat(service.rateToTry("XDR")).isEmpty();
+        assertThat(service.current().toTry()).containsOnlyKeys("USD", "EUR", "JPY", "TRY");
+    }
+
+    @Test
+    void failedRefreshKeepsThePreviousSnapshot() throws Exception {
+        AtomicInteger status = new AtomicInteger(200);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/kurlar/today.xml", exchange -> {
+            byte[] body = BULLETIN.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        ExchangeRateService service = new ExchangeRateService(new TcmbExchangeRateProvider(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/kurlar/today.xml", 1_000), meterRegistry, 72);
+
+        service.refresh();
+        ExchangeRateService.Rates first = service.current();
+        status.set(503);
+        service.refresh();
+
+        assertThat(service.current()).isSameAs(first);
+        assertThat(service.rateToTry("EUR")).hasValueSatisfying(rate -> assertThat(rate).isEqualByComparingTo("48.6996"));
+        assertThat(meterRegistry.get("exchange.rate.refresh").tag("result", "success").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("exchange.rate.refresh").tag("result", "failure").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void staleRatesAreNotUsed() throws Exception {
+        ExchangeRateService service = new ExchangeRateService(() -> Map.of("USD", BigDecimal.TEN), meterRegistry, 0);
+        service.refresh();
+        Thread.sleep(5);
+
+        assertThat(service.rateToTry("USD")).isEmpty();
+        assertThat(service.rateToTry("TRY")).contains(BigDecimal.ONE);
+    }
+}
@@ -0,0 +1,306 @@
+package com.teklif.app.service;
+
+import com.teklif.app.dto.response.OfferItemResponse;
+import com.teklif.app.dto.response.OfferResponse;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.OfferItem;
+import com.teklif.app.entity.Product;
+import com.teklif.app.entity.ProductFile;
+import com.teklif.app.mapper.OfferMapperImpl;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.OfferSnapshotRepository;
+import com.teklif.app.repository.ProductFileRepository;
+import com.teklif.app.repository.ProductRepository;
+import com.teklif.app.repository.TenantRepository;
+import com.teklif.app.support.TestData;
+import com.teklif.app.util.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The offer detail and public reads run outside a transaction here, so any lazy access
+ * the fetch plan missed would fail instead of issuing an extra query.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OfferDetailFetchPlanTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductFileRepository productFileRepository;
+    @Autowired
+    private OfferSnapshotRepository offerSnapshotRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PublicOfferCache publicOfferCache = new PublicOfferCache(meterRegistry, 100, 300);
+    private final AtomicReference<BigDecimal> usdRate = new AtomicReference<>(new BigDecimal("41.5"));
+    private final ExchangeRateService exchangeRateService =
+            new ExchangeRateService(() -> Map.of("USD", usdRate.get()), meterRegistry, 72);
+    private OfferService offerService;
+    private Statistics statistics;
+    private TenantContext.Scope tenantScope;
+    private String tenantId;
+    private String customerId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM offer_items");
+        offerSnapshotRepository.deleteAll();
+        offerRepository.deleteAll();
+        productFileRepository.deleteAll();
+        productRepository.deleteAll();
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        tenantId = tenantRepository.save(TestData.acme().build()).getId();
+        customerId = customerRepository.save(TestData.yildiz(tenantId).build()).getId();
+        tenantScope = TenantContext.bind(tenantId);
+
+        offerService = OfferServiceBuilder.offerService(offerRepository, customerRepository)
+                .productFiles(productFileRepository)
+                .mapper(new OfferMapperImpl())
+                .publicOfferCache(publicOfferCache)
+                .snapshots(new OfferSnapshotService(offerSnapshotRepository, objectMapper, true))
+                .exchangeRates(exchangeRateService)
+                .build();
+        exchangeRateService.refresh();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tenantScope.close();
+    }
+
+    @Test
+    void detailQueryCountDoesNotGrowWithItems() {
+        Offer small = createOffer("ABC-20261018-0001", 2);
+        Offer large = createOffer("ABC-20261018-0002", 60);
+
+        statistics.clear();
+        OfferResponse smallResponse = offerService.getOfferById(small.getId());
+        long smallStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        OfferResponse largeResponse = offerService.getOfferById(large.getId());
+        long largeStatements = statistics.getPrepareStatementCount();
+
+        assertThat(smallStatements).isEqualTo(2);
+        assertThat(largeStatements).isEqualTo(smallStatements);
+        assertThat(smallResponse.getItems()).hasSize(3);
+        assertThat(largeResponse.getItems()).hasSize(61);
+        assertThat(largeResponse.getCustomer()).isNotNull();
+        assertThat(largeResponse.getCompany()).isNotNull();
+
+        for (OfferItemResponse item : largeResponse.getItems()) {
+            if (item.getProductId() == null) {
+                assertThat(item.getFiles()).isNull();
+            } else {
+                // Silinmiş dosya gelmemeli
+                assertThat(item.getFiles()).singleElement()
+                        .satisfies(file -> assertThat(file.getFileName()).isEqualTo("gorsel.png"));
+            }
+        }
+    }
+
+    @Test
+    void draftPublicReadUsesTheSamePlanAndIsCached() {
+        Offer offer = createOffer("ABC-20261018-0003", 40);
+
+        statistics.clear();
+        OfferSnapshotService.Rendered first = offerService.getPublicOffer(offer.getUuid());
+
+        // Taslağın snapshot'ı yok: snapshot araması + detay planı
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(items(first)).hasSize(41);
+
+        statistics.clear();
+        OfferSnapshotService.Rendered second = offerService.getPublicOffer(offer.getUuid());
+        assertThat(items(offerService.getOffer(offer.getUuid()))).hasSize(41);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(second.etag()).isEqualTo(first.etag()).startsWith("\"").endsWith("\"");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "offer.public").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void sentOfferIsServedFromItsSnapshotWithoutLoadingEntities() {
+        Offer offer = createOffer("ABC-20261018-0004", 5);
+        inTransaction(() -> offerService.sendOffer(offer.getId()));
+
+        statistics.clear();
+        OfferSnapshotService.Rendered payload = offerService.getPublicOffer(offer.getUuid());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(Offer.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getEntityStatistics(OfferItem.class.getName()).getLoadCount()).isZero();
+        assertThat(payload.gzipped()).isTrue();
+        assertThat(json(payload).path("data").path("status").asString()).isEqualTo("SENT");
+        assertThat(items(payload)).hasSize(6);
+    }
+
+    @Test
+    void snapshotIsFrozenUntilReRendered() {
+        Offer offer = createOffer("ABC-20261018-0005", 1);
+        inTransaction(() -> offerService.sendOffer(offer.getId()));
+        OfferSnapshotService.Rendered sent = offerService.getPublicOffer(offer.getUuid());
+
+        String productId = offer.getItems().get(0).getProductId();
+        productFileRepository.save(file(productRepository.findById(productId).orElseThrow(), "yeni.png", false));
+        publicOfferCache.evictProduct(productId);
+        assertThat(offerService.getPublicOffer(offer.getUuid()).etag()).isEqualTo(sent.etag());
+
+        inTransaction(() -> offerService.rerenderSnapshot(offer.getId()));
+        OfferSnapshotService.Rendered rerendered = offerService.getPublicOffer(offer.getUuid());
+
+        assertThat(rerendered.etag()).isNotEqualTo(sent.etag());
+        // Kalem sırası garanti değil; ürünlü kalem id'sinden bulunur
+        JsonNode productItem = items(rerendered).stream()
+                .filter(item -> productId.equals(item.path("productId").asString()))
+                .findFirst().orElseThrow();
+        assertThat(productItem.path("files")).hasSize(2);
+    }
+
+    @Test
+    void stateTransitionsReRenderTheSnapshot() {
+        Offer offer = createOffer("ABC-20261018-0006", 2);
+        inTransaction(() -> offerService.sendOffer(offer.getId()));
+        OfferSnapshotService.Rendered before = offerService.getPublicOffer(offer.getUuid());
+
+        inTransaction(() -> offerService.acceptOffer(offer.getUuid(), "Ali", null));
+        statistics.clear();
+        OfferSnapshotService.Rendered after = offerService.getPublicOffer(offer.getUuid());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(json(after).path("data").path("acceptedBy").asString()).isEqualTo("Ali");
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+    }
+
+    @Test
+    void passwordProtectedLinkServesOnlyThePrompt() {
+        Offer offer = createOffer("ABC-20261018-0007", 2);
+        jdbcTemplate.update("UPDATE offers SET link_password = 'gizli' WHERE id = ?", offer.getId());
+
+        OfferSnapshotService.Rendered payload = offerService.getPublicOffer(offer.getUuid());
+
+        assertThat(json(payload).path("data").path("passwordRequired").asBoolean()).isTrue();
+        assertThat(json(payload).path("data").path("items").isMissingNode()
+                || json(payload).path("data").path("items").isNull()).isTrue();
+        assertThat(items(offerService.getOffer(offer.getUuid()))).hasSize(3);
+    }
+
+    @Test
+    void sentOfferKeepsTheRateStampedAtSend() {
+        Offer offer = createOffer("ABC-20261018-0008", 1);
+        jdbcTemplate.update("UPDATE offers SET currency = 'USD', exchange_rate = 0, show_tl_equivalent = true, " +
+                "subtotal = 100, vat_total = 20, total = 120 WHERE id = ?", offer.getId());
+
+        // Taslak güncel kurla gösterilir
+        JsonNode draft = json(offerService.getPublicOffer(offer.getUuid())).path("data");
+        assertThat(draft.path("exchangeRate").decimalValue()).isEqualByComparingTo("41.5");
+        assertThat(draft.path("totalTl").decimalValue()).isEqualByComparingTo("4980.00");
+
+        inTransaction(() -> offerService.sendOffer(offer.getId()));
+        assertThat(offerRepository.findById(offer.getId()).orElseThrow().getExchangeRate())
+                .isEqualByComparingTo("41.5");
+
+        usdRate.set(new BigDecimal("45"));
+        exchangeRateService.refresh();
+        publicOfferCache.evictOffer(offer.getUuid());
+
+        JsonNode sent = json(offerService.getPublicOffer(offer.getUuid())).path("data");
+        assertThat(sent.path("exchangeRate").decimalValue()).isEqualByComparingTo("41.5");
+        assertThat(sent.path("subtotalTl").decimalValue()).isEqualByComparingTo("4150.00");
+        assertThat(sent.path("totalTl").decimalValue()).isEqualByComparingTo("4980.00");
+    }
+
+    private JsonNode json(OfferSnapshotService.Rendered payload) {
+        return objectMapper.readTree(payload.json());
+    }
+
+    private List<JsonNode> items(OfferSnapshotService.Rendered payload) {
+        List<JsonNode> items = new ArrayList<>();
+        json(payload).path("data").path("items").forEach(items::add);
+        return items;
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+
+    private Offer createOffer(String offerNo, int productItems) {
+        Offer offer = Offer.builder()
+                .offerNo(offerNo).tenantId(tenantId).customerId(customerId).currency("TRY")
+                .subtotal(BigDecimal.ZERO).vatTotal(BigDecimal.ZERO).total(BigDecimal.ZERO)
+                .exchangeRate(BigDecimal.ONE)
+                .build();
+        for (int i = 0; i < productItems; i++) {
+            Product product = productRepository.save(Product.builder()
+                    .tenantId(tenantId).code(offerNo + "-" + i).name("Ürün " + i)
+                    .unitPrice(BigDecimal.TEN).currency("TRY").vatRate(20).unit("adet").isActive(true)
+                    .build());
+            productFileRepository.save(file(product, "gorsel.png", false));
+            productFileRepository.save(file(product, "eski.png", true));
+            offer.getItems().add(item(offer, product.getId(), product.getName()));
+        }
+        offer.getItems().add(item(offer, null, "Serbest kalem"));
+        return offerRepository.save(offer);
+    }
+
+    private OfferItem item(Offer offer, String productId, String name) {
+        return OfferItem.builder()
+                .offer(offer).productId(productId).productName(name).quantity(1).unit("adet")
+                .unitPrice(BigDecimal.TEN).vatRate(20).discountRate(BigDecimal.ZERO)
+                .subtotal(BigDecimal.TEN).vatAmount(BigDecimal.TWO).total(BigDecimal.valueOf(12))
+                .build();
+    }
+
+    private ProductFile file(Product product, String name, boolean deleted) {
+        return ProductFile.builder()
+                .productId(product.getId()).tenantId(tenantId).fileName(name).filePath("/files/" + name)
+                .fileSize(1024L).fileType("image/png").fileExtension("png").category(ProductFile.FileType.IMAGE)
+                .isDeleted(deleted)
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.TenantOfferStats;
+import com.teklif.app.entity.User;
+import com.teklif.app.enums.OfferStatus;
+import com.teklif.app.enums.Role;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.JobLeaseRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.OfferSnapshotRepository;
+import com.teklif.app.repository.TenantOfferStatsRepository;
+import com.teklif.app.repository.TenantRepository;
+import com.teklif.app.repository.UserRepository;
+import com.teklif.app.support.TestData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OfferExpiryJobTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OfferSnapshotRepository offerSnapshotRepository;
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+    @Autowired
+    private TenantOfferStatsRepository statsRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, Offer> offers = new HashMap<>();
+    private String tenantId;
+    private String customerId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        jdbcTemplate.update("DELETE FROM offer_items");
+        offerSnapshotRepository.deleteAll();
+        offerRepository.deleteAll();
+        statsRepository.deleteAll();
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        tenantId = tenantRepository.save(TestData.acme().build()).getId();
+        customerId = customerRepository.save(TestData.yildiz(tenantId).build()).getId();
+        for (String name : new String[]{"ayse", "mehmet"}) {
+            userRepository.save(User.builder()
+                    .tenantId(tenantId).email(name + "@acme.test").password("x").firstName(name).lastName("Acme")
+                    .role(Role.TENANT_USER).isActive(true).build());
+        }
+
+        Instant past = Instant.now().minus(Duration.ofDays(2));
+        Instant future = Instant.now().plus(Duration.ofDays(2));
+        for (int i = 0; i < 7; i++) {
+            seed("sent-" + i, OfferStatus.SENT, past, false);
+        }
+        seed("viewed", OfferStatus.VIEWED, past.minus(Duration.ofHours(1)), false);
+        seed("draft", OfferStatus.DRAFT, past, false);
+        seed("accepted", OfferStatus.ACCEPTED, past, false);
+        seed("future", OfferStatus.SENT, future, false);
+        seed("deleted", OfferStatus.SENT, past, true);
+    }
+
+    // Diğer testler kiracı ve teklifleri siliyor; onlara bağlı satırlar burada kalmamalı
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM notification_reads");
+        jdbcTemplate.update("DELETE FROM notifications");
+        jdbcTemplate.update("DELETE FROM activity_logs");
+        jobLeaseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void expiresPastDueSentAndViewedOffersInChunks() {
+        JobLeaseService leaseService = new JobLeaseService(jobLeaseRepository, transactionManager, "node-a");
+        OfferExpiryJob job = job(leaseService);
+        TenantOfferStatsReconciler reconciler = new TenantOfferStatsReconciler(tenantRepository, offerRepository,
+                statsRepository, leaseService, transactionManager, meterRegistry, true, 60);
+        reconciler.reconcile(tenantId);
+
+        assertThat(job.run()).isEqualTo(8);
+
+        assertThat(status("sent-0")).isEqualTo(OfferStatus.EXPIRED);
+        assertThat(status("sent-6")).isEqualTo(OfferStatus.EXPIRED);
+        assertThat(status("viewed")).isEqualTo(OfferStatus.EXPIRED);
+        assertThat(status("draft")).isEqualTo(OfferStatus.DRAFT);
+        assertThat(status("accepted")).isEqualTo(OfferStatus.ACCEPTED);
+        assertThat(status("future")).isEqualTo(OfferStatus.SENT);
+        assertThat(status("deleted")).isEqualTo(OfferStatus.SENT);
+        assertThat(offerRepository.findById(offers.get("viewed").getId()).orElseThrow().getVersion())
+                .isEqualTo(offers.get("viewed").getVersion() + 1);
+
+        assertThat(count("SELECT COUNT(*) FROM notifications WHERE type = 'OFFER_EXPIRED'")).isEqualTo(8);
+        assertThat(count("SELECT COUNT(*) FROM notification_reads")).isEqualTo(16);
+        assertThat(count("SELECT COUNT(*) FROM activity_logs WHERE target_id = ?", offers.get("viewed").getId()))
+                .isEqualTo(1);
+
+        assertThat(meterRegistry.get("offer.expiry.processed").counter().count()).isEqualTo(8);
+
+        // Toplu UPDATE istatistiği aynı transaction'da taşır; uzlaştırma sapma bulmaz
+        assertThat(statsRepository.findByTenantId(tenantId))
+                .extracting(TenantOfferStats::getStatus, TenantOfferStats::getOfferCount)
+                .containsExactlyInAnyOrder(tuple(OfferStatus.SENT, 1L), tuple(OfferStatus.VIEWED, 0L),
+                        tuple(OfferStatus.EXPIRED, 8L), tuple(OfferStatus.DRAFT, 1L),
+                        tuple(OfferStatus.ACCEPTED, 1L));
+        assertThat(reconciler.reconcile(tenantId)).isZero();
+        assertThat(meterRegistry.get("offer.expiry.lag").gauge().value()).isZero();
+
+        // İkinci çalıştırmada işlenecek teklif kalmaz, bildirim tekrarlanmaz
+        assertThat(job.run()).isZero();
+        assertThat(count("SELECT COUNT(*) FROM notifications")).isEqualTo(8);
+    }
+
+    @Test
+    void onlyTheLeaseHolderRuns() {
+        JobLeaseService nodeA = new JobLeaseService(jobLeaseRepository, transactionManager, "node-a");
+        JobLeaseService nodeB = new JobLeaseService(jobLeaseRepository, transactionManager, "node-b");
+        assertThat(nodeA.tryAcquire(OfferExpiryJob.LEASE, Duration.ofMinutes(5))).isTrue();
+
+        assertThat(job(nodeB).run()).isEqualTo(-1);
+        assertThat(status("sent-0")).isEqualTo(OfferStatus.SENT);
+
+        nodeA.release(OfferExpiryJob.LEASE);
+        assertThat(job(nodeB).run()).isEqualTo(8);
+        assertThat(nodeA.tryAcquire(OfferExpiryJob.LEASE, Duration.ofMinutes(5))).isFalse();
+    }
+
+    private OfferExpiryJob job(JobLeaseService leaseService) {
+        return new OfferExpiryJob(offerRepository, userRepository,
+                new OfferSnapshotService(offerSnapshotRepository, new ObjectMapper(), true),
+                new PublicOfferCache(meterRegistry, 100, 300),
+                new TenantOfferStatsService(statsRepository), leaseService, jdbcTemplate,
+                transactionManager,
+                meterRegistry, true, 3, 60);
+    }
+
+    private void seed(String key, OfferStatus status, Instant validUntil, boolean deleted) {
+        Offer offer = Offer.builder()
+                .offerNo("ABC-20261018-" + key).tenantId(tenantId).customerId(customerId).currency("TRY")
+                .subtotal(BigDecimal.ZERO).vatTotal(BigDecimal.ZERO).total(BigDecimal.ZERO)
+                .exchangeRate(BigDecimal.ONE).status(status).validUntil(validUntil)
+                .build();
+        offer.setIsDeleted(deleted);
+        offers.put(key, offerRepository.save(offer));
+    }
+
+    private OfferStatus status(String key) {
+        return offerRepository.findById(offers.get(key).getId()).orElseThrow().getStatus();
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,161 @@
+package com.teklif.app.service;
+
+import com.teklif.app.dto.response.OfferImportResponse;
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.entity.TenantOfferStats;
+import com.teklif.app.enums.OfferStatus;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.TenantOfferStatsRepository;
+import com.teklif.app.repository.TenantRepository;
+import com.teklif.app.support.TestData;
+import com.teklif.app.util.TenantContext;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OfferImportServiceTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private TenantOfferStatsRepository statsRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OfferImportService importService;
+    private Tenant tenant;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM offer_items");
+        offerRepository.deleteAll();
+        statsRepository.deleteAll();
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        tenant = tenantRepository.save(TestData.acme().build());
+        customer = customerRepository.save(TestData.yildiz(tenant.getId()).build());
+
+        OfferService offerService = mock(OfferService.class);
+        AtomicInteger sequence = new AtomicInteger();
+        when(offerService.generateOfferNo()).thenAnswer(i -> "IMP-20261018-" + sequence.incrementAndGet());
+
+        importService = new OfferImportService(customerRepository, offerRepository, offerService,
+                mock(ActivityLogService.class), mock(SearchIndexService.class),
+                new TenantOfferStatsService(statsRepository), jdbcTemplate, transactionManager,
+                JsonMapper.builder().build(), Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+    }
+
+    @Test
+    void importsNdjsonInChunksAndReportsBadRows() {
+        String item = "{\"productName\":\"Vida\",\"quantity\":3,\"unit\":\"adet\",\"unitPrice\":10.50,\"vatRate\":20}";
+        String body = String.join("\n",
+                "{\"offerNo\":\"OLD-1\",\"customerId\":\"" + customer.getId() + "\",\"currency\":\"TRY\",\"items\":[" + item + "," + item + "]}",
+                "{\"customerId\":\"missing\",\"currency\":\"TRY\",\"items\":[" + item + "]}",
+                "not json",
+                "",
+                "{\"customerId\":\"" + customer.getId() + "\",\"currency\":\"TRY\",\"items\":[]}",
+                "{\"customerId\":\"" + customer.getId() + "\",\"currency\":\"EUR\",\"status\":\"ACCEPTED\",\"items\":[" + item + "]}",
+                "{\"offerNo\":\"OLD-1\",\"customerId\":\"" + customer.getId() + "\",\"currency\":\"TRY\",\"items\":[" + item + "]}",
+                "{\"customerId\":\"" + customer.getId() + "\",\"currency\":\"TRY\",\"items\":[" + item + "]}");
+
+        OfferImportResponse response = run(body, OfferImportService.Format.NDJSON);
+
+        assertThat(response.getTotalRows()).isEqualTo(7);
+        assertThat(response.getImportedOffers()).isEqualTo(3);
+        assertThat(response.getImportedItems()).isEqualTo(4);
+        assertThat(response.getFailedRows()).isEqualTo(4);
+        assertThat(response.getErrors()).extracting(OfferImportResponse.RowError::getRow).containsExactly(2L, 3L, 5L, 7L);
+
+        Offer imported = offerRepository.findAll().stream()
+                .filter(o -> o.getOfferNo().equals("OLD-1")).findFirst().orElseThrow();
+        assertThat(imported.getTenantId()).isEqualTo(tenant.getId());
+        assertThat(imported.getSubtotal()).isEqualByComparingTo(new BigDecimal("63.00"));
+        assertThat(imported.getTotal()).isEqualByComparingTo(new BigDecimal("75.60"));
+
+        assertThat(statsRepository.findByTenantId(tenant.getId()))
+                .extracting(TenantOfferStats::getStatus, TenantOfferStats::getCurrency, TenantOfferStats::getOfferCount)
+                .containsExactlyInAnyOrder(tuple(OfferStatus.DRAFT, "TRY", 2L), tuple(OfferStatus.ACCEPTED, "EUR", 1L));
+    }
+
+    @Test
+    void importsCsvGroupedByOfferRef() {
+        String body = String.join("\r\n",
+                "offerRef,customerId,currency,productName,description,quantity,unit,unitPrice,vatRate,discountRate",
+                "A," + customer.getId() + ",TRY,Vida,\"Paslanmaz, 4mm\",2,adet,5.00,20,10",
+                "A," + customer.getId() + ",TRY,Somun,,4,adet,1.25,20,",
+                "B," + customer.getId() + ",TRY,Pul,,abc,adet,1,20,",
+                "C," + customer.getId() + ",USD,Civata,\"Çok \"\"uzun\"\"\nsatır\",1,adet,100,0,");
+
+        OfferImportResponse response = run(body, OfferImportService.Format.CSV);
+
+        assertThat(response.getTotalRows()).isEqualTo(3);
+        assertThat(response.getImportedOffers()).isEqualTo(2);
+        assertThat(response.getImportedItems()).isEqualTo(3);
+        assertThat(response.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getRow()).isEqualTo(4L));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT description FROM offer_items WHERE product_name = 'Civata'", String.class))
+                .isEqualTo("Çok \"uzun\"\nsatır");
+    }
+
+    @Test
+    void databaseRejectionFailsOnlyTheOffendingRows() {
+        String item = "{\"productName\":\"Vida\",\"quantity\":1,\"unit\":\"adet\",\"unitPrice\":10,\"vatRate\":20}";
+        String unknownProduct = "{\"productId\":\"missing\",\"productName\":\"Somun\",\"quantity\":1,"
+                + "\"unit\":\"adet\",\"unitPrice\":10,\"vatRate\":20}";
+        String body = String.join("\n",
+                "{\"customerId\":\"" + customer.getId() + "\",\"currency\":\"TRY\",\"items\":[" + item + "]}",
+                "{\"customerId\":\"" + customer.getId() + "\",\"currency\":\"TRY\",\"items\":[" + unknownProduct + "]}",
+                "{\"customerId\":\"" + customer.getId() + "\",\"currency\":\"TRY\",\"items\":[" + item + "]}");
+
+        OfferImportResponse response = run(body, OfferImportService.Format.NDJSON);
+
+        assertThat(response.getImportedOffers()).isEqualTo(2);
+        assertThat(response.getFailedRows()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2L);
+            assertThat(error.getMessage()).startsWith("Rejected by database");
+        });
+        assertThat(offerRepository.count()).isEqualTo(2);
+        assertThat(statsRepository.findByTenantId(tenant.getId()))
+                .extracting(TenantOfferStats::getOfferCount).containsExactly(2L);
+    }
+
+    private OfferImportResponse run(String body, OfferImportService.Format format) {
+        try (TenantContext.Scope ignored = TenantContext.bind(tenant.getId())) {
+            return importService.importOffers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.teklif.app.service;
+
+import com.teklif.app.dto.request.CreateOfferRequest;
+import com.teklif.app.dto.request.OfferItemRequest;
+import com.teklif.app.dto.request.OfferItemsPatchRequest;
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.OfferItem;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.enums.NotificationType;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.TenantRepository;
+import com.teklif.app.support.TestData;
+import com.teklif.app.util.PricingEngine;
+import com.teklif.app.util.TenantContext;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OfferItemUpdateTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private OfferService offerService;
+    private Statistics statistics;
+    private TenantContext.Scope tenantScope;
+    private Offer offer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM offer_items");
+        offerRepository.deleteAll();
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        Tenant tenant = tenantRepository.save(TestData.acme().build());
+        Customer customer = customerRepository.save(TestData.yildiz(tenant.getId()).build());
+        tenantScope = TenantContext.bind(tenant.getId());
+
+        offer = Offer.builder()
+                .offerNo("ABC-20261018-0001").tenantId(tenant.getId()).customerId(customer.getId()).currency("TRY")
+                .subtotal(BigDecimal.ZERO).vatTotal(BigDecimal.ZERO).exchangeRate(BigDecimal.ONE).total(BigDecimal.ZERO)
+                .build();
+        PricingEngine.Totals totals = new PricingEngine.Totals();
+        for (int i = 1; i <= 3; i++) {
+            OfferItemRequest request = itemRequest(null, "Kalem " + i, i);
+            PricingEngine.Line line = PricingEngine.line(request.getUnitPrice(), request.getQuantity(), request.getDiscountRate(), request.getVatRate());
+            offer.getItems().add(OfferItem.builder()
+                    .offer(offer).productName(request.getProductName()).quantity(request.getQuantity()).unit("adet")
+                    .unitPrice(request.getUnitPrice()).vatRate(20).discountRate(request.getDiscountRate())
+                    .subtotal(line.subtotal()).vatAmount(line.vatAmount()).total(line.total())
+                    .build());
+            totals.add(line);
+        }
+        offer.setSubtotal(totals.subtotal());
+        offer.setVatTotal(totals.vatTotal());
+        offer.setTotal(totals.total());
+        offer = offerRepository.saveAndFlush(offer);
+
+        offerService = OfferServiceBuilder.offerService(offerRepository, customerRepository)
+                .notifications(notificationService)
+                .build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tenantScope.close();
+    }
+
+    @Test
+    void unchangedItemsProduceNoWrites() {
+        List<OfferItemRequest> items = currentItems();
+
+        inTransaction(() -> offerService.updateOffer(offer.getId(), updateRequest(items)));
+
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+    }
+
+    @Test
+    void onlyChangedAddedAndRemovedItemsAreWritten() {
+        List<OfferItemRequest> items = currentItems();
+        String removedId = items.remove(2).getId();
+        items.get(0).setQuantity(10);
+        items.add(itemRequest(null, "Yeni", 1));
+
+        inTransaction(() -> offerService.updateOffer(offer.getId(), updateRequest(items)));
+
+        // Bir kalem + teklif toplamları güncellenir, bir kalem eklenir, bir kalem silinir
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+
+        Set<String> ids = itemIds();
+        assertThat(ids).hasSize(3).doesNotContain(removedId).contains(items.get(0).getId(), items.get(1).getId());
+        assertThat(offerRepository.findById(offer.getId()).orElseThrow().getSubtotal())
+                .isEqualByComparingTo("1300.00");
+    }
+
+    @Test
+    void patchTouchesOnlyTheGivenItems() {
+        List<OfferItemRequest> items = currentItems();
+        OfferItemRequest changed = items.get(1);
+        changed.setUnitPrice(new BigDecimal("175.00"));
+        OfferItemsPatchRequest patch = new OfferItemsPatchRequest();
+        patch.setUpsert(List.of(changed));
+        patch.setRemove(List.of(items.get(0).getId()));
+
+        inTransaction(() -> offerService.patchOfferItems(offer.getId(), patch));
+
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+        assertThat(itemIds()).containsExactlyInAnyOrder(items.get(1).getId(), items.get(2).getId());
+        verify(notificationService).createNotificationForOffer(eq(offer.getId()), eq(offer.getTenantId()),
+                eq(NotificationType.OFFER_UPDATED), anyString(), anyString());
+    }
+
+    private List<OfferItemRequest> currentItems() {
+        List<OfferItemRequest> result = new ArrayList<>();
+        for (OfferItem item : offer.getItems()) {
+            result.add(itemRequest(item.getId(), item.getProductName(), item.getQuantity()));
+        }
+        return result;
+    }
+
+    private Set<String> itemIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM offer_items", String.class).stream().collect(Collectors.toSet());
+    }
+
+    private void inTransaction(Runnable action) {
+        statistics.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+
+    private CreateOfferRequest updateRequest(List<OfferItemRequest> items) {
+        CreateOfferRequest request = new CreateOfferRequest();
+        request.setCustomerId(offer.getCustomerId());
+        request.setCurrency(offer.getCurrency());
+        request.setItems(items);
+        return request;
+    }
+
+    private static OfferItemRequest itemRequest(String id, String name, int quantity) {
+        OfferItemRequest request = new OfferItemRequest();
+        request.setId(id);
+        request.setProductName(name);
+        request.setQuantity(quantity);
+        request.setUnit("adet");
+        request.setUnitPrice(new BigDecimal("100.00"));
+        request.setVatRate(20);
+        request.setDiscountRate(BigDecimal.ZERO);
+        return request;
+    }
+}
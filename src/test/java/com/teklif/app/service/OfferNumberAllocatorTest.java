@@ -0,0 +1,119 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.OfferNumberSequenceRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.TenantRepository;
+import com.teklif.app.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OfferNumberAllocatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 18);
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private OfferNumberSequenceRepository sequenceRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Tenant tenant;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        offerRepository.deleteAll();
+        sequenceRepository.deleteAll();
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        tenant = tenantRepository.save(TestData.acme().build());
+        customer = customerRepository.save(TestData.yildiz(tenant.getId()).build());
+    }
+
+    @Test
+    void hundredThreadsOnTwoNodesCreateOffersWithoutCollisions() throws Exception {
+        // İki ayrı allocator iki uygulama node'unu temsil eder
+        List<OfferNumberAllocator> nodes = List.of(newAllocator(), newAllocator());
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(100)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                OfferNumberAllocator node = nodes.get(i % 2);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    tx.executeWithoutResult(status -> {
+                        String offerNo = node.next("ABC", DAY);
+                        offerRepository.saveAndFlush(offer(offerNo));
+                        issued.add(offerNo);
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(issued).hasSize(100).allMatch(no -> no.startsWith("ABC-20261018-"));
+        assertThat(offerRepository.count()).isEqualTo(100);
+    }
+
+    @Test
+    void continuesAfterNumbersIssuedBeforeTheSequenceExisted() {
+        offerRepository.saveAndFlush(offer("ABC-20261018-0007"));
+
+        assertThat(newAllocator().next("ABC", DAY)).isEqualTo("ABC-20261018-0008");
+    }
+
+    private OfferNumberAllocator newAllocator() {
+        return new OfferNumberAllocator(sequenceRepository, offerRepository, transactionManager, 5);
+    }
+
+    private Offer offer(String offerNo) {
+        return Offer.builder()
+                .offerNo(offerNo)
+                .tenantId(tenant.getId())
+                .customerId(customer.getId())
+                .currency("TRY")
+                .subtotal(BigDecimal.ZERO)
+                .vatTotal(BigDecimal.ZERO)
+                .exchangeRate(BigDecimal.ONE)
+                .total(BigDecimal.ZERO)
+                .build();
+    }
+}
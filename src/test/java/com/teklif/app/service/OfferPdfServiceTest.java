@@ -0,0 +1,194 @@
+package com.teklif.app.service;
+
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import com.teklif.app.dto.request.OfferItemRequest;
+import com.teklif.app.dto.request.OfferItemsPatchRequest;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.OfferItem;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.enums.OfferStatus;
+import com.teklif.app.exception.CustomException;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.OfferSnapshotRepository;
+import com.teklif.app.repository.TenantRepository;
+import com.teklif.app.support.TestData;
+import com.teklif.app.util.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OfferPdfServiceTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private OfferSnapshotRepository offerSnapshotRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OfferPdfService pdfService;
+    private TenantContext.Scope tenantScope;
+    private Tenant tenant;
+    private Offer offer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM offer_items");
+        offerSnapshotRepository.deleteAll();
+        offerRepository.deleteAll();
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        tenant = tenantRepository.save(TestData.acme().name("Acme Yapı").primaryColor("#C0392B").template("modern").build());
+        String customerId = customerRepository.save(TestData.yildiz(tenant.getId()).companyName("Yıldız Şantiye").build())
+                .getId();
+        Offer draft = Offer.builder()
+                .offerNo("ABC-20261018-0001").tenantId(tenant.getId()).customerId(customerId).currency("TRY")
+                .subtotal(BigDecimal.valueOf(200)).vatTotal(BigDecimal.valueOf(40)).total(BigDecimal.valueOf(240))
+                .exchangeRate(BigDecimal.ONE).status(OfferStatus.SENT).sentAt(Instant.now())
+                .notes("Teslimat iki hafta içinde")
+                .build();
+        draft.getItems().add(OfferItem.builder()
+                .offer(draft).productName("Çelik Profil").quantity(2).unit("adet")
+                .unitPrice(BigDecimal.valueOf(100)).vatRate(20).discountRate(BigDecimal.ZERO)
+                .subtotal(BigDecimal.valueOf(200)).vatAmount(BigDecimal.valueOf(40)).total(BigDecimal.valueOf(240))
+                .build());
+        offer = offerRepository.save(draft);
+
+        pdfService = new OfferPdfService(offerRepository, new OfferPdfRenderer(directory.toString()),
+                transactionManager, meterRegistry, directory.resolve("pdf").toString(), 2, 10, 10_000, 30);
+        tenantScope = TenantContext.bind(tenant.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        tenantScope.close();
+        pdfService.shutdown();
+    }
+
+    @Test
+    void prewarmedPdfIsServedFromDiskWithoutRenderingAgain() throws Exception {
+        pdfService.prewarm(offer.getId(), tenant.getId());
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (meterRegistry.get("offer.pdf.render").timer().count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        OfferPdfService.Pdf first = pdfService.getPdf(offer.getId());
+        OfferPdfService.Pdf second = pdfService.getPdf(offer.getId());
+
+        assertThat(second).isEqualTo(first);
+        assertThat(first.fileName()).isEqualTo("ABC-20261018-0001.pdf");
+        assertThat(meterRegistry.get("offer.pdf.render").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("offer.pdf.requests").tag("result", "hit").counter().count()).isEqualTo(2);
+
+        PdfReader reader = new PdfReader(Files.readAllBytes(first.path()));
+        String text = new PdfTextExtractor(reader).getTextFromPage(1);
+        reader.close();
+        assertThat(text).contains("ABC-20261018-0001", "Yıldız Şantiye", "Çelik Profil", "240,00 TRY");
+    }
+
+    @Test
+    void offerAndBrandingChangesRenderANewFile() {
+        OfferPdfService.Pdf original = pdfService.getPdf(offer.getId());
+
+        tenant.setPrimaryColor("#27AE60");
+        tenantRepository.save(tenant);
+        OfferPdfService.Pdf rebranded = pdfService.getPdf(offer.getId());
+
+        Offer changed = offerRepository.findById(offer.getId()).orElseThrow();
+        changed.setNotes("Fiyatlara nakliye dahildir");
+        offerRepository.save(changed);
+        OfferPdfService.Pdf edited = pdfService.getPdf(offer.getId());
+
+        // Toplamı değiştirmeyen kalem düzenlemesi de yeni dosya üretmeli
+        OfferItem line = offer.getItems().get(0);
+        OfferItemRequest describedLine = new OfferItemRequest();
+        describedLine.setId(line.getId());
+        describedLine.setProductName(line.getProductName());
+        describedLine.setDescription("Galvanizli");
+        describedLine.setQuantity(line.getQuantity());
+        describedLine.setUnit(line.getUnit());
+        describedLine.setUnitPrice(line.getUnitPrice());
+        describedLine.setVatRate(line.getVatRate());
+        describedLine.setDiscountRate(line.getDiscountRate());
+        OfferItemsPatchRequest patch = new OfferItemsPatchRequest();
+        patch.setUpsert(List.of(describedLine));
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> offerService().patchOfferItems(offer.getId(), patch));
+        OfferPdfService.Pdf itemEdited = pdfService.getPdf(offer.getId());
+
+        assertThat(rebranded.etag()).isNotEqualTo(original.etag());
+        assertThat(edited.etag()).isNotIn(original.etag(), rebranded.etag());
+        assertThat(itemEdited.etag()).isNotIn(original.etag(), rebranded.etag(), edited.etag());
+        assertThat(itemEdited.path()).exists();
+        assertThat(meterRegistry.get("offer.pdf.render").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    void publicPdfRequiresTheLinkPassword() {
+        Offer protectedOffer = offerRepository.findById(offer.getId()).orElseThrow();
+        protectedOffer.setLinkPassword("1234");
+        offerRepository.save(protectedOffer);
+
+        assertThatThrownBy(() -> pdfService.getPublicPdf(offer.getUuid(), "yanlış"))
+                .isInstanceOf(CustomException.class).hasMessage("Invalid offer password");
+        assertThat(pdfService.getPublicPdf(offer.getUuid(), "1234").path()).exists();
+    }
+
+    @Test
+    void oneTimePublicPdfIsClosedOnceViewed() {
+        Offer oneTime = offerRepository.findById(offer.getId()).orElseThrow();
+        oneTime.setOneTimeView(true);
+        offerRepository.save(oneTime);
+        assertThat(pdfService.getPublicPdf(offer.getUuid(), null).path()).exists();
+
+        Offer viewed = offerRepository.findById(offer.getId()).orElseThrow();
+        viewed.setHasBeenViewed(true);
+        offerRepository.save(viewed);
+
+        assertThatThrownBy(() -> pdfService.getPublicPdf(offer.getUuid(), null))
+                .isInstanceOf(CustomException.class).hasMessage("This offer has already been viewed");
+    }
+
+    private OfferService offerService() {
+        return OfferServiceBuilder.offerService(offerRepository, customerRepository)
+                .pdfs(pdfService)
+                .build();
+    }
+}
@@ -0,0 +1,256 @@
+package com.teklif.app.service;
+
+import com.teklif.app.controller.OfferController;
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.TenantOfferStats;
+import com.teklif.app.enums.NotificationType;
+import com.teklif.app.enums.OfferStatus;
+import com.teklif.app.exception.CustomException;
+import com.teklif.app.mapper.OfferMapperImpl;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.JobLeaseRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.OfferSnapshotRepository;
+import com.teklif.app.repository.ProductFileRepository;
+import com.teklif.app.repository.TenantOfferStatsRepository;
+import com.teklif.app.repository.TenantRepository;
+import com.teklif.app.support.TestData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OfferPublicTransitionTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private ProductFileRepository productFileRepository;
+    @Autowired
+    private OfferSnapshotRepository offerSnapshotRepository;
+    @Autowired
+    private TenantOfferStatsRepository statsRepository;
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private OfferService offerService;
+    private TenantOfferStatsReconciler reconciler;
+    private Offer offer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM offer_items");
+        offerSnapshotRepository.deleteAll();
+        offerRepository.deleteAll();
+        statsRepository.deleteAll();
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        String tenantId = tenantRepository.save(TestData.acme().build()).getId();
+        String customerId = customerRepository.save(TestData.yildiz(tenantId).build()).getId();
+        offer = offerRepository.save(Offer.builder()
+                .offerNo("ABC-20261018-0001").tenantId(tenantId).customerId(customerId).currency("TRY")
+                .subtotal(BigDecimal.ZERO).vatTotal(BigDecimal.ZERO).total(new BigDecimal("1250.00"))
+                .exchangeRate(BigDecimal.ONE).status(OfferStatus.SENT)
+                .build());
+        reconciler = new TenantOfferStatsReconciler(tenantRepository, offerRepository, statsRepository,
+                new JobLeaseService(jobLeaseRepository, transactionManager, "node-a"), transactionManager,
+                new SimpleMeterRegistry(), true, 60);
+        reconciler.reconcile(tenantId);
+
+        offerService = OfferServiceBuilder.offerService(offerRepository, customerRepository)
+                .productFiles(productFileRepository)
+                .mapper(new OfferMapperImpl())
+                .notifications(notificationService)
+                .publicOfferCache(new PublicOfferCache(new SimpleMeterRegistry(), 100, 300))
+                .snapshots(new OfferSnapshotService(offerSnapshotRepository, new ObjectMapper(), true))
+                .stats(new TenantOfferStatsService(statsRepository))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentViewsNotifyOnce() throws Exception {
+        List<Boolean> results = runConcurrently(8, () -> inTransaction(() ->
+                offerService.recordOfferView(offer.getUuid(), viewRequest("Ayşe"))));
+
+        assertThat(results).containsOnly(true);
+        verify(notificationService, times(1)).createNotificationForOffer(
+                eq(offer.getId()), anyString(), eq(NotificationType.OFFER_VIEWED), anyString(), anyString());
+
+        Offer viewed = offerRepository.findById(offer.getId()).orElseThrow();
+        assertThat(viewed.getStatus()).isEqualTo(OfferStatus.VIEWED);
+        assertThat(viewed.getHasBeenViewed()).isTrue();
+        assertThat(viewed.getVersion()).isEqualTo(offer.getVersion() + 1);
+        assertThat(offerSnapshotRepository.findByUuid(offer.getUuid())).isPresent();
+        assertThat(statsRepository.findByTenantId(offer.getTenantId()))
+                .extracting(TenantOfferStats::getStatus, TenantOfferStats::getOfferCount)
+                .containsExactlyInAnyOrder(tuple(OfferStatus.SENT, 0L), tuple(OfferStatus.VIEWED, 1L));
+        assertThat(reconciler.reconcile(offer.getTenantId())).isZero();
+    }
+
+    @Test
+    void onlyOneOfConcurrentAcceptAndRejectWins() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<Boolean> results = runConcurrently(8, () -> {
+            boolean accept = calls.getAndIncrement() % 2 == 0;
+            try {
+                inTransaction(() -> {
+                    if (accept) {
+                        offerService.acceptOffer(offer.getUuid(), "Ali", null);
+                    } else {
+                        offerService.rejectOffer(offer.getUuid(), "Ali", "Pahalı");
+                    }
+                    return true;
+                });
+                return true;
+            } catch (CustomException e) {
+                return false;
+            }
+        });
+
+        assertThat(results).containsOnlyOnce(true);
+        verify(notificationService, times(1)).createNotificationForOffer(
+                eq(offer.getId()), anyString(), any(), anyString(), anyString());
+        assertThat(offerRepository.findById(offer.getId()).orElseThrow().getStatus())
+                .isIn(OfferStatus.ACCEPTED, OfferStatus.REJECTED);
+        assertThat(reconciler.reconcile(offer.getTenantId())).isZero();
+    }
+
+    @Test
+    void closedOffersCannotBeAcceptedOrViewedBackIntoViewed() {
+        inTransaction(() -> {
+            offerService.rejectOffer(offer.getUuid(), "Ali", null);
+            return null;
+        });
+
+        assertThatThrownBy(() -> inTransaction(() -> {
+            offerService.acceptOffer(offer.getUuid(), "Ali", null);
+            return null;
+        })).isInstanceOf(CustomException.class).hasMessage("Offer has already been rejected");
+
+        inTransaction(() -> offerService.recordOfferView(offer.getUuid(), viewRequest("Ayşe")));
+        assertThat(offerRepository.findById(offer.getId()).orElseThrow().getStatus()).isEqualTo(OfferStatus.REJECTED);
+        assertThat(reconciler.reconcile(offer.getTenantId())).isZero();
+    }
+
+    @Test
+    void acceptMovesStatsFromTheObservedStatus() {
+        inTransaction(() -> offerService.recordOfferView(offer.getUuid(), viewRequest("Ayşe")));
+        inTransaction(() -> {
+            offerService.acceptOffer(offer.getUuid(), "Ali", null);
+            return null;
+        });
+
+        assertThat(statsRepository.findByTenantId(offer.getTenantId()))
+                .extracting(TenantOfferStats::getStatus, TenantOfferStats::getOfferCount)
+                .containsExactlyInAnyOrder(tuple(OfferStatus.SENT, 0L), tuple(OfferStatus.VIEWED, 0L),
+                        tuple(OfferStatus.ACCEPTED, 1L));
+        assertThat(reconciler.reconcile(offer.getTenantId())).isZero();
+    }
+
+    @Test
+    void expiredOffersCannotBeRejected() {
+        jdbcTemplate.update("UPDATE offers SET status = 'EXPIRED' WHERE id = ?", offer.getId());
+
+        assertThatThrownBy(() -> inTransaction(() -> {
+            offerService.rejectOffer(offer.getUuid(), "Ali", null);
+            return null;
+        })).isInstanceOf(CustomException.class).hasMessage("Offer has already been expired");
+    }
+
+    @Test
+    void staleReadModifyWriteFailsOptimistically() {
+        Offer stale = offerRepository.findById(offer.getId()).orElseThrow();
+        inTransaction(() -> offerService.recordOfferView(offer.getUuid(), viewRequest("Ayşe")));
+
+        stale.setNotes("eski kopya");
+        assertThatThrownBy(() -> offerRepository.save(stale)).isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    private OfferController.ViewRequest viewRequest(String name) {
+        OfferController.ViewRequest request = new OfferController.ViewRequest();
+        request.setName(name);
+        return request;
+    }
+
+    private <T> T inTransaction(Callable<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            try {
+                return action.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static <T> List<T> runConcurrently(int threads, Callable<T> action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return action.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.teklif.app.service;
+
+import com.teklif.app.mapper.OfferMapper;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.ProductFileRepository;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@link OfferService} for tests over real repositories; every collaborator a test
+ * does not set is a Mockito mock.
+ */
+final class OfferServiceBuilder {
+
+    private final OfferRepository offerRepository;
+    private final CustomerRepository customerRepository;
+    private ProductFileRepository productFileRepository = mock(ProductFileRepository.class);
+    private OfferMapper offerMapper = mock(OfferMapper.class);
+    private NotificationService notificationService = mock(NotificationService.class);
+    private PublicOfferCache publicOfferCache = mock(PublicOfferCache.class);
+    private OfferSnapshotService offerSnapshotService = mock(OfferSnapshotService.class);
+    private OfferPdfService offerPdfService = mock(OfferPdfService.class);
+    private ExchangeRateService exchangeRateService = mock(ExchangeRateService.class);
+    private TenantOfferStatsService offerStatsService = mock(TenantOfferStatsService.class);
+
+    private OfferServiceBuilder(OfferRepository offerRepository, CustomerRepository customerRepository) {
+        this.offerRepository = offerRepository;
+        this.customerRepository = customerRepository;
+    }
+
+    static OfferServiceBuilder offerService(OfferRepository offerRepository, CustomerRepository customerRepository) {
+        return new OfferServiceBuilder(offerRepository, customerRepository);
+    }
+
+    OfferServiceBuilder productFiles(ProductFileRepository productFileRepository) {
+        this.productFileRepository = productFileRepository;
+        return this;
+    }
+
+    OfferServiceBuilder mapper(OfferMapper offerMapper) {
+        this.offerMapper = offerMapper;
+        return this;
+    }
+
+    OfferServiceBuilder notifications(NotificationService notificationService) {
+        this.notificationService = notificationService;
+        return this;
+    }
+
+    OfferServiceBuilder publicOfferCache(PublicOfferCache publicOfferCache) {
+        this.publicOfferCache = publicOfferCache;
+        return this;
+    }
+
+    OfferServiceBuilder snapshots(OfferSnapshotService offerSnapshotService) {
+        this.offerSnapshotService = offerSnapshotService;
+        return this;
+    }
+
+    OfferServiceBuilder pdfs(OfferPdfService offerPdfService) {
+        this.offerPdfService = offerPdfService;
+        return this;
+    }
+
+    OfferServiceBuilder exchangeRates(ExchangeRateService exchangeRateService) {
+        this.exchangeRateService = exchangeRateService;
+        return this;
+    }
+
+    OfferServiceBuilder stats(TenantOfferStatsService offerStatsService) {
+        this.offerStatsService = offerStatsService;
+        return this;
+    }
+
+    OfferService build() {
+        return new OfferService(offerRepository, customerRepository, productFileRepository, offerMapper,
+                notificationService, mock(ActivityLogService.class), mock(OfferNumberAllocator.class),
+                mock(SearchIndexService.class), publicOfferCache, offerSnapshotService, offerPdfService,
+                mock(EmailOutboxService.class), exchangeRateService, offerStatsService);
+    }
+}
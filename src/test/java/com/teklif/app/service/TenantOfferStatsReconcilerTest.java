@@ -0,0 +1,178 @@
+package com.teklif.app.service;
+
+import com.teklif.app.entity.Offer;
+import com.teklif.app.entity.TenantOfferStats;
+import com.teklif.app.enums.OfferStatus;
+import com.teklif.app.mapper.OfferMapperImpl;
+import com.teklif.app.repository.CustomerRepository;
+import com.teklif.app.repository.JobLeaseRepository;
+import com.teklif.app.repository.OfferRepository;
+import com.teklif.app.repository.OfferSnapshotRepository;
+import com.teklif.app.repository.ProductFileRepository;
+import com.teklif.app.repository.TenantOfferStatsRepository;
+import com.teklif.app.repository.TenantRepository;
+import com.teklif.app.support.TestData;
+import com.teklif.app.util.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TenantOfferStatsReconcilerTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private ProductFileRepository productFileRepository;
+    @Autowired
+    private OfferSnapshotRepository offerSnapshotRepository;
+    @Autowired
+    private TenantOfferStatsRepository statsRepository;
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TenantOfferStatsReconciler reconciler;
+    private String tenantId;
+    private String customerId;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM offer_items");
+        offerSnapshotRepository.deleteAll();
+        offerRepository.deleteAll();
+        statsRepository.deleteAll();
+        customerRepository.deleteAll();
+        tenantRepository.deleteAll();
+
+        tenantId = tenantRepository.save(TestData.acme().build()).getId();
+        customerId = customerRepository.save(TestData.yildiz(tenantId).build()).getId();
+
+        reconciler = new TenantOfferStatsReconciler(tenantRepository, offerRepository, statsRepository,
+                new JobLeaseService(jobLeaseRepository, transactionManager, "node-a"), transactionManager,
+                meterRegistry, true, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void repairsDriftedMissingAndOrphanedRows() {
+        seed(OfferStatus.SENT, "TRY", "100.00");
+        seed(OfferStatus.SENT, "TRY", "50.00");
+        seed(OfferStatus.SENT, "USD", "10.00");
+        seed(OfferStatus.ACCEPTED, "TRY", "700.00");
+        assertThat(reconciler.run()).isEqualTo(3);
+        assertThat(reconciler.run()).isZero();
+
+        jdbcTemplate.update("UPDATE tenant_offer_stats SET offer_count = 9, total_amount = 1 "
+                + "WHERE status = 'SENT' AND currency = 'TRY'");
+        jdbcTemplate.update("DELETE FROM tenant_offer_stats WHERE currency = 'USD'");
+        jdbcTemplate.update("INSERT INTO tenant_offer_stats (tenant_id, status, currency, offer_count, total_amount, "
+                + "updated_at) VALUES (?, 'REJECTED', 'EUR', 2, 40, CURRENT_TIMESTAMP)", tenantId);
+
+        assertThat(reconciler.run()).isEqualTo(3);
+
+        assertThat(statsRepository.findByTenantId(tenantId))
+                .extracting(TenantOfferStats::getStatus, TenantOfferStats::getCurrency,
+                        TenantOfferStats::getOfferCount, row -> row.getTotalAmount().doubleValue())
+                .containsExactlyInAnyOrder(
+                        tuple(OfferStatus.SENT, "TRY", 2L, 150.0),
+                        tuple(OfferStatus.SENT, "USD", 1L, 10.0),
+                        tuple(OfferStatus.ACCEPTED, "TRY", 1L, 700.0),
+                        tuple(OfferStatus.REJECTED, "EUR", 0L, 0.0));
+        assertThat(meterRegistry.get("offer.stats.drift").counter().count()).isEqualTo(6);
+    }
+
+    @Test
+    void onlyTheLeaseHolderReconciles() {
+        seed(OfferStatus.DRAFT, "TRY", "1.00");
+        JobLeaseService nodeB = new JobLeaseService(jobLeaseRepository, transactionManager, "node-b");
+        assertThat(nodeB.tryAcquire(TenantOfferStatsReconciler.LEASE, Duration.ofMinutes(5))).isTrue();
+
+        assertThat(reconciler.run()).isEqualTo(-1);
+        assertThat(statsRepository.findByTenantId(tenantId)).isEmpty();
+    }
+
+    @Test
+    void backfillCompletedOnAnotherNodeIsSeenByAllNodes() {
+        seed(OfferStatus.DRAFT, "TRY", "1.00");
+        TenantOfferStatsReconciler nodeB = new TenantOfferStatsReconciler(tenantRepository, offerRepository,
+                statsRepository, new JobLeaseService(jobLeaseRepository, transactionManager, "node-b"),
+                transactionManager, meterRegistry, true, 60);
+        assertThat(reconciler.isBackfilled()).isFalse();
+        assertThat(nodeB.isBackfilled()).isFalse();
+
+        assertThat(reconciler.run()).isEqualTo(1);
+        assertThat(nodeB.run()).isEqualTo(-1);
+
+        assertThat(reconciler.isBackfilled()).isTrue();
+        assertThat(nodeB.isBackfilled()).isTrue();
+    }
+
+    @Test
+    void offerServiceKeepsStatsInStep() {
+        Offer draft = seed(OfferStatus.DRAFT, "EUR", "300.00");
+        Offer other = seed(OfferStatus.DRAFT, "EUR", "20.00");
+        reconciler.reconcile(tenantId);
+
+        OfferService offerService = OfferServiceBuilder.offerService(offerRepository, customerRepository)
+                .productFiles(productFileRepository)
+                .mapper(new OfferMapperImpl())
+                .publicOfferCache(new PublicOfferCache(meterRegistry, 100, 300))
+                .snapshots(new OfferSnapshotService(offerSnapshotRepository, new ObjectMapper(), true))
+                .stats(new TenantOfferStatsService(statsRepository))
+                .build();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try (TenantContext.Scope ignored = TenantContext.bind(tenantId)) {
+            transactionTemplate.executeWithoutResult(status -> offerService.sendOffer(draft.getId()));
+            transactionTemplate.executeWithoutResult(status -> offerService.deleteOffer(other.getId()));
+        }
+
+        assertThat(statsRepository.findByTenantId(tenantId))
+                .extracting(TenantOfferStats::getStatus, TenantOfferStats::getOfferCount,
+                        row -> row.getTotalAmount().doubleValue())
+                .containsExactlyInAnyOrder(
+                        tuple(OfferStatus.DRAFT, 0L, 0.0),
+                        tuple(OfferStatus.SENT, 1L, 300.0));
+        assertThat(reconciler.reconcile(tenantId)).isZero();
+    }
+
+    private Offer seed(OfferStatus status, String currency, String total) {
+        return offerRepository.save(Offer.builder()
+                .offerNo(String.format("ABC-20261018-%04d", ++sequence)).tenantId(tenantId).customerId(customerId)
+                .currency(currency).status(status)
+                .subtotal(new BigDecimal(total)).vatTotal(BigDecimal.ZERO).total(new BigDecimal(total))
+                .exchangeRate(BigDecimal.ZERO)
+                .build());
+    }
+}
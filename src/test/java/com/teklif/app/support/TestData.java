@@ -0,0 +1,26 @@
+package com.teklif.app.support;
+
+import com.teklif.app.entity.Customer;
+import com.teklif.app.entity.Tenant;
+import com.teklif.app.enums.CustomerType;
+
+/**
+ * Tenant and customer most tests seed. Builders are returned so a test can override
+ * only the fields it is about (branding, SMTP, ...).
+ */
+public final class TestData {
+
+    private TestData() {
+    }
+
+    public static Tenant.TenantBuilder acme() {
+        return Tenant.builder()
+                .name("Acme").slug("acme").taxNumber("1").email("a@acme.test").isActive(true);
+    }
+
+    public static Customer.CustomerBuilder yildiz(String tenantId) {
+        return Customer.builder()
+                .tenantId(tenantId).type(CustomerType.COMPANY).companyName("Yıldız Yapı")
+                .contactPerson("Ali").email("ali@yildiz.test").isActive(true);
+    }
+}
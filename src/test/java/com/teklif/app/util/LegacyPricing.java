@@ -0,0 +1,45 @@
+package com.teklif.app.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The BigDecimal line/total code that OfferService used before {@link PricingEngine},
+ * kept verbatim as the reference for equivalence tests and benchmarks.
+ */
+public final class LegacyPricing {
+
+    private LegacyPricing() {
+    }
+
+    public static BigDecimal[] line(BigDecimal unitPrice, int qty, BigDecimal discountRate, int rate) {
+        BigDecimal quantity = BigDecimal.valueOf(qty);
+
+        BigDecimal subtotal = unitPrice.multiply(quantity);
+
+        if (discountRate.compareTo(BigDecimal.ZERO) > 0) {
+            BigDecimal discount = subtotal.multiply(discountRate).divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+            subtotal = subtotal.subtract(discount);
+        }
+
+        BigDecimal vatRate = BigDecimal.valueOf(rate);
+        BigDecimal vatAmount = subtotal.multiply(vatRate).divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+
+        BigDecimal total = subtotal.add(vatAmount);
+        return new BigDecimal[]{subtotal, vatAmount, total};
+    }
+
+    /**
+     * @return subtotal, vat total and total of the offer
+     */
+    public static BigDecimal[] offer(BigDecimal[] unitPrices, int[] quantities, BigDecimal[] discountRates, int[] vatRates) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal vatTotal = BigDecimal.ZERO;
+        for (int i = 0; i < unitPrices.length; i++) {
+            BigDecimal[] line = line(unitPrices[i], quantities[i], discountRates[i], vatRates[i]);
+            subtotal = subtotal.add(line[0]);
+            vatTotal = vatTotal.add(line[1]);
+        }
+        return new BigDecimal[]{subtotal, vatTotal, subtotal.add(vatTotal)};
+    }
+}
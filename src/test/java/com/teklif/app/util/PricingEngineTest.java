@@ -0,0 +1,111 @@
+package com.teklif.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property test: for random inputs the engine must produce exactly the amounts of
+ * {@link LegacyPricing}. Both sides are compared at scale 4 (what the columns store)
+ * when that is lossless, and without trailing zeros otherwise.
+ */
+class PricingEngineTest {
+
+    private static final int[] VAT_RATES = {0, 1, 8, 10, 18, 20, -5};
+    private static final int CASES = 200_000;
+
+    @Test
+    void linesAreBitIdenticalToBigDecimalRules() {
+        Random random = new Random(20261018L);
+        for (int i = 0; i < CASES; i++) {
+            BigDecimal unitPrice = randomPrice(random);
+            int quantity = 1 + random.nextInt(random.nextBoolean() ? 10 : 100_000);
+            BigDecimal discountRate = randomDiscount(random);
+            int vatRate = VAT_RATES[random.nextInt(VAT_RATES.length)];
+
+            BigDecimal[] expected = LegacyPricing.line(unitPrice, quantity, discountRate, vatRate);
+            PricingEngine.Line actual = PricingEngine.line(unitPrice, quantity, discountRate, vatRate);
+
+            String input = unitPrice + " x " + quantity + " -" + discountRate + "% +" + vatRate + "%";
+            assertThat(canonical(actual.subtotal())).as(input).isEqualTo(canonical(expected[0]));
+            assertThat(canonical(actual.vatAmount())).as(input).isEqualTo(canonical(expected[1]));
+            assertThat(canonical(actual.total())).as(input).isEqualTo(canonical(expected[2]));
+        }
+    }
+
+    @Test
+    void offerTotalsAreBitIdenticalToBigDecimalRules() {
+        Random random = new Random(42L);
+        for (int n = 0; n < 2_000; n++) {
+            int lines = 1 + random.nextInt(200);
+            BigDecimal[] prices = new BigDecimal[lines];
+            int[] quantities = new int[lines];
+            BigDecimal[] discounts = new BigDecimal[lines];
+            int[] vatRates = new int[lines];
+            PricingEngine.Totals totals = new PricingEngine.Totals();
+            for (int i = 0; i < lines; i++) {
+                prices[i] = randomPrice(random);
+                quantities[i] = 1 + random.nextInt(1_000);
+                discounts[i] = randomDiscount(random);
+                vatRates[i] = VAT_RATES[random.nextInt(VAT_RATES.length)];
+                totals.add(PricingEngine.line(prices[i], quantities[i], discounts[i], vatRates[i]));
+            }
+
+            BigDecimal[] expected = LegacyPricing.offer(prices, quantities, discounts, vatRates);
+            assertThat(canonical(totals.subtotal())).isEqualTo(canonical(expected[0]));
+            assertThat(canonical(totals.vatTotal())).isEqualTo(canonical(expected[1]));
+            assertThat(canonical(totals.total())).isEqualTo(canonical(expected[2]));
+        }
+    }
+
+    @Test
+    void roundsHalfUpAtFourDecimals() {
+        // 0.0001 * 50% = 0.00005 → 0.0001 indirim
+        PricingEngine.Line line = PricingEngine.line(new BigDecimal("0.0001"), 1, new BigDecimal("50"), 0);
+        assertThat(line.subtotal()).isEqualTo(new BigDecimal("0.0000"));
+
+        // 0.0005 * 10% KDV = 0.00005 → 0.0001
+        line = PricingEngine.line(new BigDecimal("0.0005"), 1, BigDecimal.ZERO, 10);
+        assertThat(line.vatAmount()).isEqualTo(new BigDecimal("0.0001"));
+    }
+
+    @Test
+    void fallsBackToBigDecimalWhenLongWouldOverflow() {
+        BigDecimal unitPrice = new BigDecimal("999999999999999.9999");
+
+        PricingEngine.Line line = PricingEngine.line(unitPrice, 1_000_000, new BigDecimal("12.5"), 20);
+
+        BigDecimal[] expected = LegacyPricing.line(unitPrice, 1_000_000, new BigDecimal("12.5"), 20);
+        assertThat(line.total()).isEqualTo(expected[2]);
+    }
+
+    private static BigDecimal canonical(BigDecimal value) {
+        try {
+            return value.setScale(PricingEngine.SCALE, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            return value.stripTrailingZeros();
+        }
+    }
+
+    private static BigDecimal randomPrice(Random random) {
+        return switch (random.nextInt(10)) {
+            case 0 -> BigDecimal.valueOf(random.nextLong(1, 1_000_000_000_000_000L), 4 + random.nextInt(3));
+            case 1 -> BigDecimal.valueOf(random.nextLong(1, 100_000_000_000_000L), 4);
+            case 2 -> new BigDecimal(random.nextInt(1, 1_000) + "E+" + random.nextInt(1, 4));
+            default -> BigDecimal.valueOf(random.nextLong(1, 100_000_000L), random.nextInt(5));
+        };
+    }
+
+    private static BigDecimal randomDiscount(Random random) {
+        return switch (random.nextInt(6)) {
+            case 0 -> BigDecimal.ZERO;
+            case 1 -> BigDecimal.valueOf(random.nextInt(-500, 0), 2);
+            case 2 -> BigDecimal.valueOf(random.nextInt(0, 1_000_000), 5);
+            default -> BigDecimal.valueOf(random.nextInt(0, 10_001), random.nextInt(3));
+        };
+    }
+}
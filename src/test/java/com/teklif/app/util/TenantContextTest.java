@@ -0,0 +1,42 @@
+package com.teklif.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantContextTest {
+
+    @Test
+    void scopeRestoresPreviousTenant() {
+        try (TenantContext.Scope outer = TenantContext.bind("a")) {
+            try (TenantContext.Scope inner = TenantContext.bind("b")) {
+                assertThat(TenantContext.getTenantId()).isEqualTo("b");
+            }
+            assertThat(TenantContext.getTenantId()).isEqualTo("a");
+        }
+        assertThat(TenantContext.getTenantId()).isNull();
+    }
+
+    @Test
+    void pooledThreadDoesNotKeepTenantOfPreviousTask() throws Exception {
+        try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+            pool.submit(() -> TenantContext.runWith("a", () -> { })).get();
+
+            assertThat(pool.submit(TenantContext::getTenantId).get()).isNull();
+        }
+    }
+
+    @Test
+    void wrappedTaskInheritsCallerTenant() throws Exception {
+        try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+             TenantContext.Scope ignored = TenantContext.bind("tenant-1")) {
+            String[] seen = new String[1];
+            virtualThreads.submit(TenantContext.wrap(() -> seen[0] = TenantContext.getTenantId())).get();
+
+            assertThat(seen[0]).isEqualTo("tenant-1");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.teklif.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    @Test
+    void matchesSubstringsCaseInsensitivelyAcrossFields() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("1", "Yıldız Yapı A.Ş.", "Ahmet Demir", "info@yildiz.com.tr");
+        index.put("2", "Ege Tekstil", null, "satis@ege.com");
+
+        assertThat(index.search("YAPı", 10)).containsExactly("1");
+        assertThat(index.search("demir", 10)).containsExactly("1");
+        assertThat(index.search(".com", 10)).containsExactlyInAnyOrder("1", "2");
+        assertThat(index.search("eg", 10)).containsExactly("2");
+        assertThat(index.search("a.ş", 10)).containsExactly("1");
+        // Alanlar arası eşleşme olmamalı: "demir" + "info" birleşimi aranamaz
+        assertThat(index.search("demirinfo", 10)).isEmpty();
+        assertThat(index.search("xyz", 10)).isEmpty();
+    }
+
+    @Test
+    void ignoresCaseAndAccentsLikeTheColumnCollation() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("1", "İSTANBUL TİCARET");
+        index.put("2", "Şirket Çözüm Ltd.");
+        index.put("3", "istanbul şube", "IŞIK");
+
+        assertThat(index.search("istanbul", 10)).containsExactlyInAnyOrder("1", "3");
+        assertThat(index.search("İSTANBUL", 10)).containsExactlyInAnyOrder("1", "3");
+        assertThat(index.search("ticaret", 10)).containsExactly("1");
+        assertThat(index.search("sirket", 10)).containsExactly("2");
+        assertThat(index.search("ŞİRKET", 10)).containsExactly("2");
+        assertThat(index.search("cozum", 10)).containsExactly("2");
+        assertThat(index.search("isik", 10)).containsExactly("3");
+        // Üç karakterden kısa sorgular tarama yoluna düşer, katlama orada da geçerli
+        assertThat(index.search("şu", 10)).containsExactly("3");
+    }
+
+    @Test
+    void updatesAndRemovalsReplacePreviousText() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("1", "TKL-20261018-0001");
+        index.put("1", "TKL-20261019-0001");
+        index.put("2", "TKL-20261018-0002");
+        index.remove("2");
+
+        assertThat(index.search("20261018", 10)).isEmpty();
+        assertThat(index.search("20261019", 10)).containsExactly("1");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void returnsNullWhenMoreThanMaxResultsMatch() {
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < 10; i++) {
+            index.put("id-" + i, "TKL-" + i);
+        }
+
+        assertThat(index.search("tkl", 9)).isNull();
+        assertThat(index.search("tkl", 10)).hasSize(10);
+        assertThat(index.search("tk", 5)).isNull();
+    }
+
+    @Test
+    void agreesWithLinearScanUnderRandomChurn() {
+        Random random = new Random(3);
+        TrigramIndex index = new TrigramIndex();
+        Map<String, String> expected = new HashMap<>();
+
+        // Compaction eşiğini aşacak kadar güncelleme/silme
+        for (int step = 0; step < 20_000; step++) {
+            String id = "id-" + random.nextInt(800);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                String text = randomText(random);
+                index.put(id, text);
+                expected.put(id, text.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        for (int i = 0; i < 300; i++) {
+            String term = randomText(random).substring(0, 1 + random.nextInt(4));
+            Set<String> scan = new HashSet<>();
+            expected.forEach((id, text) -> {
+                if (text.contains(term.toLowerCase(Locale.ROOT))) {
+                    scan.add(id);
+                }
+            });
+            assertThat(index.search(term, Integer.MAX_VALUE)).as(term).isEqualTo(scan);
+        }
+        assertThat(index.size()).isEqualTo(expected.size());
+    }
+
+    private static String randomText(Random random) {
+        String alphabet = "abcdeABCDE-0123";
+        StringBuilder text = new StringBuilder();
+        int length = 4 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}